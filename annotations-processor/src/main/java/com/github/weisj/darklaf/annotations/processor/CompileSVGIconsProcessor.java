@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.annotations.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import com.github.weisj.darklaf.annotations.CompileSVGIcons;
+
+/**
+ * Compiles the svg icons of the directories specified by {@link CompileSVGIcons} into classes
+ * painting them using Java2D. For every annotated type a provider class is generated, which is
+ * registered as a service of {@code com.github.weisj.darklaf.icons.CompiledSVGProvider}.
+ *
+ * <p>
+ * The resource roots the icon directories are resolved against are passed using the processor
+ * option {@value #RESOURCE_ROOTS_OPTION} as a list separated by {@link File#pathSeparator}.
+ */
+@SupportedAnnotationTypes("com.github.weisj.darklaf.annotations.CompileSVGIcons")
+@SupportedOptions(CompileSVGIconsProcessor.RESOURCE_ROOTS_OPTION)
+public class CompileSVGIconsProcessor extends AbstractProcessor {
+
+    static final String RESOURCE_ROOTS_OPTION = "darklaf.svgResourceRoots";
+    private static final String IDENT = "    ";
+    private static final String PROVIDER_SERVICE = "com.github.weisj.darklaf.icons.CompiledSVGProvider";
+
+    private final List<String> providers = new ArrayList<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        Collection<? extends Element> annotatedElements = roundEnv.getElementsAnnotatedWith(CompileSVGIcons.class);
+        List<TypeElement> types = ElementFilter.typesIn(annotatedElements);
+        for (TypeElement typeElement : types) {
+            CompileSVGIcons annotation = typeElement.getAnnotation(CompileSVGIcons.class);
+            try {
+                compileIcons(typeElement, annotation.value(), annotation.packageName());
+            } catch (final IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to compile svg icons: " + e.getMessage(), typeElement);
+            }
+        }
+        return false;
+    }
+
+    private void compileIcons(final TypeElement typeElement, final String directory, final String packageName)
+            throws IOException {
+        List<String> paths = new ArrayList<>();
+        List<String> classNames = new ArrayList<>();
+        Set<String> usedNames = new HashSet<>();
+        for (Path root : getResourceRoots()) {
+            Path iconDirectory = root.resolve(directory);
+            if (!Files.isDirectory(iconDirectory)) continue;
+            List<Path> files;
+            try (Stream<Path> stream = Files.walk(iconDirectory)) {
+                files = stream.filter(p -> p.getFileName().toString().endsWith(".svg"))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                String relativePath = toResourcePath(iconDirectory.relativize(file));
+                String resourcePath = toResourcePath(root.relativize(file));
+                if (paths.contains(resourcePath)) continue;
+
+                String className = SVGIconCompiler.createClassName(relativePath);
+                for (int i = 2; usedNames.contains(className); i++) {
+                    className = SVGIconCompiler.createClassName(relativePath) + i;
+                }
+                String source;
+                try {
+                    source = SVGIconCompiler.compile(resourcePath, Files.readAllBytes(file), packageName, className);
+                } catch (final UnsupportedSVGException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                            "Icon '" + resourcePath + "' will be loaded at runtime: " + e.getMessage());
+                    continue;
+                }
+                usedNames.add(className);
+                writeSource(packageName + "." + className, source, typeElement);
+                paths.add(resourcePath);
+                classNames.add(className);
+            }
+        }
+        if (paths.isEmpty()) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "No svg icons found in '" + directory + "'. Is the option '" + RESOURCE_ROOTS_OPTION + "' set?",
+                    typeElement);
+        }
+        String providerName = typeElement.getSimpleName() + "CompiledSVGProvider";
+        writeSource(packageName + "." + providerName,
+                createProviderSource(packageName, providerName, directory, paths, classNames), typeElement);
+        providers.add(packageName + "." + providerName);
+        originatingElements.add(typeElement);
+    }
+
+    private List<Path> getResourceRoots() {
+        String roots = processingEnv.getOptions().get(RESOURCE_ROOTS_OPTION);
+        if (roots == null || roots.isEmpty()) return Collections.emptyList();
+        List<Path> paths = new ArrayList<>();
+        for (String root : roots.split(File.pathSeparator)) {
+            if (!root.isEmpty()) paths.add(Paths.get(root));
+        }
+        return paths;
+    }
+
+    private static String toResourcePath(final Path path) {
+        return path.toString().replace(File.separatorChar, '/');
+    }
+
+    private static String createProviderSource(final String packageName, final String providerName,
+            final String directory, final List<String> paths, final List<String> classNames) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("package ").append(packageName).append(";\n\n");
+        builder.append("import com.github.weisj.darklaf.icons.CompiledSVG;\n");
+        builder.append("import ").append(PROVIDER_SERVICE).append(";\n\n");
+        builder.append("/**\n");
+        builder.append(" * Auto-Generated class. Provides the compiled svg icons of '").append(directory)
+                .append("'.\n");
+        builder.append(" */\n");
+        builder.append("public final class ").append(providerName).append(" implements CompiledSVGProvider {\n\n");
+        builder.append(IDENT).append("@Override\n");
+        builder.append(IDENT).append("public CompiledSVG get(final String resourcePath) {\n");
+        builder.append(IDENT).append(IDENT).append("switch (resourcePath) {\n");
+        for (int i = 0; i < paths.size(); i++) {
+            builder.append(IDENT).append(IDENT).append(IDENT).append("case \"").append(paths.get(i)).append("\":\n");
+            builder.append(IDENT).append(IDENT).append(IDENT).append(IDENT)
+                    .append("return new ").append(classNames.get(i)).append("();\n");
+        }
+        builder.append(IDENT).append(IDENT).append(IDENT).append("default:\n");
+        builder.append(IDENT).append(IDENT).append(IDENT).append(IDENT).append("return null;\n");
+        builder.append(IDENT).append(IDENT).append("}\n");
+        builder.append(IDENT).append("}\n");
+        builder.append("}\n");
+        return builder.toString();
+    }
+
+    private void writeSource(final String name, final String source, final Element originatingElement)
+            throws IOException {
+        JavaFileObject javaFileObject = processingEnv.getFiler().createSourceFile(name, originatingElement);
+        try (Writer writer = javaFileObject.openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private void writeServiceFile() {
+        if (providers.isEmpty()) return;
+        try {
+            FileObject fileObject = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/" + PROVIDER_SERVICE, originatingElements.toArray(new Element[0]));
+            try (Writer writer = fileObject.openWriter()) {
+                for (String provider : providers) {
+                    writer.write(provider);
+                    writer.write('\n');
+                }
+            }
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to register compiled svg providers: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+}
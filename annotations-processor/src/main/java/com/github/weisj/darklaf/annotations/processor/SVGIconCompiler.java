@@ -0,0 +1,966 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.annotations.processor;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * Compiles an svg document into the source of a class painting it using Java2D. Only the subset of
+ * svg used by the bundled icons is supported. Documents using anything else are rejected with an
+ * {@link UnsupportedSVGException} and continue to be loaded at runtime.
+ *
+ * <p>
+ * Gradients are compiled into color definitions which are resolved at paint time. This mirrors
+ * how {@code IconColorMapper} patches the gradients of themed icons.
+ *
+ * @author Jannis Weis
+ */
+final class SVGIconCompiler {
+
+    private static final String IDENT = "    ";
+    private static final String COMPILED_SVG = "com.github.weisj.darklaf.icons.CompiledSVG";
+    private static final String THEMED_DEFS_ID = "colors";
+    private static final float DEFAULT_MITER_LIMIT = 4;
+
+    private static final Pattern NUMBER = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+    private static final Pattern TRANSFORM = Pattern.compile("\\s*([a-zA-Z]+)\\s*\\(([^)]*)\\)\\s*,?");
+    private static final Pattern URL_REFERENCE = Pattern.compile("url\\(\\s*#([^)\\s]+)\\s*\\)");
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("[\\s,]+");
+
+    private static final Set<String> SHAPE_ELEMENTS =
+            new HashSet<>(Arrays.asList("path", "rect", "circle", "ellipse", "line", "polyline", "polygon"));
+    private static final Set<String> SUPPORTED_ATTRIBUTES = new HashSet<>(Arrays.asList(
+            "id", "version", "viewBox", "visualPadding", "fill", "fill-rule", "fill-opacity", "opacity",
+            "stroke", "stroke-width", "stroke-linecap", "stroke-linejoin", "stroke-miterlimit", "stroke-opacity",
+            "transform", "d", "points", "x", "y", "width", "height", "rx", "ry", "cx", "cy", "r",
+            "x1", "y1", "x2", "y2"));
+    private static final Set<String> GRADIENT_ATTRIBUTES =
+            new HashSet<>(Arrays.asList("id", "fallback", "opacity", "opacity-fallback"));
+    private static final Set<String> STOP_ATTRIBUTES =
+            new HashSet<>(Arrays.asList("offset", "stop-color", "stop-opacity"));
+
+    private final String resourcePath;
+    private final String packageName;
+    private final String className;
+
+    private final Map<String, Integer> colorIndices = new LinkedHashMap<>();
+    private final StringBuilder colorDefinitions = new StringBuilder();
+    private final Map<Integer, String> colorConstants = new LinkedHashMap<>();
+    private final Map<String, String> strokeConstants = new LinkedHashMap<>();
+    private final Map<String, String> transformConstants = new LinkedHashMap<>();
+    private final List<String> shapeFactories = new ArrayList<>();
+    private final StringBuilder paintBody = new StringBuilder();
+    private int paintOperations;
+
+    private SVGIconCompiler(final String resourcePath, final String packageName, final String className) {
+        this.resourcePath = resourcePath;
+        this.packageName = packageName;
+        this.className = className;
+    }
+
+    /**
+     * Compiles the svg document.
+     *
+     * @param resourcePath the path of the document relative to the resource root.
+     * @param content the content of the document.
+     * @param packageName the package of the generated class.
+     * @param className the simple name of the generated class.
+     * @return the source of the generated class.
+     * @throws UnsupportedSVGException if the document uses features which aren't supported.
+     */
+    static String compile(final String resourcePath, final byte[] content, final String packageName,
+            final String className) throws UnsupportedSVGException {
+        return new SVGIconCompiler(resourcePath, packageName, className).compile(content);
+    }
+
+    /**
+     * Derives a valid class name from the path of an svg document e.g. {@code menu/checkmark.svg} is
+     * turned into {@code MenuCheckmarkSVG}.
+     *
+     * @param relativePath the path of the document.
+     * @return the class name.
+     */
+    static String createClassName(final String relativePath) {
+        String name = relativePath.endsWith(".svg")
+                ? relativePath.substring(0, relativePath.length() - 4)
+                : relativePath;
+        StringBuilder builder = new StringBuilder();
+        for (String part : name.split("[^a-zA-Z0-9]+")) {
+            if (part.isEmpty()) continue;
+            builder.append(Character.toUpperCase(part.charAt(0))).append(part, 1, part.length());
+        }
+        if (builder.length() == 0 || !Character.isJavaIdentifierStart(builder.charAt(0))) {
+            builder.insert(0, '_');
+        }
+        return builder.append("SVG").toString();
+    }
+
+    private String compile(final byte[] content) throws UnsupportedSVGException {
+        Element root = parse(content);
+        if (!"svg".equals(root.getTagName())) throw new UnsupportedSVGException("Root element isn't <svg>");
+        checkAttributes(root, SUPPORTED_ATTRIBUTES);
+        if (parseLength(root, "x", 0) != 0 || parseLength(root, "y", 0) != 0) {
+            throw new UnsupportedSVGException("Root element defines a position");
+        }
+        int width = parseIntegralSize(root, "width");
+        int height = parseIntegralSize(root, "height");
+
+        AffineTransform viewTransform = new AffineTransform();
+        String viewBox = root.getAttribute("viewBox");
+        if (!viewBox.isEmpty()) {
+            float[] box = parseNumbers(viewBox);
+            if (box.length != 4 || box[2] <= 0 || box[3] <= 0) {
+                throw new UnsupportedSVGException("Invalid viewBox '" + viewBox + "'");
+            }
+            // The default preserveAspectRatio of xMidYMid meet.
+            double scale = Math.min(width / box[2], height / box[3]);
+            viewTransform.translate((width - box[2] * scale) / 2, (height - box[3] * scale) / 2);
+            viewTransform.scale(scale, scale);
+            viewTransform.translate(-box[0], -box[1]);
+        }
+
+        collectColors(root);
+        compileChildren(root, new Style(viewTransform).derive(root));
+        checkOpacity(root, 0);
+
+        String visualPadding = root.getAttribute("visualPadding");
+        String paddingExpression = "null";
+        if (!visualPadding.isEmpty()) {
+            float[] paddings = parseNumbers(visualPadding);
+            if (paddings.length != 4) {
+                throw new UnsupportedSVGException("Invalid visualPadding '" + visualPadding + "'");
+            }
+            paddingExpression = "new Insets(" + (int) paddings[0] + ", " + (int) paddings[1] + ", "
+                    + (int) paddings[2] + ", " + (int) paddings[3] + ")";
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        return createSource(width, height, crc.getValue(), paddingExpression);
+    }
+
+    private static Element parse(final byte[] content) throws UnsupportedSVGException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(false);
+            factory.setValidating(false);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document document = builder.parse(new ByteArrayInputStream(content));
+            return document.getDocumentElement();
+        } catch (final ParserConfigurationException | SAXException | IOException e) {
+            throw new UnsupportedSVGException("Document can't be parsed: " + e.getMessage());
+        }
+    }
+
+    private void collectColors(final Element root) throws UnsupportedSVGException {
+        for (Element gradient : findElements(root, "linearGradient")) {
+            checkAttributes(gradient, GRADIENT_ATTRIBUTES);
+            String id = gradient.getAttribute("id");
+            if (id.isEmpty()) throw new UnsupportedSVGException("Gradient without id");
+            if (colorIndices.containsKey(id)) throw new UnsupportedSVGException("Duplicate gradient '" + id + "'");
+
+            List<Element> stops = getChildElements(gradient);
+            if (stops.isEmpty()) throw new UnsupportedSVGException("Gradient '" + id + "' has no stops");
+            String stopColor = null;
+            String stopOpacity = null;
+            for (Element stop : stops) {
+                if (!"stop".equals(stop.getTagName())) {
+                    throw new UnsupportedSVGException("Unsupported element <" + stop.getTagName() + "> in gradient");
+                }
+                checkAttributes(stop, STOP_ATTRIBUTES);
+                String color = stop.getAttribute("stop-color");
+                String opacity = stop.getAttribute("stop-opacity");
+                if (stopColor == null) {
+                    stopColor = color;
+                    stopOpacity = opacity;
+                } else if (!stopColor.equals(color) || !stopOpacity.equals(opacity)) {
+                    throw new UnsupportedSVGException("Gradient '" + id + "' isn't a solid color");
+                }
+            }
+            int rgb = parseColor(stopColor.isEmpty() ? "#000000" : stopColor);
+            float opacity = stopOpacity.isEmpty() ? -1 : parseNumber(stopOpacity);
+
+            Node parent = gradient.getParentNode();
+            boolean themed = parent instanceof Element
+                    && "defs".equals(((Element) parent).getTagName())
+                    && THEMED_DEFS_ID.equals(((Element) parent).getAttribute("id"));
+
+            colorIndices.put(id, colorIndices.size());
+            colorDefinitions.append(IDENT).append(IDENT).append(IDENT).append(IDENT)
+                    .append("new ColorDefinition(")
+                    .append(quote(id)).append(", ")
+                    .append(stringArray(gradient.getAttribute("fallback"))).append(", ")
+                    .append(gradient.hasAttribute("opacity") ? quote(gradient.getAttribute("opacity")) : "null")
+                    .append(", ")
+                    .append(stringArray(gradient.getAttribute("opacity-fallback"))).append(", ")
+                    .append(String.format("0x%06X", rgb)).append(", ")
+                    .append(floatLiteral(opacity)).append(", ")
+                    .append(themed).append("),\n");
+        }
+    }
+
+    private void compileChildren(final Element element, final Style style) throws UnsupportedSVGException {
+        for (Element child : getChildElements(element)) {
+            String tag = child.getTagName();
+            if ("defs".equals(tag)) {
+                for (Element def : getChildElements(child)) {
+                    if (!"linearGradient".equals(def.getTagName())) {
+                        throw new UnsupportedSVGException("Unsupported definition <" + def.getTagName() + ">");
+                    }
+                }
+                continue;
+            }
+            if ("linearGradient".equals(tag)) continue;
+            checkAttributes(child, SUPPORTED_ATTRIBUTES);
+            int operations = paintOperations;
+            if ("g".equals(tag)) {
+                compileChildren(child, style.derive(child));
+            } else if (SHAPE_ELEMENTS.contains(tag)) {
+                compileShape(child, style.derive(child));
+            } else {
+                throw new UnsupportedSVGException("Unsupported element <" + tag + ">");
+            }
+            checkOpacity(child, operations);
+        }
+    }
+
+    /*
+     * The opacity of an element applies to its contents as a whole. Multiplying it into the alpha of
+     * each painted shape is only equivalent if the element paints a single shape. Otherwise,
+     * overlapping shapes (including the fill and stroke of the same shape) would shine through each
+     * other.
+     */
+    private void checkOpacity(final Element element, final int operationsBefore) throws UnsupportedSVGException {
+        if (paintOperations - operationsBefore <= 1 || !element.hasAttribute("opacity")) return;
+        if (parseNumber(element.getAttribute("opacity")) < 1) {
+            throw new UnsupportedSVGException(
+                    "Opacity of <" + element.getTagName() + "> applies to more than a single shape");
+        }
+    }
+
+    private void compileShape(final Element element, final Style style) throws UnsupportedSVGException {
+        Shape shape = createShape(element, style.fillRule);
+        if (shape == null) return;
+        if (style.fill != null) {
+            Shape transformed = style.transform.createTransformedShape(shape);
+            String shapeName = addShape(transformed);
+            paintBody.append(IDENT).append(IDENT).append("fill(g, ").append(shapeName).append(", ")
+                    .append(colorExpression(style.fill)).append(", ")
+                    .append(floatLiteral(style.opacity * style.fillOpacity)).append(");\n");
+            paintOperations++;
+        }
+        if (style.stroke != null && style.strokeWidth > 0) {
+            String shapeName = addShape(shape);
+            String strokeName = addStroke(style);
+            String transformName = addTransform(style.transform);
+            paintBody.append(IDENT).append(IDENT).append("draw(g, ").append(shapeName).append(", ")
+                    .append(strokeName).append(", ").append(transformName).append(", ")
+                    .append(colorExpression(style.stroke)).append(", ")
+                    .append(floatLiteral(style.opacity * style.strokeOpacity)).append(");\n");
+            paintOperations++;
+        }
+    }
+
+    private static Shape createShape(final Element element, final int windingRule) throws UnsupportedSVGException {
+        switch (element.getTagName()) {
+            case "path":
+                return PathParser.parse(element.getAttribute("d"), windingRule);
+            case "rect": {
+                float x = parseLength(element, "x", 0);
+                float y = parseLength(element, "y", 0);
+                float w = parseLength(element, "width", 0);
+                float h = parseLength(element, "height", 0);
+                if (w <= 0 || h <= 0) return null;
+                float rx = parseLength(element, "rx", -1);
+                float ry = parseLength(element, "ry", -1);
+                if (rx < 0) rx = Math.max(ry, 0);
+                if (ry < 0) ry = rx;
+                if (rx == 0 && ry == 0) return new Rectangle2D.Float(x, y, w, h);
+                return new RoundRectangle2D.Float(x, y, w, h, 2 * rx, 2 * ry);
+            }
+            case "circle": {
+                float r = parseLength(element, "r", 0);
+                if (r <= 0) return null;
+                float cx = parseLength(element, "cx", 0);
+                float cy = parseLength(element, "cy", 0);
+                return new Ellipse2D.Float(cx - r, cy - r, 2 * r, 2 * r);
+            }
+            case "ellipse": {
+                float rx = parseLength(element, "rx", 0);
+                float ry = parseLength(element, "ry", 0);
+                if (rx <= 0 || ry <= 0) return null;
+                float cx = parseLength(element, "cx", 0);
+                float cy = parseLength(element, "cy", 0);
+                return new Ellipse2D.Float(cx - rx, cy - ry, 2 * rx, 2 * ry);
+            }
+            case "line":
+                return new Line2D.Float(parseLength(element, "x1", 0), parseLength(element, "y1", 0),
+                        parseLength(element, "x2", 0), parseLength(element, "y2", 0));
+            case "polyline":
+            case "polygon": {
+                float[] points = parseNumbers(element.getAttribute("points"));
+                if (points.length < 2) return null;
+                Path2D path = new Path2D.Float(windingRule);
+                path.moveTo(points[0], points[1]);
+                for (int i = 2; i + 1 < points.length; i += 2) {
+                    path.lineTo(points[i], points[i + 1]);
+                }
+                if ("polygon".equals(element.getTagName())) path.closePath();
+                return path;
+            }
+            default:
+                throw new UnsupportedSVGException("Unsupported element <" + element.getTagName() + ">");
+        }
+    }
+
+    private String addShape(final Shape shape) {
+        String name = "SHAPE_" + shapeFactories.size();
+        StringBuilder builder = new StringBuilder();
+        PathIterator iterator = shape.getPathIterator(null);
+        String windingRule = iterator.getWindingRule() == PathIterator.WIND_EVEN_ODD
+                ? "Path2D.WIND_EVEN_ODD"
+                : "Path2D.WIND_NON_ZERO";
+        builder.append(IDENT).append("private static Shape create").append(name).append("() {\n");
+        builder.append(IDENT).append(IDENT).append("Path2D p = new Path2D.Float(").append(windingRule).append(");\n");
+        double[] coords = new double[6];
+        while (!iterator.isDone()) {
+            int type = iterator.currentSegment(coords);
+            builder.append(IDENT).append(IDENT);
+            switch (type) {
+                case PathIterator.SEG_MOVETO:
+                    builder.append("p.moveTo(").append(coordinates(coords, 2)).append(");\n");
+                    break;
+                case PathIterator.SEG_LINETO:
+                    builder.append("p.lineTo(").append(coordinates(coords, 2)).append(");\n");
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    builder.append("p.quadTo(").append(coordinates(coords, 4)).append(");\n");
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    builder.append("p.curveTo(").append(coordinates(coords, 6)).append(");\n");
+                    break;
+                default:
+                    builder.append("p.closePath();\n");
+                    break;
+            }
+            iterator.next();
+        }
+        builder.append(IDENT).append(IDENT).append("return p;\n");
+        builder.append(IDENT).append("}\n");
+        shapeFactories.add(builder.toString());
+        return name;
+    }
+
+    private String addStroke(final Style style) {
+        String expression = "new BasicStroke(" + floatLiteral(style.strokeWidth) + ", "
+                + style.lineCap + ", " + style.lineJoin + ", " + floatLiteral(style.miterLimit) + ")";
+        return strokeConstants.computeIfAbsent(expression, e -> "STROKE_" + strokeConstants.size());
+    }
+
+    private String addTransform(final AffineTransform transform) {
+        double[] matrix = new double[6];
+        transform.getMatrix(matrix);
+        String expression = "new AffineTransform(" + coordinates(matrix, 6) + ")";
+        return transformConstants.computeIfAbsent(expression, e -> "TRANSFORM_" + transformConstants.size());
+    }
+
+    private String colorExpression(final Object paint) {
+        if (paint instanceof Integer) {
+            return colorConstants.computeIfAbsent((Integer) paint, c -> "COLOR_" + colorConstants.size());
+        }
+        return "colors[" + colorIndices.get(paint) + "]";
+    }
+
+    private String createSource(final int width, final int height, final long checksum,
+            final String paddingExpression) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("package ").append(packageName).append(";\n\n");
+        builder.append("import java.awt.*;\n");
+        builder.append("import java.awt.geom.AffineTransform;\n");
+        builder.append("import java.awt.geom.Path2D;\n\n");
+        builder.append("import ").append(COMPILED_SVG).append(";\n\n");
+        builder.append("/**\n");
+        builder.append(" * Auto-Generated class. Paints the svg icon '").append(resourcePath).append("'.\n");
+        builder.append(" */\n");
+        builder.append("final class ").append(className).append(" extends CompiledSVG {\n\n");
+
+        for (Map.Entry<Integer, String> entry : colorConstants.entrySet()) {
+            builder.append(IDENT).append("private static final Color ").append(entry.getValue())
+                    .append(" = new Color(").append(String.format("0x%06X", entry.getKey())).append(");\n");
+        }
+        for (Map.Entry<String, String> entry : strokeConstants.entrySet()) {
+            builder.append(IDENT).append("private static final Stroke ").append(entry.getValue())
+                    .append(" = ").append(entry.getKey()).append(";\n");
+        }
+        for (Map.Entry<String, String> entry : transformConstants.entrySet()) {
+            builder.append(IDENT).append("private static final AffineTransform ").append(entry.getValue())
+                    .append(" = ").append(entry.getKey()).append(";\n");
+        }
+        for (int i = 0; i < shapeFactories.size(); i++) {
+            builder.append(IDENT).append("private static final Shape SHAPE_").append(i)
+                    .append(" = createSHAPE_").append(i).append("();\n");
+        }
+        builder.append('\n');
+
+        builder.append(IDENT).append(className).append("() {\n");
+        builder.append(IDENT).append(IDENT).append("super(").append(quote(resourcePath)).append(", ")
+                .append(checksum).append("L, ").append(width).append(", ").append(height)
+                .append(", new ColorDefinition[] {\n");
+        builder.append(colorDefinitions);
+        builder.append(IDENT).append(IDENT).append("}, ").append(paddingExpression).append(");\n");
+        builder.append(IDENT).append("}\n\n");
+
+        builder.append(IDENT).append("@Override\n");
+        builder.append(IDENT).append("protected void paintShapes(final Graphics2D g, final Color[] colors) {\n");
+        builder.append(paintBody);
+        builder.append(IDENT).append("}\n");
+
+        for (String factory : shapeFactories) {
+            builder.append('\n').append(factory);
+        }
+        builder.append("}\n");
+        return builder.toString();
+    }
+
+    private Object parsePaint(final String value) throws UnsupportedSVGException {
+        if ("none".equals(value)) return null;
+        Matcher matcher = URL_REFERENCE.matcher(value);
+        if (matcher.matches()) {
+            String id = matcher.group(1);
+            if (!colorIndices.containsKey(id)) throw new UnsupportedSVGException("Unknown paint '" + value + "'");
+            return id;
+        }
+        return parseColor(value);
+    }
+
+    private static int parseColor(final String value) throws UnsupportedSVGException {
+        String hex = value.trim();
+        if (hex.startsWith("#")) {
+            hex = hex.substring(1);
+            if (hex.length() == 3) {
+                hex = new String(new char[] {
+                        hex.charAt(0), hex.charAt(0), hex.charAt(1), hex.charAt(1), hex.charAt(2), hex.charAt(2)});
+            }
+            if (hex.length() == 6) {
+                try {
+                    return Integer.parseInt(hex, 16);
+                } catch (final NumberFormatException ignored) {
+                    // Handled below.
+                }
+            }
+        }
+        switch (hex.toLowerCase(Locale.ENGLISH)) {
+            case "black":
+                return 0x000000;
+            case "white":
+                return 0xFFFFFF;
+            default:
+                throw new UnsupportedSVGException("Unsupported color '" + value + "'");
+        }
+    }
+
+    private static int parseIntegralSize(final Element element, final String name) throws UnsupportedSVGException {
+        float value = parseLength(element, name, -1);
+        if (value <= 0 || value != (int) value) {
+            throw new UnsupportedSVGException("Root element needs an integral " + name);
+        }
+        return (int) value;
+    }
+
+    private static float parseLength(final Element element, final String name, final float defaultValue)
+            throws UnsupportedSVGException {
+        String value = element.getAttribute(name).trim();
+        if (value.isEmpty()) return defaultValue;
+        if (value.endsWith("px")) value = value.substring(0, value.length() - 2);
+        return parseNumber(value);
+    }
+
+    private static float parseNumber(final String value) throws UnsupportedSVGException {
+        try {
+            return Float.parseFloat(value.trim());
+        } catch (final NumberFormatException e) {
+            throw new UnsupportedSVGException("Invalid number '" + value + "'");
+        }
+    }
+
+    private static float[] parseNumbers(final String value) throws UnsupportedSVGException {
+        Matcher matcher = NUMBER.matcher(value);
+        List<Float> numbers = new ArrayList<>();
+        int end = 0;
+        while (matcher.find()) {
+            if (!value.substring(end, matcher.start()).trim().replace(",", "").isEmpty()) {
+                throw new UnsupportedSVGException("Invalid number list '" + value + "'");
+            }
+            numbers.add(Float.parseFloat(matcher.group()));
+            end = matcher.end();
+        }
+        float[] result = new float[numbers.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = numbers.get(i);
+        }
+        return result;
+    }
+
+    private static AffineTransform parseTransform(final String value) throws UnsupportedSVGException {
+        AffineTransform transform = new AffineTransform();
+        Matcher matcher = TRANSFORM.matcher(value);
+        int end = 0;
+        while (matcher.find() && matcher.start() == end) {
+            end = matcher.end();
+            float[] args = parseNumbers(matcher.group(2));
+            String type = matcher.group(1);
+            if ("matrix".equals(type) && args.length == 6) {
+                transform.concatenate(new AffineTransform(args));
+            } else if ("translate".equals(type) && (args.length == 1 || args.length == 2)) {
+                transform.translate(args[0], args.length == 2 ? args[1] : 0);
+            } else if ("scale".equals(type) && (args.length == 1 || args.length == 2)) {
+                transform.scale(args[0], args.length == 2 ? args[1] : args[0]);
+            } else if ("rotate".equals(type) && args.length == 1) {
+                transform.rotate(Math.toRadians(args[0]));
+            } else if ("rotate".equals(type) && args.length == 3) {
+                transform.rotate(Math.toRadians(args[0]), args[1], args[2]);
+            } else if ("skewX".equals(type) && args.length == 1) {
+                transform.shear(Math.tan(Math.toRadians(args[0])), 0);
+            } else if ("skewY".equals(type) && args.length == 1) {
+                transform.shear(0, Math.tan(Math.toRadians(args[0])));
+            } else {
+                throw new UnsupportedSVGException("Unsupported transform '" + matcher.group() + "'");
+            }
+        }
+        if (end != value.length()) throw new UnsupportedSVGException("Invalid transform '" + value + "'");
+        return transform;
+    }
+
+    private static void checkAttributes(final Element element, final Set<String> supported)
+            throws UnsupportedSVGException {
+        NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            String name = ((Attr) attributes.item(i)).getName();
+            if (name.equals("xmlns") || name.startsWith("xmlns:")) continue;
+            if (!supported.contains(name)) {
+                throw new UnsupportedSVGException(
+                        "Unsupported attribute '" + name + "' on <" + element.getTagName() + ">");
+            }
+        }
+    }
+
+    private static List<Element> getChildElements(final Element element) {
+        List<Element> elements = new ArrayList<>();
+        for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element) elements.add((Element) node);
+        }
+        return elements;
+    }
+
+    private static List<Element> findElements(final Element root, final String tagName) {
+        List<Element> elements = new ArrayList<>();
+        for (Element child : getChildElements(root)) {
+            if (tagName.equals(child.getTagName())) elements.add(child);
+            elements.addAll(findElements(child, tagName));
+        }
+        return elements;
+    }
+
+    private static String stringArray(final String list) {
+        StringBuilder builder = new StringBuilder("new String[] {");
+        String trimmed = list.trim();
+        if (!trimmed.isEmpty()) {
+            String[] values = LIST_SEPARATOR.split(trimmed);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) builder.append(", ");
+                builder.append(quote(values[i]));
+            }
+        }
+        return builder.append("}").toString();
+    }
+
+    private static String quote(final String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String coordinates(final double[] coords, final int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(floatLiteral(coords[i]));
+        }
+        return builder.toString();
+    }
+
+    private static String floatLiteral(final double value) {
+        float f = (float) value;
+        if (f == 0) return "0f";
+        if (f == (int) f) return (int) f + "f";
+        return f + "f";
+    }
+
+    /*
+     * The presentation attributes in effect for an element.
+     */
+    private final class Style {
+        private final AffineTransform transform;
+        private Object fill = 0x000000;
+        private int fillRule = Path2D.WIND_NON_ZERO;
+        private float fillOpacity = 1;
+        private Object stroke;
+        private float strokeWidth = 1;
+        private String lineCap = "BasicStroke.CAP_BUTT";
+        private String lineJoin = "BasicStroke.JOIN_MITER";
+        private float miterLimit = DEFAULT_MITER_LIMIT;
+        private float strokeOpacity = 1;
+        private float opacity = 1;
+
+        private Style(final AffineTransform transform) {
+            this.transform = transform;
+        }
+
+        private Style derive(final Element element) throws UnsupportedSVGException {
+            AffineTransform childTransform = new AffineTransform(transform);
+            if (element.hasAttribute("transform")) {
+                childTransform.concatenate(parseTransform(element.getAttribute("transform")));
+            }
+            Style style = new Style(childTransform);
+            style.fill = element.hasAttribute("fill") ? parsePaint(element.getAttribute("fill")) : fill;
+            style.fillRule = element.hasAttribute("fill-rule")
+                    ? parseFillRule(element.getAttribute("fill-rule"))
+                    : fillRule;
+            style.fillOpacity = parseRatio(element, "fill-opacity", fillOpacity);
+            style.stroke = element.hasAttribute("stroke") ? parsePaint(element.getAttribute("stroke")) : stroke;
+            style.strokeWidth = parseLength(element, "stroke-width", strokeWidth);
+            style.lineCap = element.hasAttribute("stroke-linecap")
+                    ? parseLineCap(element.getAttribute("stroke-linecap"))
+                    : lineCap;
+            style.lineJoin = element.hasAttribute("stroke-linejoin")
+                    ? parseLineJoin(element.getAttribute("stroke-linejoin"))
+                    : lineJoin;
+            style.miterLimit = parseLength(element, "stroke-miterlimit", miterLimit);
+            style.strokeOpacity = parseRatio(element, "stroke-opacity", strokeOpacity);
+            style.opacity = opacity * parseRatio(element, "opacity", 1);
+            return style;
+        }
+
+        private float parseRatio(final Element element, final String name, final float defaultValue)
+                throws UnsupportedSVGException {
+            return Math.max(0, Math.min(1, parseLength(element, name, defaultValue)));
+        }
+
+        private int parseFillRule(final String value) throws UnsupportedSVGException {
+            switch (value) {
+                case "evenodd":
+                    return Path2D.WIND_EVEN_ODD;
+                case "nonzero":
+                    return Path2D.WIND_NON_ZERO;
+                default:
+                    throw new UnsupportedSVGException("Unsupported fill-rule '" + value + "'");
+            }
+        }
+
+        private String parseLineCap(final String value) throws UnsupportedSVGException {
+            switch (value) {
+                case "butt":
+                    return "BasicStroke.CAP_BUTT";
+                case "round":
+                    return "BasicStroke.CAP_ROUND";
+                case "square":
+                    return "BasicStroke.CAP_SQUARE";
+                default:
+                    throw new UnsupportedSVGException("Unsupported stroke-linecap '" + value + "'");
+            }
+        }
+
+        private String parseLineJoin(final String value) throws UnsupportedSVGException {
+            switch (value) {
+                case "miter":
+                    return "BasicStroke.JOIN_MITER";
+                case "round":
+                    return "BasicStroke.JOIN_ROUND";
+                case "bevel":
+                    return "BasicStroke.JOIN_BEVEL";
+                default:
+                    throw new UnsupportedSVGException("Unsupported stroke-linejoin '" + value + "'");
+            }
+        }
+    }
+
+    /*
+     * Parses the path data of a <path> element. Arcs are converted into bezier curves.
+     */
+    private static final class PathParser {
+        private final String data;
+        private final Path2D path;
+        private int index;
+        private double currentX;
+        private double currentY;
+        private double startX;
+        private double startY;
+        private double controlX;
+        private double controlY;
+        private char lastCommand;
+
+        private PathParser(final String data, final int windingRule) {
+            this.data = data;
+            this.path = new Path2D.Double(windingRule);
+        }
+
+        private static Shape parse(final String data, final int windingRule) throws UnsupportedSVGException {
+            PathParser parser = new PathParser(data, windingRule);
+            parser.parse();
+            return parser.path;
+        }
+
+        private void parse() throws UnsupportedSVGException {
+            char command = 0;
+            skipSeparators();
+            while (index < data.length()) {
+                char c = data.charAt(index);
+                if (Character.isLetter(c)) {
+                    command = c;
+                    index++;
+                } else if (command == 0) {
+                    throw new UnsupportedSVGException("Path data doesn't start with a command");
+                } else if (command == 'M') {
+                    command = 'L';
+                } else if (command == 'm') {
+                    command = 'l';
+                } else if (command == 'Z' || command == 'z') {
+                    throw new UnsupportedSVGException("Unexpected number after closepath");
+                }
+                execute(command);
+                lastCommand = command;
+                skipSeparators();
+            }
+        }
+
+        private void execute(final char command) throws UnsupportedSVGException {
+            boolean relative = Character.isLowerCase(command);
+            double offsetX = relative ? currentX : 0;
+            double offsetY = relative ? currentY : 0;
+            switch (Character.toUpperCase(command)) {
+                case 'M':
+                    currentX = offsetX + number();
+                    currentY = offsetY + number();
+                    startX = currentX;
+                    startY = currentY;
+                    path.moveTo(currentX, currentY);
+                    break;
+                case 'L':
+                    currentX = offsetX + number();
+                    currentY = offsetY + number();
+                    path.lineTo(currentX, currentY);
+                    break;
+                case 'H':
+                    currentX = offsetX + number();
+                    path.lineTo(currentX, currentY);
+                    break;
+                case 'V':
+                    currentY = offsetY + number();
+                    path.lineTo(currentX, currentY);
+                    break;
+                case 'C': {
+                    double x1 = offsetX + number();
+                    double y1 = offsetY + number();
+                    controlX = offsetX + number();
+                    controlY = offsetY + number();
+                    currentX = offsetX + number();
+                    currentY = offsetY + number();
+                    path.curveTo(x1, y1, controlX, controlY, currentX, currentY);
+                    break;
+                }
+                case 'S': {
+                    boolean smooth = "CcSs".indexOf(lastCommand) >= 0;
+                    double x1 = smooth ? 2 * currentX - controlX : currentX;
+                    double y1 = smooth ? 2 * currentY - controlY : currentY;
+                    controlX = offsetX + number();
+                    controlY = offsetY + number();
+                    currentX = offsetX + number();
+                    currentY = offsetY + number();
+                    path.curveTo(x1, y1, controlX, controlY, currentX, currentY);
+                    break;
+                }
+                case 'Q':
+                    controlX = offsetX + number();
+                    controlY = offsetY + number();
+                    currentX = offsetX + number();
+                    currentY = offsetY + number();
+                    path.quadTo(controlX, controlY, currentX, currentY);
+                    break;
+                case 'T': {
+                    boolean smooth = "QqTt".indexOf(lastCommand) >= 0;
+                    controlX = smooth ? 2 * currentX - controlX : currentX;
+                    controlY = smooth ? 2 * currentY - controlY : currentY;
+                    currentX = offsetX + number();
+                    currentY = offsetY + number();
+                    path.quadTo(controlX, controlY, currentX, currentY);
+                    break;
+                }
+                case 'A': {
+                    double rx = number();
+                    double ry = number();
+                    double angle = number();
+                    boolean largeArc = flag();
+                    boolean sweep = flag();
+                    double x = offsetX + number();
+                    double y = offsetY + number();
+                    arcTo(rx, ry, angle, largeArc, sweep, x, y);
+                    currentX = x;
+                    currentY = y;
+                    break;
+                }
+                case 'Z':
+                    path.closePath();
+                    currentX = startX;
+                    currentY = startY;
+                    break;
+                default:
+                    throw new UnsupportedSVGException("Unsupported path command '" + command + "'");
+            }
+        }
+
+        /*
+         * Converts the endpoint parameterization of an arc to its center parameterization. See
+         * https://www.w3.org/TR/SVG11/implnote.html#ArcImplementationNotes
+         */
+        private void arcTo(final double radiusX, final double radiusY, final double angle, final boolean largeArc,
+                final boolean sweep, final double x, final double y) {
+            double x0 = currentX;
+            double y0 = currentY;
+            if (x0 == x && y0 == y) return;
+            double rx = Math.abs(radiusX);
+            double ry = Math.abs(radiusY);
+            if (rx == 0 || ry == 0) {
+                path.lineTo(x, y);
+                return;
+            }
+            double phi = Math.toRadians(angle % 360);
+            double cos = Math.cos(phi);
+            double sin = Math.sin(phi);
+            double dx2 = (x0 - x) / 2;
+            double dy2 = (y0 - y) / 2;
+            double x1 = cos * dx2 + sin * dy2;
+            double y1 = -sin * dx2 + cos * dy2;
+
+            double lambda = (x1 * x1) / (rx * rx) + (y1 * y1) / (ry * ry);
+            if (lambda > 1) {
+                rx *= Math.sqrt(lambda);
+                ry *= Math.sqrt(lambda);
+            }
+            double prx = rx * rx;
+            double pry = ry * ry;
+            double px1 = x1 * x1;
+            double py1 = y1 * y1;
+            double sign = largeArc == sweep ? -1 : 1;
+            double sq = (prx * pry - prx * py1 - pry * px1) / (prx * py1 + pry * px1);
+            double coefficient = sign * Math.sqrt(Math.max(0, sq));
+            double cx1 = coefficient * (rx * y1 / ry);
+            double cy1 = coefficient * -(ry * x1 / rx);
+            double cx = (x0 + x) / 2 + (cos * cx1 - sin * cy1);
+            double cy = (y0 + y) / 2 + (sin * cx1 + cos * cy1);
+
+            double ux = (x1 - cx1) / rx;
+            double uy = (y1 - cy1) / ry;
+            double vx = (-x1 - cx1) / rx;
+            double vy = (-y1 - cy1) / ry;
+            double start = angle(1, 0, ux, uy);
+            double extent = angle(ux, uy, vx, vy) % 360;
+            if (!sweep && extent > 0) {
+                extent -= 360;
+            } else if (sweep && extent < 0) {
+                extent += 360;
+            }
+
+            Arc2D arc = new Arc2D.Double(cx - rx, cy - ry, 2 * rx, 2 * ry, -start, -extent, Arc2D.OPEN);
+            AffineTransform rotation = AffineTransform.getRotateInstance(phi, cx, cy);
+            path.append(rotation.createTransformedShape(arc), true);
+        }
+
+        private static double angle(final double ux, final double uy, final double vx, final double vy) {
+            double n = Math.sqrt((ux * ux + uy * uy) * (vx * vx + vy * vy));
+            double cos = Math.max(-1, Math.min(1, (ux * vx + uy * vy) / n));
+            double sign = ux * vy - uy * vx < 0 ? -1 : 1;
+            return Math.toDegrees(sign * Math.acos(cos));
+        }
+
+        private double number() throws UnsupportedSVGException {
+            skipSeparators();
+            Matcher matcher = NUMBER.matcher(data);
+            if (!matcher.find(index) || matcher.start() != index) {
+                throw new UnsupportedSVGException("Expected number at " + index + " in path data");
+            }
+            index = matcher.end();
+            return Double.parseDouble(matcher.group());
+        }
+
+        private boolean flag() throws UnsupportedSVGException {
+            skipSeparators();
+            if (index < data.length()) {
+                char c = data.charAt(index);
+                if (c == '0' || c == '1') {
+                    index++;
+                    return c == '1';
+                }
+            }
+            throw new UnsupportedSVGException("Expected flag at " + index + " in path data");
+        }
+
+        private void skipSeparators() {
+            while (index < data.length()
+                    && (Character.isWhitespace(data.charAt(index)) || data.charAt(index) == ',')) {
+                index++;
+            }
+        }
+    }
+}
@@ -30,10 +30,25 @@ dependencies {
     testImplementation(libs.test.junit.api)
     testRuntimeOnly(libs.test.junit.engine)
 
+    compileOnly(projects.darklafAnnotations)
+    annotationProcessor(projects.darklafAnnotationsProcessor)
+
     compileOnly(libs.autoservice.annotations)
     annotationProcessor(libs.autoservice.processor)
 }
 
+val svgResourceRoot = layout.projectDirectory.dir("src/main/resources")
+
+tasks.compileJava {
+    // The svg icons are compiled into Java2D painting code by the CompileSVGIcons annotation processor.
+    inputs.files(fileTree(svgResourceRoot) { include("**/*.svg") })
+        .withPropertyName("svgIcons")
+        .withPathSensitivity(PathSensitivity.RELATIVE)
+    options.compilerArgumentProviders.add(CommandLineArgumentProvider {
+        listOf("-Adarklaf.svgResourceRoots=${svgResourceRoot.asFile.absolutePath}")
+    })
+}
+
 tasks.test {
     doFirst {
         workingDir = File(project.rootDir, "build/test_results")
@@ -74,6 +89,50 @@ val makeDocumentation by tasks.registering(JavaExec::class) {
     classpath(sourceSets.main.get().runtimeClasspath, sourceSets.test.get().runtimeClasspath)
 }
 
+val themeSnapshotDir = layout.buildDirectory.dir("generated/themeSnapshots")
+
+val compileThemeSnapshots by tasks.registering(JavaExec::class) {
+    group = LifecycleBasePlugin.BUILD_GROUP
+    description = "Compiles the properties of the bundled themes into binary snapshots"
+    dependsOn(tasks.compileJava, tasks.processResources)
+
+    val mainOutput = sourceSets.main.get().output
+    // Use the class and resource directories directly. The runtime classpath of main contains the snapshots.
+    classpath(mainOutput.classesDirs, mainOutput.resourcesDir, configurations.runtimeClasspath)
+    main = "com.github.weisj.darklaf.task.ThemeSnapshotCompiler"
+    systemProperty("java.awt.headless", "true")
+    inputs.files(mainOutput.classesDirs, mainOutput.resourcesDir)
+    outputs.dir(themeSnapshotDir)
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(themeSnapshotDir.get().dir("com/github/weisj/darklaf/task").asFile.absolutePath)
+    })
+}
+
+sourceSets.main {
+    output.dir(mapOf("builtBy" to compileThemeSnapshots), themeSnapshotDir)
+}
+
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "jmhImplementation"(libs.jmh.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator.annprocess)
+}
+
+val runJmh by tasks.registering(JavaExec::class) {
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    description = "Runs the JMH benchmarks. Additional JMH arguments can be passed with --args"
+    classpath(jmh.runtimeClasspath)
+    main = "org.openjdk.jmh.Main"
+    systemProperty("java.awt.headless", "true")
+}
+
 abstract class DemoTask : JavaExec() {
     init {
         main = "com.github.weisj.darklaf.ui.DemoLauncher"
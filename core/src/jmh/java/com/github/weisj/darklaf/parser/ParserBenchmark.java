@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.swing.UIDefaults;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.weisj.darklaf.icons.IconLoader;
+
+/**
+ * Compares the token based parser against the stepwise parser on all property files bundled with
+ * darklaf.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    private static final String RESOURCE_ROOT = "com/github/weisj/darklaf";
+
+    private String[] keys;
+    private String[] values;
+    private ParserContext context;
+
+    @Setup
+    public void setup() throws IOException, URISyntaxException {
+        // Icons are resolved relative to the declaring class and are parsed the same way by both parsers.
+        IconParser iconParser = new IconParser();
+        List<Map.Entry<String, String>> entries = new ArrayList<>();
+        for (Path path : findPropertyFiles()) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                if (iconParser.filter(new ParseResult(key, ""), null)) continue;
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(key, properties.getProperty(key)));
+            }
+        }
+        keys = new String[entries.size()];
+        values = new String[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entries.get(i).getKey();
+            values[i] = entries.get(i).getValue();
+        }
+        context = new ParserContext(new UIDefaults(), new UIDefaults(), IconLoader.get());
+        // Populate the accumulator such that references can be resolved.
+        for (int i = 0; i < keys.length; i++) {
+            ParseResult p = Parser.parseStepwise(new ParseResult(keys[i], values[i]), context);
+            if (p.result != null) context.accumulator.put(p.key, p.result);
+        }
+    }
+
+    private static List<Path> findPropertyFiles() throws IOException, URISyntaxException {
+        List<Path> files = new ArrayList<>();
+        Enumeration<URL> roots = ParserBenchmark.class.getClassLoader().getResources(RESOURCE_ROOT);
+        while (roots.hasMoreElements()) {
+            URI uri = roots.nextElement().toURI();
+            Path root;
+            if ("jar".equals(uri.getScheme())) {
+                FileSystem fs;
+                try {
+                    fs = FileSystems.newFileSystem(uri, Collections.emptyMap());
+                } catch (final FileSystemAlreadyExistsException e) {
+                    fs = FileSystems.getFileSystem(uri);
+                }
+                root = fs.getPath(RESOURCE_ROOT);
+            } else {
+                root = Paths.get(uri);
+            }
+            try (Stream<Path> stream = Files.walk(root)) {
+                files.addAll(stream.filter(p -> p.toString().endsWith(".properties")).collect(Collectors.toList()));
+            }
+        }
+        return files;
+    }
+
+    @Benchmark
+    public void parse(final Blackhole blackhole) {
+        for (int i = 0; i < keys.length; i++) {
+            blackhole.consume(Parser.parse(new ParseResult(keys[i], values[i]), context).result);
+        }
+    }
+
+    @Benchmark
+    public void parseStepwise(final Blackhole blackhole) {
+        for (int i = 0; i < keys.length; i++) {
+            blackhole.consume(Parser.parseStepwise(new ParseResult(keys[i], values[i]), context).result);
+        }
+    }
+}
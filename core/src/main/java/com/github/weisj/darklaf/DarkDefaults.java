@@ -0,0 +1,258 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.task.KeySuffixIndex;
+
+/**
+ * The defaults of {@link DarkLaf}. Keeps the values as they were declared by the theme, which allows
+ * computing the keys that differ between two themes, and can record which keys are accessed while
+ * a component installs its ui.
+ *
+ * @author Jannis Weis
+ */
+final class DarkDefaults extends UIDefaults implements KeySuffixIndex.Provider {
+
+    private static final ThreadLocal<Set<Object>> accessedKeys = new ThreadLocal<>();
+    private static final ThreadLocal<Resolution> currentResolution = new ThreadLocal<>();
+    /*
+     * The keys of the base defaults only depend on the base look and feel. Hence their index can be
+     * reused as long as the keys don't change.
+     */
+    private static final Map<Class<? extends LookAndFeel>, KeySuffixIndex> keySuffixIndices =
+            new ConcurrentHashMap<>();
+
+    /*
+     * The defaults of the base look and feel. Only used for the values provided by its resource
+     * bundles.
+     */
+    private final UIDefaults resourceDefaults;
+    private final KeySuffixIndex keySuffixIndex;
+    private Map<Object, Object> declaredValues = Collections.emptyMap();
+    /*
+     * The keys read while resolving the value of a key e.g. the colors a lazy border reads in its
+     * constructor. Lazy values are only resolved once, hence the components using the resolved
+     * value don't record these keys themselves.
+     */
+    private final Map<Object, Set<Object>> dependencies = new ConcurrentHashMap<>();
+
+    DarkDefaults(final LookAndFeel base) {
+        this(base.getClass(), base.getDefaults());
+    }
+
+    private DarkDefaults(final Class<? extends LookAndFeel> baseClass, final UIDefaults baseDefaults) {
+        super(baseDefaults.size(), 0.75f);
+        putAll(baseDefaults);
+        keySuffixIndex = getKeySuffixIndex(baseClass, baseDefaults);
+        baseDefaults.clear();
+        resourceDefaults = baseDefaults;
+        setDefaultLocale(baseDefaults.getDefaultLocale());
+    }
+
+    private static KeySuffixIndex getKeySuffixIndex(final Class<? extends LookAndFeel> baseClass,
+            final UIDefaults baseDefaults) {
+        KeySuffixIndex index = keySuffixIndices.get(baseClass);
+        if (index == null || !index.hasKeys(baseDefaults.keySet())) {
+            index = KeySuffixIndex.create(baseDefaults.keySet());
+            keySuffixIndices.put(baseClass, index);
+        }
+        return index;
+    }
+
+    /**
+     * The index of the keys of the base defaults. Keys added afterwards aren't part of the index.
+     *
+     * @return the index.
+     */
+    @Override
+    public KeySuffixIndex getKeySuffixIndex() {
+        return keySuffixIndex;
+    }
+
+    /**
+     * Stores the current values as the declared values. Lazy values are replaced with their
+     * resolved value once they are accessed. Hence the values have to be saved before the defaults
+     * are used.
+     */
+    void saveDeclaredValues() {
+        Map<Object, Object> values = new HashMap<>(size());
+        for (Map.Entry<Object, Object> entry : entrySet()) {
+            values.put(entry.getKey(), entry.getValue());
+        }
+        declaredValues = values;
+    }
+
+    /**
+     * Stores the current values of the given keys as their declared values.
+     *
+     * @param keys the keys of the values which have changed.
+     */
+    void updateDeclaredValues(final Collection<Object> keys) {
+        for (Object key : keys) {
+            declaredValues.put(key, super.get(key));
+        }
+    }
+
+    Map<Object, Object> getDeclaredValues() {
+        return declaredValues;
+    }
+
+    /**
+     * Replaces the values of the given keys with their declared values. This causes lazy values to be
+     * resolved again the next time they are accessed.
+     *
+     * @param keys the keys.
+     */
+    void restoreDeclaredValues(final Collection<Object> keys) {
+        for (Object key : keys) {
+            Object value = declaredValues.get(key);
+            if (value != null) put(key, value);
+        }
+    }
+
+    /**
+     * Returns the keys whose values have been resolved by reading one of the given keys. This doesn't
+     * include the given keys themselves.
+     *
+     * @param changedKeys the keys.
+     * @return the keys depending on the given keys.
+     */
+    Set<Object> getDependentKeys(final Set<Object> changedKeys) {
+        Set<Object> dependentKeys = new HashSet<>();
+        for (Map.Entry<Object, Set<Object>> entry : dependencies.entrySet()) {
+            if (!changedKeys.contains(entry.getKey()) && !Collections.disjoint(entry.getValue(), changedKeys)) {
+                dependentKeys.add(entry.getKey());
+            }
+        }
+        return dependentKeys;
+    }
+
+    /**
+     * Records all keys accessed on the current thread until {@link #stopRecording(Set)} is called.
+     *
+     * @return the previously recorded keys which have to be passed to {@link #stopRecording(Set)}.
+     */
+    static Set<Object> startRecording() {
+        Set<Object> previous = accessedKeys.get();
+        accessedKeys.set(new HashSet<>());
+        return previous;
+    }
+
+    /**
+     * Stop recording the accessed keys.
+     *
+     * @param previous the keys returned by {@link #startRecording()}.
+     * @return the keys accessed since recording was started.
+     */
+    static Set<Object> stopRecording(final Set<Object> previous) {
+        Set<Object> keys = accessedKeys.get();
+        if (previous != null) previous.addAll(keys);
+        accessedKeys.set(previous);
+        return keys;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        record(key);
+        Resolution resolution = Resolution.start(key);
+        Object value;
+        try {
+            value = super.get(key);
+        } finally {
+            resolution.end(this);
+        }
+        return value != null ? value : resourceDefaults.get(key);
+    }
+
+    @Override
+    public Object get(final Object key, final Locale l) {
+        record(key);
+        Resolution resolution = Resolution.start(key);
+        Object value;
+        try {
+            value = super.get(key, l);
+        } finally {
+            resolution.end(this);
+        }
+        return value != null ? value : resourceDefaults.get(key, l);
+    }
+
+    @Override
+    public void setDefaultLocale(final Locale l) {
+        super.setDefaultLocale(l);
+        if (resourceDefaults != null) resourceDefaults.setDefaultLocale(l);
+    }
+
+    private void record(final Object key) {
+        Set<Object> keys = accessedKeys.get();
+        if (keys != null) keys.add(key);
+    }
+
+    /*
+     * Collects the keys read while the value of a key is resolved. Keys read by nested resolutions
+     * are also dependencies of the enclosing ones.
+     */
+    private static final class Resolution {
+        private final Object key;
+        private final Resolution parent;
+        private Set<Object> keys;
+
+        private Resolution(final Object key, final Resolution parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        private static Resolution start(final Object key) {
+            Resolution parent = currentResolution.get();
+            if (parent != null) parent.add(key);
+            Resolution resolution = new Resolution(key, parent);
+            currentResolution.set(resolution);
+            return resolution;
+        }
+
+        private void add(final Object dependency) {
+            if (keys == null) keys = new HashSet<>();
+            keys.add(dependency);
+        }
+
+        private void end(final DarkDefaults defaults) {
+            if (parent != null) {
+                currentResolution.set(parent);
+            } else {
+                currentResolution.remove();
+            }
+            if (keys != null) {
+                defaults.dependencies.put(key, keys);
+                if (parent != null) {
+                    for (Object dependency : keys) {
+                        parent.add(dependency);
+                    }
+                }
+            }
+        }
+    }
+}
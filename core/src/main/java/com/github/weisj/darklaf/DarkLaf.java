@@ -22,12 +22,14 @@
 package com.github.weisj.darklaf;
 
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.swing.*;
 import javax.swing.plaf.metal.MetalLookAndFeel;
 
+import com.github.weisj.darklaf.annotations.CompileSVGIcons;
 import com.github.weisj.darklaf.platform.DecorationsHandler;
 import com.github.weisj.darklaf.task.*;
 import com.github.weisj.darklaf.theme.Theme;
@@ -38,6 +40,7 @@ import com.github.weisj.darklaf.util.LogUtil;
 import com.github.weisj.darklaf.util.SystemInfo;
 
 /** @author Jannis Weis */
+@CompileSVGIcons(value = "com/github/weisj/darklaf/icons", packageName = "com.github.weisj.darklaf.icons.compiled")
 public class DarkLaf extends ThemedLookAndFeel {
 
     public static final String SYSTEM_PROPERTY_PREFIX = "darklaf.";
@@ -46,18 +49,7 @@ public class DarkLaf extends ThemedLookAndFeel {
     /*
      * All tasks for initializing the ui defaults in order of execution.
      */
-    private static final DefaultsInitTask[] INIT_TASKS = new DefaultsInitTask[] {
-            new RemoveUnusedInitTask(),
-            new ThemeDefaultsInitTask(),
-            new InputDefaultsInitTask(),
-            new IdeaDefaultsInitTask(),
-            new FontDefaultsInitTask(),
-            new StyleSheetInitTask(),
-            new ResourceBundleInitTask(),
-            new SystemDefaultsInitTask(),
-            new PlatformDefaultsInitTask(),
-            new UserInitTask(),
-            new UtilityDefaultsInitTask()};
+    private static final DefaultsInitTask[] INIT_TASKS = createInitTasks();
     /*
      * The base look and feel. This may vary to handle different platform support.
      */
@@ -116,6 +108,46 @@ public class DarkLaf extends ThemedLookAndFeel {
         }
     }
 
+    private static DefaultsInitTask[] createInitTasks() {
+        return new DefaultsInitTask[] {
+                new RemoveUnusedInitTask(),
+                new ThemeDefaultsInitTask(),
+                new InputDefaultsInitTask(),
+                new IdeaDefaultsInitTask(),
+                new FontDefaultsInitTask(),
+                new StyleSheetInitTask(),
+                new ResourceBundleInitTask(),
+                new SystemDefaultsInitTask(),
+                new PlatformDefaultsInitTask(),
+                new UserInitTask(),
+                new UtilityDefaultsInitTask(),
+                new IconAtlasInitTask()};
+    }
+
+    /*
+     * Creates the defaults of the theme on a background thread. The base look and feel needs to be
+     * known in advance. On macOS it is only known if the system or darklaf is currently installed.
+     */
+    static CompletableFuture<Void> prewarm(final Theme theme) {
+        LookAndFeel base = null;
+        if (SystemInfo.isWindows || SystemInfo.isLinux) {
+            base = new MetalLookAndFeel();
+        } else {
+            final LookAndFeel currentLaf = UIManager.getLookAndFeel();
+            if (currentLaf instanceof DarkLaf) {
+                base = ((DarkLaf) currentLaf).base;
+            } else if (currentLaf != null
+                    && UIManager.getSystemLookAndFeelClassName().equals(currentLaf.getClass().getName())) {
+                base = currentLaf;
+            }
+        }
+        if (base == null) {
+            LOGGER.fine(() -> "Can't prewarm " + theme + " as the base look and feel isn't installed.");
+            return CompletableFuture.completedFuture(null);
+        }
+        return PrewarmedDefaults.prewarm(theme, base, createInitTasks());
+    }
+
     @Override
     public void initialize() {
         base.initialize();
@@ -141,12 +173,18 @@ public class DarkLaf extends ThemedLookAndFeel {
 
     @Override
     public UIDefaults getDefaults() {
-        final UIDefaults defaults = base.getDefaults();
         final Theme currentTheme = getTheme();
-        for (DefaultsInitTask task : INIT_TASKS) {
+        final PrewarmedDefaults prewarmed = isInitialized ? PrewarmedDefaults.take(currentTheme, base) : null;
+        final DarkDefaults defaults = prewarmed != null
+                ? prewarmed.getDefaults()
+                : new DarkDefaults(base);
+        int startIndex = prewarmed != null ? prewarmed.getCompletedTasks() : 0;
+        for (int i = startIndex; i < INIT_TASKS.length; i++) {
+            DefaultsInitTask task = INIT_TASKS[i];
             if (task.onlyDuringInstallation() && !isInitialized) continue;
-            task.run(currentTheme, defaults);
+            TaskTimings.run(task, currentTheme, defaults);
         }
+        defaults.saveDeclaredValues();
         if (isInitialized) {
             postInstall();
         }
@@ -21,32 +21,75 @@
  */
 package com.github.weisj.darklaf;
 
-import java.awt.Window;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.swing.SwingUtilities;
-import javax.swing.UIManager;
-import javax.swing.UnsupportedLookAndFeelException;
+import javax.swing.*;
 
+import com.github.weisj.darklaf.task.AccentColorPlan;
+import com.github.weisj.darklaf.task.DefaultsInitTask;
+import com.github.weisj.darklaf.task.StyleSheetInitTask;
+import com.github.weisj.darklaf.task.TaskTimings;
+import com.github.weisj.darklaf.task.UtilityDefaultsInitTask;
 import com.github.weisj.darklaf.theme.Theme;
 import com.github.weisj.darklaf.theme.event.ThemeChangeEvent;
 import com.github.weisj.darklaf.theme.event.ThemeChangeListener;
 import com.github.weisj.darklaf.theme.event.ThemeEventSupport;
 import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.PropertyUtil;
+import com.github.weisj.darklaf.util.timing.Timing;
+import com.github.weisj.darklaf.util.timing.TimingRecorder;
 
 final class LafInstaller {
 
+    static final String INCREMENTAL_UPDATE_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "incrementalThemeUpdate";
+    static final String LIVE_ACCENT_COLOR_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "liveAccentColorUpdate";
+
     private static final Logger LOGGER = LogUtil.getLogger(LafManager.class);
     private static final ThemeEventSupport<ThemeChangeEvent, ThemeChangeListener> eventSupport =
             new ThemeEventSupport<>();
 
+    /*
+     * The keys accessed by each component while its ui was updated by the installer. Components
+     * without a record have never been updated by the installer and are always considered affected.
+     * Components of the same type usually access the same keys, hence equal key sets are shared.
+     */
+    private final Map<JComponent, Set<Object>> accessedKeys = new WeakHashMap<>();
+    private final Map<Set<Object>, Set<Object>> sharedKeySets = new HashMap<>();
+    private volatile List<Timing> lastInstallTimings = Collections.emptyList();
+
     void install(final Theme theme) {
+        List<Timing> previousTimings = TimingRecorder.startRecording();
+        TimingRecorder.Measurement measurement = TimingRecorder.start(Timing.Kind.INSTALL, theme.getName());
+        try {
+            if (!updateAccentColors(theme)) installLaf(theme);
+        } finally {
+            measurement.setKeyCount(UIManager.getLookAndFeelDefaults().size()).end();
+            lastInstallTimings =
+                    Collections.unmodifiableList(new ArrayList<>(TimingRecorder.stopRecording(previousTimings)));
+        }
+    }
+
+    List<Timing> getLastInstallTimings() {
+        return lastInstallTimings;
+    }
+
+    private void installLaf(final Theme theme) {
         try {
             LOGGER.fine(() -> "Installing theme " + theme);
             LafTransition transition = LafTransition.showSnapshot();
+            UIDefaults oldDefaults = UIManager.getLookAndFeelDefaults();
             UIManager.setLookAndFeel(new DarkLaf(theme, false));
-            updateLaf();
+            UIDefaults newDefaults = UIManager.getLookAndFeelDefaults();
+            if (oldDefaults instanceof DarkDefaults && newDefaults instanceof DarkDefaults
+                    && PropertyUtil.getSystemFlag(INCREMENTAL_UPDATE_FLAG)) {
+                updateLaf((DarkDefaults) oldDefaults, (DarkDefaults) newDefaults);
+            } else {
+                updateLaf();
+            }
             SwingUtilities.invokeLater(transition::runTransition);
             notifyThemeInstalled(theme);
         } catch (final UnsupportedLookAndFeelException e) {
@@ -54,17 +97,185 @@ final class LafInstaller {
         }
     }
 
+    /*
+     * Applies the accent colors of the theme to the installed defaults if the theme only differs from
+     * the installed one in its accent color rule. Only the defaults depending on the accent colors
+     * are updated and only the components using them are updated. Installing the installed theme
+     * again always loads all defaults e.g. to pick up changed init tasks.
+     */
+    private boolean updateAccentColors(final Theme theme) {
+        if (!PropertyUtil.getSystemFlag(LIVE_ACCENT_COLOR_FLAG)) return false;
+        LookAndFeel laf = UIManager.getLookAndFeel();
+        UIDefaults defaults = UIManager.getLookAndFeelDefaults();
+        if (!(laf instanceof DarkLaf) || !(defaults instanceof DarkDefaults)) return false;
+        if (theme.equals(((DarkLaf) laf).getTheme())) return false;
+        AccentColorPlan.Binding binding = AccentColorPlan.Binding.get(defaults);
+        if (binding == null || !binding.canApply(theme)) return false;
+
+        LOGGER.fine(() -> "Updating accent colors of theme " + theme);
+        TimingRecorder.Measurement measurement = TimingRecorder.start(Timing.Kind.ACCENT_COLOR_UPDATE,
+                theme.getName());
+        Set<Object> changedKeys = new HashSet<>(binding.apply(theme, defaults));
+        ((DarkLaf) laf).setTheme(theme);
+        if (!changedKeys.isEmpty()) {
+            changedKeys.addAll(runDerivingTasks(theme, defaults));
+        }
+        DarkDefaults darkDefaults = (DarkDefaults) defaults;
+        darkDefaults.updateDeclaredValues(changedKeys);
+        // Lazy values resolved from the changed keys have to be resolved again.
+        Set<Object> dependentKeys = darkDefaults.getDependentKeys(changedKeys);
+        darkDefaults.restoreDeclaredValues(dependentKeys);
+        changedKeys.addAll(dependentKeys);
+        measurement.setKeyCount(changedKeys.size()).end();
+        LOGGER.fine(() -> changedKeys.size() + " defaults have changed.");
+        if (!changedKeys.isEmpty()) {
+            updateWindows(changedKeys);
+        }
+        notifyThemeInstalled(theme);
+        return true;
+    }
+
+    /*
+     * The style sheet and the utility values are derived from the defaults after the properties have
+     * been loaded. They are recomputed to pick up the new accent colors. This also installs the new
+     * style sheet and updates the theme status of the icons.
+     *
+     * Returns the keys of the derived defaults.
+     */
+    private Set<Object> runDerivingTasks(final Theme theme, final UIDefaults defaults) {
+        DefaultsInitTask[] tasks = {new StyleSheetInitTask(), new UtilityDefaultsInitTask()};
+        for (DefaultsInitTask task : tasks) {
+            TaskTimings.run(task, theme, defaults);
+        }
+        return Collections.singleton(StyleSheetInitTask.STYLE_SHEET_KEY);
+    }
+
     void updateLaf() {
+        updateWindows(null);
+    }
+
+    /*
+     * Only updates the components whose ui accessed one of the changed keys during installation.
+     * All other components are only repainted. If the look and feel is structurally different all
+     * components are updated. Keys whose lazy values read one of the changed keys while they were
+     * resolved are changed as well.
+     */
+    private void updateLaf(final DarkDefaults oldDefaults, final DarkDefaults newDefaults) {
+        Set<Object> changedKeys = getChangedKeys(oldDefaults.getDeclaredValues(), newDefaults.getDeclaredValues());
+        if (changedKeys == null) {
+            LOGGER.fine("Structural change in defaults. Updating all components.");
+            updateLaf();
+            return;
+        }
+        changedKeys.addAll(oldDefaults.getDependentKeys(changedKeys));
+        LOGGER.fine(() -> changedKeys.size() + " defaults have changed.");
+        updateWindows(changedKeys);
+    }
+
+    private void updateWindows(final Set<Object> changedKeys) {
+        TimingRecorder.Measurement measurement = TimingRecorder.start(Timing.Kind.UPDATE_LAF,
+                changedKeys != null ? "incremental" : "full");
         for (final Window w : Window.getWindows()) {
-            updateLafRecursively(w);
+            updateLafRecursively(w, changedKeys);
         }
+        measurement.setKeyCount(changedKeys != null ? changedKeys.size() : Timing.UNKNOWN_COUNT).end();
     }
 
-    private void updateLafRecursively(final Window window) {
+    private void updateLafRecursively(final Window window, final Set<Object> changedKeys) {
         for (final Window childWindow : window.getOwnedWindows()) {
-            updateLafRecursively(childWindow);
+            updateLafRecursively(childWindow, changedKeys);
+        }
+        if (updateComponentTreeUI(window, changedKeys)) {
+            window.invalidate();
+            window.validate();
+        }
+        window.repaint();
+    }
+
+    /*
+     * Same as SwingUtilities#updateComponentTreeUI but only updates components affected by the
+     * changed keys. If changedKeys is null all components are updated.
+     */
+    private boolean updateComponentTreeUI(final Component c, final Set<Object> changedKeys) {
+        boolean updated = false;
+        if (c instanceof JComponent) {
+            JComponent jc = (JComponent) c;
+            if (isAffected(jc, changedKeys)) {
+                updateUI(jc);
+                updated = true;
+            }
+            JPopupMenu popupMenu = jc.getComponentPopupMenu();
+            if (popupMenu != null) {
+                updated |= updateComponentTreeUI(popupMenu, changedKeys);
+            }
+        }
+        Component[] children = null;
+        if (c instanceof JMenu) {
+            children = ((JMenu) c).getMenuComponents();
+        } else if (c instanceof Container) {
+            children = ((Container) c).getComponents();
+        }
+        if (children != null) {
+            for (Component child : children) {
+                updated |= updateComponentTreeUI(child, changedKeys);
+            }
+        }
+        return updated;
+    }
+
+    private boolean isAffected(final JComponent c, final Set<Object> changedKeys) {
+        if (changedKeys == null) return true;
+        Set<Object> keys = accessedKeys.get(c);
+        return keys == null || !Collections.disjoint(keys, changedKeys);
+    }
+
+    private void updateUI(final JComponent c) {
+        Set<Object> previous = DarkDefaults.startRecording();
+        try {
+            c.updateUI();
+        } finally {
+            Set<Object> keys = DarkDefaults.stopRecording(previous);
+            accessedKeys.put(c, sharedKeySets.computeIfAbsent(keys, k -> k));
+        }
+    }
+
+    /*
+     * Returns the keys whose values differ or null if the defaults differ in the ui classes or
+     * fonts. These changes can't be handled by updating only parts of the component tree.
+     */
+    private static Set<Object> getChangedKeys(final Map<Object, Object> oldValues,
+            final Map<Object, Object> newValues) {
+        Set<Object> changedKeys = new HashSet<>();
+        List<Map<Object, Object>> values = Arrays.asList(oldValues, newValues);
+        for (Map<Object, Object> map : values) {
+            for (Object key : map.keySet()) {
+                Object oldValue = oldValues.get(key);
+                Object newValue = newValues.get(key);
+                if (!isEquivalent(oldValue, newValue)) {
+                    if (isStructural(key, oldValue) || isStructural(key, newValue)) return null;
+                    changedKeys.add(key);
+                }
+            }
+        }
+        return changedKeys;
+    }
+
+    private static boolean isStructural(final Object key, final Object value) {
+        return (key instanceof String && ((String) key).endsWith("UI")) || value instanceof Font;
+    }
+
+    private static boolean isEquivalent(final Object oldValue, final Object newValue) {
+        if (Objects.equals(oldValue, newValue)) return true;
+        if (oldValue == null || newValue == null) return false;
+        if (oldValue instanceof Object[] && newValue instanceof Object[]) {
+            return Arrays.deepEquals((Object[]) oldValue, (Object[]) newValue);
+        }
+        if (oldValue instanceof int[] && newValue instanceof int[]) {
+            return Arrays.equals((int[]) oldValue, (int[]) newValue);
         }
-        SwingUtilities.updateComponentTreeUI(window);
+        // Input maps only depend on the platform and not on the theme.
+        return (oldValue instanceof UIDefaults.LazyInputMap && newValue instanceof UIDefaults.LazyInputMap)
+                || (oldValue instanceof InputMap && newValue instanceof InputMap);
     }
 
     void notifyThemeInstalled(final Theme newTheme) {
@@ -24,6 +24,7 @@ package com.github.weisj.darklaf;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,6 +43,7 @@ import com.github.weisj.darklaf.theme.info.PreferredThemeStyle;
 import com.github.weisj.darklaf.theme.info.ThemeProvider;
 import com.github.weisj.darklaf.theme.laf.ThemedLookAndFeel;
 import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.timing.Timing;
 
 /**
  * Manager for the Look and Feel.
@@ -439,6 +441,35 @@ public final class LafManager {
         setInstalledTheme(theme);
     }
 
+    /**
+     * Prepares the defaults of the given theme on a background thread. A subsequent installation of
+     * the theme only has to run the tasks which depend on the installation of the LaF. Prewarmed
+     * defaults are discarded if the user defaults adjustment tasks or the decoration settings change
+     * before the theme is installed.
+     *
+     * @param theme the theme to prepare.
+     * @return future which completes when the theme is ready to be installed.
+     */
+    public static CompletableFuture<Void> prewarm(final Theme theme) {
+        return DarkLaf.prewarm(theme);
+    }
+
+    /**
+     * Returns the timing breakdown of the last theme installation. It contains an entry for each init
+     * and adjustment task, properties file, parsing of properties and update of the component tree.
+     * Entries are ordered by the time they finished, hence nested steps precede the steps containing
+     * them. The last entry is the total duration of the installation.
+     *
+     * <p>
+     * The same measurements are emitted as flight recorder events of type
+     * {@code com.github.weisj.darklaf.ThemeInstallStep} if flight recorder is available.
+     *
+     * @return the timings of the last installation. Empty if no theme has been installed yet.
+     */
+    public static List<Timing> getLastInstallTimings() {
+        return installer.getLastInstallTimings();
+    }
+
     /** Update the component ui classes for all current windows. */
     public static void updateLaf() {
         installer.updateLaf();
@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.task.DefaultsAdjustmentTask;
+import com.github.weisj.darklaf.task.DefaultsInitTask;
+import com.github.weisj.darklaf.task.TaskTimings;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.util.LogUtil;
+
+/**
+ * Defaults of a theme which have been created in advance on a background thread. Only the tasks
+ * which don't depend on the installation of the LaF are run.
+ *
+ * <p>
+ * Only the most recently prewarmed theme is kept, as the defaults of a theme are rather large and a
+ * theme which has been prewarmed but is never installed shouldn't keep them alive.
+ *
+ * @author Jannis Weis
+ */
+final class PrewarmedDefaults {
+
+    private static final Logger LOGGER = LogUtil.getLogger(PrewarmedDefaults.class);
+    private static final AtomicReference<PrewarmedTheme> prewarmedTheme = new AtomicReference<>();
+
+    private final Class<? extends LookAndFeel> baseClass;
+    private final List<DefaultsAdjustmentTask> adjustmentTasks;
+    private final boolean decorationsEnabled;
+    private final DarkDefaults defaults;
+    private final int completedTasks;
+
+    private PrewarmedDefaults(final Class<? extends LookAndFeel> baseClass,
+            final List<DefaultsAdjustmentTask> adjustmentTasks, final boolean decorationsEnabled,
+            final DarkDefaults defaults, final int completedTasks) {
+        this.baseClass = baseClass;
+        this.adjustmentTasks = adjustmentTasks;
+        this.decorationsEnabled = decorationsEnabled;
+        this.defaults = defaults;
+        this.completedTasks = completedTasks;
+    }
+
+    /**
+     * Creates the defaults of the given theme on a background thread.
+     *
+     * @param theme the theme.
+     * @param base the base look and feel.
+     * @param tasks the init tasks. The leading tasks which can be prewarmed are run.
+     * @return future completing when the defaults have been created.
+     */
+    static CompletableFuture<Void> prewarm(final Theme theme, final LookAndFeel base,
+            final DefaultsInitTask[] tasks) {
+        List<DefaultsAdjustmentTask> adjustmentTasks = new ArrayList<>(LafManager.getUserDefaultsAdjustmentTasks());
+        boolean decorationsEnabled = LafManager.isDecorationsEnabled();
+        CompletableFuture<PrewarmedDefaults> future = CompletableFuture.supplyAsync(
+                () -> create(theme, base, tasks, adjustmentTasks, decorationsEnabled), ExecutorHolder.EXECUTOR);
+        prewarmedTheme.set(new PrewarmedTheme(theme, future));
+        return future.thenApply(p -> null);
+    }
+
+    private static PrewarmedDefaults create(final Theme theme, final LookAndFeel base,
+            final DefaultsInitTask[] tasks, final List<DefaultsAdjustmentTask> adjustmentTasks,
+            final boolean decorationsEnabled) {
+        LOGGER.fine(() -> "Prewarming theme " + theme);
+        DarkDefaults defaults = new DarkDefaults(base);
+        int completedTasks = 0;
+        for (DefaultsInitTask task : tasks) {
+            if (!task.canBePrewarmed()) break;
+            TaskTimings.run(task, theme, defaults);
+            completedTasks++;
+        }
+        return new PrewarmedDefaults(base.getClass(), adjustmentTasks, decorationsEnabled, defaults, completedTasks);
+    }
+
+    /**
+     * Get the prewarmed defaults of the given theme. If prewarming is still in progress this waits
+     * for it to finish. The defaults can only be taken once.
+     *
+     * @param theme the theme to install.
+     * @param base the base look and feel.
+     * @return the prewarmed defaults or null if the theme hasn't been prewarmed or the environment
+     *         has changed since.
+     */
+    static PrewarmedDefaults take(final Theme theme, final LookAndFeel base) {
+        PrewarmedTheme prewarmedEntry = prewarmedTheme.get();
+        if (prewarmedEntry == null || !prewarmedEntry.theme.equals(theme)) return null;
+        if (!prewarmedTheme.compareAndSet(prewarmedEntry, null)) return null;
+        CompletableFuture<PrewarmedDefaults> future = prewarmedEntry.future;
+        PrewarmedDefaults prewarmed;
+        try {
+            prewarmed = future.join();
+        } catch (final CompletionException | CancellationException e) {
+            LOGGER.log(Level.WARNING, "Could not prewarm theme " + theme, e);
+            return null;
+        }
+        if (prewarmed.baseClass != base.getClass()
+                || prewarmed.decorationsEnabled != LafManager.isDecorationsEnabled()
+                || !prewarmed.adjustmentTasks.equals(new ArrayList<>(LafManager.getUserDefaultsAdjustmentTasks()))) {
+            LOGGER.fine(() -> "Discarding prewarmed defaults of " + theme + " as the environment has changed.");
+            return null;
+        }
+        return prewarmed;
+    }
+
+    /**
+     * Returns whether defaults for the given theme are currently held.
+     *
+     * @param theme the theme.
+     * @return true if the theme has been prewarmed and not yet been taken.
+     */
+    static boolean isPrewarmed(final Theme theme) {
+        PrewarmedTheme prewarmedEntry = prewarmedTheme.get();
+        return prewarmedEntry != null && prewarmedEntry.theme.equals(theme);
+    }
+
+    DarkDefaults getDefaults() {
+        return defaults;
+    }
+
+    /**
+     * The number of leading init tasks which have already been run on the defaults.
+     *
+     * @return the number of completed tasks.
+     */
+    int getCompletedTasks() {
+        return completedTasks;
+    }
+
+    private static final class PrewarmedTheme {
+        private final Theme theme;
+        private final CompletableFuture<PrewarmedDefaults> future;
+
+        private PrewarmedTheme(final Theme theme, final CompletableFuture<PrewarmedDefaults> future) {
+            this.theme = theme;
+            this.future = future;
+        }
+    }
+
+    private static final class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+            final Thread thread = new Thread(r, "Darklaf Theme Prewarm Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
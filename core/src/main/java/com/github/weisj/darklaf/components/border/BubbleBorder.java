@@ -25,6 +25,7 @@ import java.awt.*;
 import java.awt.geom.Area;
 import java.awt.geom.Path2D;
 import java.awt.geom.RoundRectangle2D;
+import java.util.Arrays;
 
 import javax.swing.border.AbstractBorder;
 import javax.swing.plaf.InsetsUIResource;
@@ -36,7 +37,11 @@ import com.github.weisj.darklaf.util.graphics.GraphicsUtil;
 /** @author Jannis Weis */
 public class BubbleBorder extends AbstractBorder {
 
+    private static final int AREA_CACHE_SIZE = 4;
+
     private final Insets insets;
+    private final CachedArea[] areaCache = new CachedArea[AREA_CACHE_SIZE];
+    private int nextCacheSlot;
     private Alignment pointerSide = Alignment.NORTH;
     private Color color;
     private int thickness;
@@ -110,6 +115,7 @@ public class BubbleBorder extends AbstractBorder {
      */
     public BubbleBorder setPointerWidth(final int pointerWidth) {
         this.pointerWidth = pointerWidth;
+        invalidateAreas();
         return this;
     }
 
@@ -177,6 +183,7 @@ public class BubbleBorder extends AbstractBorder {
                 break;
         }
         insets.set((int) top, (int) left, (int) bottom, (int) right);
+        invalidateAreas();
         return this;
     }
 
@@ -257,8 +264,7 @@ public class BubbleBorder extends AbstractBorder {
     @Override
     public void paintBorder(final Component c, final Graphics g, final int x, final int y, final int width,
             final int height) {
-        Area area = getBorderArea(x, y, width, height);
-        paintBorder(g, area);
+        paintBorder(g, getCachedBorderArea(x, y, width, height));
     }
 
     @Override
@@ -305,6 +311,67 @@ public class BubbleBorder extends AbstractBorder {
         return outer;
     }
 
+    /**
+     * Returns the area of the bubble like {@link #getBubbleArea(float, float, float, float, float)}.
+     * The most recently used areas are cached, such that repeated paints of the same size don't have
+     * to compute the area again. The returned area is shared and must not be modified.
+     *
+     * @param x the x coordinate of the bubble.
+     * @param y the y coordinate of the bubble.
+     * @param width the width of the bubble.
+     * @param height the height of the bubble.
+     * @param adj the amount the bubble is shrunk by.
+     * @return the shared area.
+     */
+    public Area getCachedBubbleArea(final float x, final float y, final float width, final float height,
+            final float adj) {
+        Area area = getCachedArea(x, y, width, height, adj, false);
+        if (area == null) {
+            area = putCachedArea(x, y, width, height, adj, false, getBubbleArea(x, y, width, height, adj));
+        }
+        return area;
+    }
+
+    /**
+     * Returns the area of the border like {@link #getBorderArea(int, int, int, int)}. The most recently
+     * used areas are cached, such that repeated paints of the same size don't have to compute the area
+     * again. The returned area is shared and must not be modified.
+     *
+     * @param x the x coordinate of the border.
+     * @param y the y coordinate of the border.
+     * @param width the width of the border.
+     * @param height the height of the border.
+     * @return the shared area.
+     */
+    public Area getCachedBorderArea(final int x, final int y, final int width, final int height) {
+        Area area = getCachedArea(x, y, width, height, 0, true);
+        if (area == null) {
+            Area outer = getBubbleArea(x, y, width, height, 0);
+            outer.subtract(getCachedBubbleArea(x, y, width, height, getThickness()));
+            area = putCachedArea(x, y, width, height, 0, true, outer);
+        }
+        return area;
+    }
+
+    private Area getCachedArea(final float x, final float y, final float width, final float height,
+            final float adj, final boolean border) {
+        for (CachedArea cached : areaCache) {
+            if (cached != null && cached.matches(x, y, width, height, adj, border)) return cached.area;
+        }
+        return null;
+    }
+
+    private Area putCachedArea(final float x, final float y, final float width, final float height,
+            final float adj, final boolean border, final Area area) {
+        areaCache[nextCacheSlot] = new CachedArea(x, y, width, height, adj, border, area);
+        nextCacheSlot = (nextCacheSlot + 1) % AREA_CACHE_SIZE;
+        return area;
+    }
+
+    private void invalidateAreas() {
+        Arrays.fill(areaCache, null);
+    }
+
     public void paintBorder(final Graphics g, final Area strokeArea) {
         final Graphics2D g2 = (Graphics2D) g;
         GraphicsContext config = GraphicsUtil.setupStrokePainting(g);
@@ -356,4 +423,31 @@ public class BubbleBorder extends AbstractBorder {
         pointer.closePath();
         return pointer;
     }
+
+    private static final class CachedArea {
+        private final float x;
+        private final float y;
+        private final float width;
+        private final float height;
+        private final float adj;
+        private final boolean border;
+        private final Area area;
+
+        private CachedArea(final float x, final float y, final float width, final float height, final float adj,
+                final boolean border, final Area area) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.adj = adj;
+            this.border = border;
+            this.area = area;
+        }
+
+        private boolean matches(final float x, final float y, final float width, final float height,
+                final float adj, final boolean border) {
+            return this.x == x && this.y == y && this.width == width && this.height == height && this.adj == adj
+                    && this.border == border;
+        }
+    }
 }
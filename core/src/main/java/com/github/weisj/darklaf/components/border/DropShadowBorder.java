@@ -24,18 +24,17 @@ package com.github.weisj.darklaf.components.border;
 import java.awt.*;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.ConvolveOp;
+import java.awt.image.DataBufferInt;
 import java.awt.image.ImageObserver;
-import java.awt.image.Kernel;
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.swing.border.Border;
 
 import com.github.weisj.darklaf.util.Disposable;
-import com.github.weisj.darklaf.util.ImageUtil;
+import com.github.weisj.darklaf.util.Scale;
 
 /**
  * Implements a DropShadow for components. In general, the DropShadowBorder will work with any
@@ -50,15 +49,17 @@ import com.github.weisj.darklaf.util.ImageUtil;
  * <p>
  * Note: Since generating drop shadows is relatively expensive operation, {@code
  * DropShadowBorder} keeps internal static cache that allows sharing same border for multiple
- * re-rendering and between different instances of the class. Since this cache is shared at class
- * level and never reset, it might bleed your app memory in case you tend to create many different
- * borders rapidly.
+ * re-rendering and between different instances of the class. The shadows are rendered for the scale
+ * of the graphics they are painted on. The cache is shared at class level and only keeps the most
+ * recently used shadows.
  *
  * @author rbair Adaptions made by
  * @author Jannis Weis
  */
 public class DropShadowBorder implements Border, Serializable {
-    private static final Map<Integer, BufferedImage[]> CACHE = new HashMap<>();
+    private static final int MAX_CACHE_SIZE = 64;
+    private static final int BLUR_PASSES = 3;
+    private static final Map<ShadowKey, BufferedImage[]> CACHE = new LinkedHashMap<>(16, 0.75f, true);
     private Color shadowColor;
     private int shadowSize;
     private float shadowOpacity;
@@ -92,8 +93,8 @@ public class DropShadowBorder implements Border, Serializable {
     @Override
     public void paintBorder(final Component c, final Graphics graphics, final int x, final int y, final int width,
             final int height) {
-        final BufferedImage[] images = getImages();
         final Graphics2D g2 = (Graphics2D) graphics.create();
+        final BufferedImage[] images = getImages(Math.max(Scale.getScaleX(g2), Scale.getScaleY(g2)));
 
         try (Disposable d = g2::dispose) {
             // The location and size of the shadows depends on which shadows are being
@@ -199,7 +200,7 @@ public class DropShadowBorder implements Border, Serializable {
 
     protected void drawImage(final Graphics g, final Image image, final Point p, final ImageObserver observer) {
         if (p == null) return;
-        g.drawImage(image, p.x, p.y, observer);
+        g.drawImage(image, p.x, p.y, shadowSize, shadowSize, observer);
     }
 
     protected void drawImage(final Graphics g, final Image image, final int x, final int y, final int w, final int h,
@@ -207,117 +208,243 @@ public class DropShadowBorder implements Border, Serializable {
         g.drawImage(image, x, y, w, h, observer);
     }
 
-    @SuppressWarnings("SuspiciousNameCombination")
-    private BufferedImage[] getImages() {
+    private BufferedImage[] getImages(final double scale) {
         // first, check to see if an image for this size has already been rendered
         // if so, use the cache. Else, draw and save
-        BufferedImage[] images = CACHE.get(getBorderHash(shadowSize, shadowOpacity, shadowColor));
-        if (images == null) {
-            images = new BufferedImage[Position.count()];
-
-            /*
-             * To draw a drop shadow, I have to:
-             *
-             * 1) Create a rounded rectangle
-             *
-             * 2) Create a BufferedImage to draw the rounded rect in
-             *
-             * 3) Translate the graphics for the image, so that the rectangle is centered in the drawn space.
-             * The border around the rectangle needs to be shadowWidth wide, so that there is space for the
-             * shadow to be drawn.
-             *
-             * 4) Draw the rounded rect as shadowColor, with an opacity of shadowOpacity
-             *
-             * 5) Create the BLUR_KERNEL
-             *
-             * 6) Blur the image
-             *
-             * 7) copy off the corners, sides, etc. into images to be used for drawing the Border
-             */
-            int rectWidth = cornerSize + 1;
-            RoundRectangle2D rect = new RoundRectangle2D.Double(0, 0, rectWidth, rectWidth, cornerSize, cornerSize);
-            int imageWidth = rectWidth + shadowSize * 2;
-            BufferedImage image = ImageUtil.createCompatibleTranslucentImage(imageWidth, imageWidth);
-            Graphics2D buffer = (Graphics2D) image.getGraphics();
-
-            try (Disposable d = buffer::dispose) {
-                buffer.setPaint(new Color(shadowColor.getRed(), shadowColor.getGreen(), shadowColor.getBlue(),
-                        (int) (shadowOpacity * 255)));
-                buffer.translate(shadowSize, shadowSize);
-                buffer.fill(rect);
+        ShadowKey key = new ShadowKey(shadowSize, shadowOpacity, shadowColor.getRGB(), cornerSize, scale);
+        synchronized (CACHE) {
+            BufferedImage[] images = CACHE.get(key);
+            if (images != null) return images;
+        }
+        // Render outside the lock. If two threads race the second result simply replaces the first.
+        BufferedImage[] images = createImages(key);
+        synchronized (CACHE) {
+            CACHE.put(key, images);
+            Iterator<ShadowKey> iterator = CACHE.keySet().iterator();
+            while (CACHE.size() > MAX_CACHE_SIZE && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
             }
+        }
+        return images;
+    }
 
-            float blurry = 1.0f / (float) (shadowSize * shadowSize);
-            float[] blurKernel = new float[shadowSize * shadowSize];
-            Arrays.fill(blurKernel, blurry);
-            ConvolveOp blur = new ConvolveOp(new Kernel(shadowSize, shadowSize, blurKernel));
-            BufferedImage targetImage = ImageUtil.createCompatibleTranslucentImage(imageWidth, imageWidth);
-            Graphics2D targetGraphics = (Graphics2D) targetImage.getGraphics();
-            try (Disposable d = targetGraphics::dispose) {
-                targetGraphics.drawImage(image, blur, -(shadowSize / 2), -(shadowSize / 2));
-            }
+    @SuppressWarnings("SuspiciousNameCombination")
+    private static BufferedImage[] createImages(final ShadowKey key) {
+        BufferedImage[] images = new BufferedImage[Position.count()];
+
+        /*
+         * To draw a drop shadow, I have to:
+         *
+         * 1) Create a rounded rectangle scaled to device pixels
+         *
+         * 2) Create a BufferedImage to draw the rounded rect in
+         *
+         * 3) Translate the graphics for the image, so that the rectangle is centered in the drawn space.
+         * The border around the rectangle needs to be shadowWidth wide, so that there is space for the
+         * shadow to be drawn.
+         *
+         * 4) Draw the rounded rect with an opacity of shadowOpacity
+         *
+         * 5) Blur the alpha values of the image
+         *
+         * 6) copy off the corners, sides, etc. into images to be used for drawing the Border
+         */
+        int shadowSize = Math.max(1, (int) Math.round(key.shadowSize * key.scale));
+        int cornerSize = (int) Math.round(key.cornerSize * key.scale);
+        int rectWidth = cornerSize + 1;
+        RoundRectangle2D rect = new RoundRectangle2D.Double(0, 0, rectWidth, rectWidth, cornerSize, cornerSize);
+        int imageWidth = rectWidth + shadowSize * 2;
+        BufferedImage image = new BufferedImage(imageWidth, imageWidth, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D buffer = (Graphics2D) image.getGraphics();
+
+        try (Disposable d = buffer::dispose) {
+            buffer.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            buffer.setPaint(new Color(255, 255, 255, (int) (key.shadowOpacity * 255)));
+            buffer.translate(shadowSize, shadowSize);
+            buffer.fill(rect);
+        }
 
-            int x = 1;
-            int y = 1;
-            int w = shadowSize;
-            int h = shadowSize;
-            images[Position.TOP_LEFT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = 1;
-            y = h;
-            w = shadowSize;
-            h = 1;
-            images[Position.LEFT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = 1;
-            y = rectWidth;
-            w = shadowSize;
-            h = shadowSize;
-            images[Position.BOTTOM_LEFT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = cornerSize + 1;
-            y = rectWidth;
-            w = 1;
-            h = shadowSize;
-            images[Position.BOTTOM.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = rectWidth;
-            y = x;
-            w = shadowSize;
-            h = shadowSize;
-            images[Position.BOTTOM_RIGHT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = rectWidth;
-            y = cornerSize + 1;
-            w = shadowSize;
-            h = 1;
-            images[Position.RIGHT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = rectWidth;
-            y = 1;
-            w = shadowSize;
-            h = shadowSize;
-            images[Position.TOP_RIGHT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = shadowSize;
-            y = 1;
-            w = 1;
-            h = shadowSize;
-            images[Position.TOP.ordinal()] = getSubImage(targetImage, x, y, w, h);
-
-            image.flush();
-            CACHE.put(getBorderHash(shadowSize, shadowOpacity, shadowColor), images);
+        int[] alpha = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < alpha.length; i++) {
+            alpha[i] = alpha[i] >>> 24;
         }
+        blur(alpha, imageWidth, imageWidth, shadowSize);
+        // The blurred shadow is shifted by half its size to the top left.
+        int offset = shadowSize / 2;
+        Tiles tiles = new Tiles(alpha, imageWidth, offset, key.rgb);
+
+        int x = 1;
+        int y = 1;
+        int w = shadowSize;
+        int h = shadowSize;
+        images[Position.TOP_LEFT.ordinal()] = tiles.getSubImage(x, y, w, h);
+        x = 1;
+        y = h;
+        w = shadowSize;
+        h = 1;
+        images[Position.LEFT.ordinal()] = tiles.getSubImage(x, y, w, h);
+        x = 1;
+        y = rectWidth;
+        w = shadowSize;
+        h = shadowSize;
+        images[Position.BOTTOM_LEFT.ordinal()] = tiles.getSubImage(x, y, w, h);
+        x = cornerSize + 1;
+        y = rectWidth;
+        w = 1;
+        h = shadowSize;
+        images[Position.BOTTOM.ordinal()] = tiles.getSubImage(x, y, w, h);
+        x = rectWidth;
+        y = x;
+        w = shadowSize;
+        h = shadowSize;
+        images[Position.BOTTOM_RIGHT.ordinal()] = tiles.getSubImage(x, y, w, h);
+        x = rectWidth;
+        y = cornerSize + 1;
+        w = shadowSize;
+        h = 1;
+        images[Position.RIGHT.ordinal()] = tiles.getSubImage(x, y, w, h);
+        x = rectWidth;
+        y = 1;
+        w = shadowSize;
+        h = shadowSize;
+        images[Position.TOP_RIGHT.ordinal()] = tiles.getSubImage(x, y, w, h);
+        x = shadowSize;
+        y = 1;
+        w = 1;
+        h = shadowSize;
+        images[Position.TOP.ordinal()] = tiles.getSubImage(x, y, w, h);
+
+        image.flush();
         return images;
     }
 
-    private static int getBorderHash(final int shadowSize, final float opacity, final Color shadowColor) {
-        int result = shadowSize;
-        result = 31 * result + (opacity != +0.0f ? Float.floatToIntBits(opacity) : 0);
-        result = 31 * result + (shadowColor != null ? shadowColor.hashCode() : 0);
-        return result;
+    /*
+     * Approximates a gaussian blur by three passes of a box blur in each direction. The gaussian has
+     * the same variance as a box blur with a width of the given size.
+     */
+    private static void blur(final int[] values, final int width, final int height, final int size) {
+        if (size <= 1) return;
+        double variance = (size * size - 1) / 12.0;
+        int[] boxes = getBoxSizes(variance, BLUR_PASSES);
+        int[] buffer = new int[values.length];
+        for (int box : boxes) {
+            int radius = box / 2;
+            boxBlur(values, buffer, width, height, radius, 1, width);
+            boxBlur(buffer, values, height, width, radius, width, 1);
+        }
     }
 
-    /**
-     * Returns a new BufferedImage that represents a subregion of the given BufferedImage. (Note that
-     * this method does not use BufferedImage.getSubimage(), which will defeat image acceleration
-     * strategies on later JDKs.)
+    private static int[] getBoxSizes(final double variance, final int passes) {
+        double idealWidth = Math.sqrt(12 * variance / passes + 1);
+        int lower = (int) Math.floor(idealWidth);
+        if (lower % 2 == 0) lower--;
+        int upper = lower + 2;
+        double idealCount = (12 * variance - passes * lower * lower - 4 * passes * lower - 3 * passes)
+                / (-4 * lower - 4);
+        int count = (int) Math.round(idealCount);
+        int[] sizes = new int[passes];
+        for (int i = 0; i < passes; i++) {
+            sizes[i] = i < count ? lower : upper;
+        }
+        return sizes;
+    }
+
+    /*
+     * Blurs the lines of the source along one direction. Values outside of the image are treated as
+     * zero. The step is the distance between two values of a line, the stride the distance between
+     * the starts of two lines.
      */
-    private BufferedImage getSubImage(final BufferedImage img, final int x, final int y, final int w, final int h) {
-        return img.getSubimage(x, y, w, h);
+    private static void boxBlur(final int[] src, final int[] dst, final int length, final int lines,
+            final int radius, final int step, final int stride) {
+        int size = 2 * radius + 1;
+        for (int line = 0; line < lines; line++) {
+            int start = line * stride;
+            int sum = 0;
+            for (int i = 0; i < Math.min(radius, length); i++) {
+                sum += src[start + i * step];
+            }
+            for (int i = 0; i < length; i++) {
+                int in = i + radius;
+                int out = i - radius - 1;
+                if (in < length) sum += src[start + in * step];
+                if (out >= 0) sum -= src[start + out * step];
+                dst[start + i * step] = (sum + radius) / size;
+            }
+        }
+    }
+
+    private static final class Tiles {
+        private final int[] alpha;
+        private final int width;
+        private final int offset;
+        private final int rgb;
+
+        private Tiles(final int[] alpha, final int width, final int offset, final int rgb) {
+            this.alpha = alpha;
+            this.width = width;
+            this.offset = offset;
+            this.rgb = rgb;
+        }
+
+        /*
+         * Creates a separate image for every tile, as sub images of a shared image would defeat image
+         * acceleration.
+         */
+        private BufferedImage getSubImage(final int x, final int y, final int w, final int h) {
+            BufferedImage tile = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+            int[] pixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+            int r = (rgb >> 16) & 0xFF;
+            int g = (rgb >> 8) & 0xFF;
+            int b = rgb & 0xFF;
+            for (int j = 0; j < h; j++) {
+                int row = (y + j + offset) * width + x + offset;
+                for (int i = 0; i < w; i++) {
+                    int a = alpha[row + i];
+                    pixels[j * w + i] = (a << 24) | ((r * a / 255) << 16) | ((g * a / 255) << 8) | (b * a / 255);
+                }
+            }
+            return tile;
+        }
+    }
+
+    private static final class ShadowKey {
+        private final int shadowSize;
+        private final float shadowOpacity;
+        private final int rgb;
+        private final int cornerSize;
+        private final double scale;
+
+        private ShadowKey(final int shadowSize, final float shadowOpacity, final int rgb, final int cornerSize,
+                final double scale) {
+            this.shadowSize = shadowSize;
+            this.shadowOpacity = shadowOpacity;
+            this.rgb = rgb;
+            this.cornerSize = cornerSize;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ShadowKey that = (ShadowKey) o;
+            return shadowSize == that.shadowSize
+                    && Float.compare(that.shadowOpacity, shadowOpacity) == 0
+                    && rgb == that.rgb
+                    && cornerSize == that.cornerSize
+                    && Double.compare(that.scale, scale) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = shadowSize;
+            result = 31 * result + Float.hashCode(shadowOpacity);
+            result = 31 * result + rgb;
+            result = 31 * result + cornerSize;
+            result = 31 * result + Double.hashCode(scale);
+            return result;
+        }
     }
 
     /** {@inheritDoc} */
@@ -31,6 +31,8 @@ import com.github.weisj.darklaf.icons.TwoIcon;
 /** Label that functions as an loading indicator. */
 public class LoadingIndicator extends JLabel {
 
+    private static final int FRAME_COUNT = 8;
+
     private final RotatableIcon loadIcon;
     private final Icon pausedIcon;
     private final Icon emptyIcon;
@@ -44,7 +46,8 @@ public class LoadingIndicator extends JLabel {
         pausedIcon = UIManager.getIcon("LoadIndicator.stepPassiveIcon");
         emptyIcon = EmptyIcon.create(loadIcon);
         displayIcon = new TwoIcon(loadIcon, null);
-        animator = new RotatableIconAnimator(8, loadIcon, this);
+        loadIcon.setFrameCount(FRAME_COUNT);
+        animator = new RotatableIconAnimator(FRAME_COUNT, loadIcon, this);
         displayIcon.setIconGap(getIconTextGap());
     }
 
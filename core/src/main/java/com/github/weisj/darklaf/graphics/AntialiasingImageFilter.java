@@ -23,6 +23,7 @@ package com.github.weisj.darklaf.graphics;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.awt.image.RGBImageFilter;
 
 public class AntialiasingImageFilter extends RGBImageFilter {
@@ -52,8 +53,50 @@ public class AntialiasingImageFilter extends RGBImageFilter {
         this.fgGreen = fg.getGreen();
     }
 
+    /**
+     * Applies the filter directly to the pixels of the given image. This avoids the overhead of the
+     * image producer chain used by {@link java.awt.image.FilteredImageSource}.
+     *
+     * @param  src the image to filter.
+     * @return     a new image containing the filtered pixels.
+     */
+    public BufferedImage filter(final BufferedImage src) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) result.getRaster().getDataBuffer()).getData();
+        src.getRGB(0, 0, width, height, pixels, 0, width);
+        int[] destPixels = getDestinationPixels(width, height);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = filterPixel(pixels[i], destPixels != null ? destPixels[i] : 0, destPixels != null);
+        }
+        return result;
+    }
+
+    private int[] getDestinationPixels(final int width, final int height) {
+        if (destImg == null) return null;
+        int[] destPixels = new int[width * height];
+        int x0 = Math.max(0, destPosX);
+        int y0 = Math.max(0, destPosY);
+        int x1 = Math.min(destImg.getWidth(), destPosX + width);
+        int y1 = Math.min(destImg.getHeight(), destPosY + height);
+        if (x1 > x0 && y1 > y0) {
+            int offset = (y0 - destPosY) * width + (x0 - destPosX);
+            destImg.getRGB(x0, y0, x1 - x0, y1 - y0, destPixels, offset, width);
+        }
+        return destPixels;
+    }
+
     @Override
     public int filterRGB(final int x, final int y, final int rgb) {
+        if (destImg != null) {
+            return filterPixel(rgb, destImg.getRGB(destPosX + x, destPosY + y), true);
+        } else {
+            return filterPixel(rgb, 0, false);
+        }
+    }
+
+    private int filterPixel(final int rgb, final int destRgb, final boolean hasDest) {
         if (rgb == bgRgb) {
             return 0;
         }
@@ -64,8 +107,7 @@ public class AntialiasingImageFilter extends RGBImageFilter {
         float ba = ((float) (blue - bgBlue)) / (fgBlue - bgBlue);
         float ga = ((float) (green - bgGreen)) / (fgGreen - bgGreen);
 
-        if (destImg != null) {
-            int destRgb = destImg.getRGB(destPosX + x, destPosY + y);
+        if (hasDest) {
             int destRed = (destRgb & 0xff0000) >> 16;
             int destGreen = (destRgb & 0x00ff00) >> 8;
             int destBlue = (destRgb & 0x0000ff);
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Nine-slice raster cache for the outlines painted by {@link PaintUtil}. The outline of a
+ * rectangle with rounded corners consists of four corners and four straight edges. The corners are
+ * rendered once for each arc, border width, color and scale, while the edges are stretched to the
+ * size of the outline. The current composite is applied when the slices are drawn.
+ *
+ * <p>
+ * Slices are only used if the outline is aligned to device pixels, as the rasterized corners
+ * wouldn't match the outline otherwise.
+ *
+ * @author Jannis Weis
+ */
+final class OutlineSliceCache {
+
+    private static final int MAX_CACHE_SIZE = 128;
+    private static final double ALIGNMENT_ERROR = 1E-3;
+    private static final AffineTransform IDENTITY = new AffineTransform();
+    private static final Map<Key, Slices> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    private OutlineSliceCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Paints the outline using the cached slices.
+     *
+     * @return false if the outline can't be painted using slices.
+     */
+    static boolean paint(final Graphics2D g, final float width, final float height, final float arc,
+            final float bw, final boolean inside) {
+        Paint paint = g.getPaint();
+        if (!(paint instanceof Color)) return false;
+        AffineTransform transform = g.getTransform();
+        int type = transform.getType();
+        if ((type & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) != 0) return false;
+        double sx = transform.getScaleX();
+        double sy = transform.getScaleY();
+        if (sx <= 0 || sy <= 0) return false;
+        double x0 = transform.getTranslateX();
+        double y0 = transform.getTranslateY();
+        double x1 = x0 + width * sx;
+        double y1 = y0 + height * sy;
+        if (!isAligned(x0) || !isAligned(y0) || !isAligned(x1) || !isAligned(y1)) return false;
+
+        Slices slices = getSlices(new Key(arc, bw, inside, ((Color) paint).getRGB(), sx, sy));
+        int left = (int) Math.round(x0);
+        int top = (int) Math.round(y0);
+        int right = (int) Math.round(x1);
+        int bottom = (int) Math.round(y1);
+        if (right - left < slices.image.getWidth() || bottom - top < slices.image.getHeight()) return false;
+
+        Object interpolation = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        g.setTransform(IDENTITY);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        slices.paint(g, left, top, right, bottom);
+        g.setTransform(transform);
+        if (interpolation != null) g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        return true;
+    }
+
+    private static boolean isAligned(final double value) {
+        return Math.abs(value - Math.rint(value)) < ALIGNMENT_ERROR;
+    }
+
+    private static Slices getSlices(final Key key) {
+        synchronized (CACHE) {
+            Slices slices = CACHE.get(key);
+            if (slices != null) return slices;
+        }
+        Slices slices = new Slices(key);
+        synchronized (CACHE) {
+            CACHE.put(key, slices);
+            Iterator<Key> iterator = CACHE.keySet().iterator();
+            while (CACHE.size() > MAX_CACHE_SIZE && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return slices;
+    }
+
+    static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /*
+     * The outline rendered with the smallest size which contains both corners in each direction
+     * separated by a single pixel of the straight edges.
+     */
+    private static final class Slices {
+        private final BufferedImage image;
+        private final int cornerWidth;
+        private final int cornerHeight;
+
+        private Slices(final Key key) {
+            float corner = key.bw;
+            if (!Float.isNaN(key.arc) && key.arc > 0) {
+                float outerArc = key.inside ? key.arc : key.arc + key.bw;
+                float innerArc = key.inside ? key.arc - key.bw : key.arc;
+                corner = Math.max(outerArc / 2f, key.bw + Math.max(innerArc, 0) / 2f);
+            }
+            cornerWidth = (int) Math.ceil(corner * key.scaleX) + 1;
+            cornerHeight = (int) Math.ceil(corner * key.scaleY) + 1;
+            int width = 2 * cornerWidth + 1;
+            int height = 2 * cornerHeight + 1;
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = image.createGraphics();
+            g.setColor(new Color(key.rgb, true));
+            g.scale(key.scaleX, key.scaleY);
+            PaintUtil.fillOutline(g, (float) (width / key.scaleX), (float) (height / key.scaleY), key.arc, key.bw,
+                    key.inside);
+            g.dispose();
+        }
+
+        private void paint(final Graphics2D g, final int left, final int top, final int right, final int bottom) {
+            int cw = cornerWidth;
+            int ch = cornerHeight;
+            int w = image.getWidth();
+            int h = image.getHeight();
+            // Corners
+            g.drawImage(image, left, top, left + cw, top + ch, 0, 0, cw, ch, null);
+            g.drawImage(image, right - cw, top, right, top + ch, w - cw, 0, w, ch, null);
+            g.drawImage(image, left, bottom - ch, left + cw, bottom, 0, h - ch, cw, h, null);
+            g.drawImage(image, right - cw, bottom - ch, right, bottom, w - cw, h - ch, w, h, null);
+            // Edges
+            g.drawImage(image, left + cw, top, right - cw, top + ch, cw, 0, cw + 1, ch, null);
+            g.drawImage(image, left + cw, bottom - ch, right - cw, bottom, cw, h - ch, cw + 1, h, null);
+            g.drawImage(image, left, top + ch, left + cw, bottom - ch, 0, ch, cw, ch + 1, null);
+            g.drawImage(image, right - cw, top + ch, right, bottom - ch, w - cw, ch, w, ch + 1, null);
+        }
+    }
+
+    private static final class Key {
+        private final float arc;
+        private final float bw;
+        private final boolean inside;
+        private final int rgb;
+        private final double scaleX;
+        private final double scaleY;
+
+        private Key(final float arc, final float bw, final boolean inside, final int rgb, final double scaleX,
+                final double scaleY) {
+            this.arc = arc;
+            this.bw = bw;
+            this.inside = inside;
+            this.rgb = rgb;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Float.compare(key.arc, arc) == 0
+                    && Float.compare(key.bw, bw) == 0
+                    && inside == key.inside
+                    && rgb == key.rgb
+                    && Double.compare(key.scaleX, scaleX) == 0
+                    && Double.compare(key.scaleY, scaleY) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.hashCode(arc);
+            result = 31 * result + Float.hashCode(bw);
+            result = 31 * result + Boolean.hashCode(inside);
+            result = 31 * result + rgb;
+            result = 31 * result + Double.hashCode(scaleX);
+            result = 31 * result + Double.hashCode(scaleY);
+            return result;
+        }
+    }
+}
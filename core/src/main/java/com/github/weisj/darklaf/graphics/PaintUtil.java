@@ -27,12 +27,16 @@ import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 
+import com.github.weisj.darklaf.DarkLaf;
+import com.github.weisj.darklaf.util.PropertyUtil;
 import com.github.weisj.darklaf.util.Scale;
+import com.github.weisj.darklaf.util.graphics.GeometryScratch;
 import com.github.weisj.darklaf.util.graphics.GraphicsContext;
 import com.github.weisj.darklaf.util.graphics.GraphicsUtil;
 
 public final class PaintUtil {
 
+    public static final String NINE_SLICE_CACHE_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "nineSliceCache";
     public static final Color TRANSPARENT_COLOR = new Color(0x0, true);
     private static final AlphaComposite transparentComposite =
             AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f);
@@ -44,8 +48,7 @@ public final class PaintUtil {
     private static Color focusGlow;
     private static Color focusInactiveGlow;
     private static Color warningGlow;
-
-    private static final RoundRectangle2D roundRect = new RoundRectangle2D.Double();
+    private static volatile boolean nineSliceCacheEnabled = PropertyUtil.getSystemFlag(NINE_SLICE_CACHE_FLAG, false);
 
     public static void setGlowOpacity(final float alpha) {
         glowComposite = glowComposite.derive(alpha);
@@ -115,24 +118,56 @@ public final class PaintUtil {
         return warningGlow;
     }
 
+    /**
+     * Sets whether outlines and focus borders are painted from cached raster slices instead of filling
+     * their shape on every paint. The corners are rasterized once for each arc, border width, color
+     * and scale, while the edges are stretched to the size of the outline.
+     *
+     * @param enabled true if the slice cache should be used.
+     */
+    public static void setNineSliceCacheEnabled(final boolean enabled) {
+        nineSliceCacheEnabled = enabled;
+        if (!enabled) OutlineSliceCache.clear();
+    }
+
+    public static boolean isNineSliceCacheEnabled() {
+        return nineSliceCacheEnabled;
+    }
+
     private static void doPaint(final Graphics2D g, final float width, final float height, final float arc,
             final float bw, final boolean inside) {
+        if (nineSliceCacheEnabled && OutlineSliceCache.paint(g, width, height, arc, bw, inside)) return;
+        fillOutline(g, width, height, arc, bw, inside);
+    }
+
+    static void fillOutline(final Graphics2D g, final float width, final float height, final float arc,
+            final float bw, final boolean inside) {
         GraphicsContext context = GraphicsUtil.setupStrokePainting(g);
-        Shape outerRect;
-        Shape innerRect;
-        if (Scale.equalWithError(arc, 0)) {
-            outerRect = new Rectangle2D.Float(0, 0, width, height);
-            innerRect = new Rectangle2D.Float(bw, bw, width - 2 * bw, height - 2 * bw);
-        } else {
-            float outerArc = inside ? arc : arc + bw;
-            float innerArc = inside ? arc - bw : arc;
-            outerRect = new RoundRectangle2D.Float(0, 0, width, height, outerArc, outerArc);
-            innerRect = new RoundRectangle2D.Float(bw, bw, width - 2 * bw, height - 2 * bw, innerArc, innerArc);
+        try (GeometryScratch scratch = GeometryScratch.acquire()) {
+            Shape outerRect;
+            Shape innerRect;
+            if (Scale.equalWithError(arc, 0)) {
+                Rectangle2D.Float outer = scratch.rectangle(0);
+                Rectangle2D.Float inner = scratch.rectangle(1);
+                outer.setRect(0, 0, width, height);
+                inner.setRect(bw, bw, width - 2 * bw, height - 2 * bw);
+                outerRect = outer;
+                innerRect = inner;
+            } else {
+                float outerArc = inside ? arc : arc + bw;
+                float innerArc = inside ? arc - bw : arc;
+                RoundRectangle2D.Float outer = scratch.roundRectangle(0);
+                RoundRectangle2D.Float inner = scratch.roundRectangle(1);
+                outer.setRoundRect(0, 0, width, height, outerArc, outerArc);
+                inner.setRoundRect(bw, bw, width - 2 * bw, height - 2 * bw, innerArc, innerArc);
+                outerRect = outer;
+                innerRect = inner;
+            }
+            Path2D path = scratch.path(Path2D.WIND_EVEN_ODD);
+            path.append(outerRect, false);
+            path.append(innerRect, false);
+            g.fill(path);
         }
-        Path2D path = new Path2D.Float(Path2D.WIND_EVEN_ODD);
-        path.append(outerRect, false);
-        path.append(innerRect, false);
-        g.fill(path);
         context.restore();
     }
 
@@ -189,10 +224,16 @@ public final class PaintUtil {
         g.setComposite(PaintUtil.glowComposite);
         Outline.focus.setGraphicsColor(g, active);
 
-        Path2D shape = new Path2D.Float(Path2D.WIND_EVEN_ODD);
-        shape.append(new Ellipse2D.Float(x - bw, y - bw, width + bw * 2, height + bw * 2), false);
-        shape.append(new Ellipse2D.Float(x, y, width, height), false);
-        g.fill(shape);
+        try (GeometryScratch scratch = GeometryScratch.acquire()) {
+            Ellipse2D.Float outer = scratch.ellipse(0);
+            Ellipse2D.Float inner = scratch.ellipse(1);
+            outer.setFrame(x - bw, y - bw, width + bw * 2, height + bw * 2);
+            inner.setFrame(x, y, width, height);
+            Path2D shape = scratch.path(Path2D.WIND_EVEN_ODD);
+            shape.append(outer, false);
+            shape.append(inner, false);
+            g.fill(shape);
+        }
         config.restore();
     }
 
@@ -233,8 +274,11 @@ public final class PaintUtil {
 
         arcSize -= stroke;
         g.translate(lw, lw);
-        roundRect.setRoundRect(x, y, width - 2 * lw, height - 2 * lw, arcSize, arcSize);
-        g.fill(roundRect);
+        try (GeometryScratch scratch = GeometryScratch.acquire()) {
+            RoundRectangle2D.Float roundRect = scratch.roundRectangle(0);
+            roundRect.setRoundRect(x, y, width - 2 * lw, height - 2 * lw, arcSize, arcSize);
+            g.fill(roundRect);
+        }
         g.translate(-lw, -lw);
         context.restore();
     }
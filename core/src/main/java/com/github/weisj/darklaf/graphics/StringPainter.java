@@ -22,9 +22,8 @@
 package com.github.weisj.darklaf.graphics;
 
 import java.awt.*;
+import java.awt.font.TextAttribute;
 import java.awt.image.BufferedImage;
-import java.awt.image.FilteredImageSource;
-import java.awt.image.ImageFilter;
 import java.lang.reflect.Field;
 import java.util.logging.Logger;
 
@@ -44,6 +43,7 @@ public final class StringPainter {
 
     private static boolean translucentAAPaintingEnabled = true;
     private static boolean experimentalAntialiasingEnabled = false;
+    private static boolean textRasterCacheEnabled = true;
 
     public static void setExperimentalAntialiasingEnabled(final boolean enabled) {
         experimentalAntialiasingEnabled = enabled;
@@ -53,6 +53,21 @@ public final class StringPainter {
         translucentAAPaintingEnabled = enabled;
     }
 
+    /**
+     * Sets whether text which is painted onto an opaque buffer because of a translucent background
+     * should be cached. Cached rasters are reused for text with the same font, colors and size.
+     *
+     * @param enabled true if the text rasters should be cached.
+     */
+    public static void setTextRasterCacheEnabled(final boolean enabled) {
+        textRasterCacheEnabled = enabled;
+        if (!enabled) TextRasterCache.clear();
+    }
+
+    public static boolean isTextRasterCacheEnabled() {
+        return textRasterCacheEnabled;
+    }
+
     public static boolean isTranslucentAAPaintingEnabled() {
         return translucentAAPaintingEnabled;
     }
@@ -112,12 +127,11 @@ public final class StringPainter {
         final int x = textRect.x;
         final int y = textRect.y;
 
-        Graphics2D drawingGraphics = (Graphics2D) g;
-        BufferedImage img = null; // Only needed for translucent AA painting.
         Point textPos = null; // Only needed for experimental algorithm.
 
         Color fgColor = g.getColor();
         Color bgColor = background;
+        View v = view != null ? view : PropertyUtil.getObject(c, BasicHTML.propertyKey, View.class);
 
         /*
          * If there is a non-opaque parent on Windows no sub-pixel AA is supported. In this case we paint
@@ -147,39 +161,63 @@ public final class StringPainter {
                 bgColor = brightness > 127 ? Color.BLACK : Color.WHITE;
             }
 
-            img = ImageUtil.createCompatibleImage((int) Math.round(scaleX * textRect.width),
-                    (int) Math.round(scaleY * textRect.height));
-            drawingGraphics = prepareImage(img, bgColor, fgColor, scaleX, scaleY);
+            int width = (int) Math.round(scaleX * textRect.width);
+            int height = (int) Math.round(scaleY * textRect.height);
             textRect.setLocation(0, 0);
+            BufferedImage img;
+            if (textRasterCacheEnabled && v == null) {
+                // The text hints of the component are applied to the raster when the text is drawn.
+                TextRasterCache.Key key = new TextRasterCache.Key(text, mnemIndex, font, fgColor, bgColor, width,
+                        height, scaleX, scaleY, fm.getFontRenderContext(),
+                        c.getClientProperty(RenderingHints.KEY_TEXT_ANTIALIASING),
+                        c.getClientProperty(RenderingHints.KEY_TEXT_LCD_CONTRAST),
+                        c.getClientProperty(TextAttribute.NUMERIC_SHAPING));
+                Color bg = bgColor;
+                img = TextRasterCache.getRaster(key, () -> renderTextImage(c, v, text, textRect, font, asc, mnemIndex,
+                        width, height, bg, fgColor, scaleX, scaleY));
+            } else {
+                img = renderTextImage(c, v, text, textRect, font, asc, mnemIndex, width, height, bgColor, fgColor,
+                        scaleX, scaleY);
+            }
+            Image result = postProcessImage((Graphics2D) g, img, textPos, bgColor, fgColor);
+            g.drawImage(result, x, y, textRect.width, textRect.height, null);
+        } else {
+            g.setFont(font);
+            paintText((Graphics2D) g, c, v, text, textRect, asc, mnemIndex);
         }
-        drawingGraphics.setFont(font);
+        context.restore();
+    }
 
-        View v = view != null ? view : PropertyUtil.getObject(c, BasicHTML.propertyKey, View.class);
+    private static BufferedImage renderTextImage(final JComponent c, final View v, final String text,
+            final Rectangle textRect, final Font font, final int asc, final int mnemIndex, final int width,
+            final int height, final Color bgColor, final Color fgColor, final double scaleX, final double scaleY) {
+        BufferedImage img = ImageUtil.createCompatibleImage(width, height);
+        Graphics2D g = prepareImage(img, bgColor, fgColor, scaleX, scaleY);
+        g.setFont(font);
+        paintText(g, c, v, text, textRect, asc, mnemIndex);
+        g.dispose();
+        return img;
+    }
+
+    private static void paintText(final Graphics2D g, final JComponent c, final View v, final String text,
+            final Rectangle textRect, final int asc, final int mnemIndex) {
         if (v != null) {
-            v.paint(drawingGraphics, textRect);
+            v.paint(g, textRect);
         } else {
             int textY = textRect.y + asc;
             if (mnemIndex >= 0) {
-                SwingUtil.drawStringUnderlineCharAt(c, drawingGraphics, text, mnemIndex, textRect.x, textY);
+                SwingUtil.drawStringUnderlineCharAt(c, g, text, mnemIndex, textRect.x, textY);
             } else {
-                SwingUtil.drawString(c, drawingGraphics, text, textRect.x, textY);
+                SwingUtil.drawString(c, g, text, textRect.x, textY);
             }
         }
-
-        if (paintOpaqueBuffered) {
-            drawingGraphics.dispose();
-            Image result = postProcessImage((Graphics2D) g, img, textPos, bgColor, fgColor);
-            g.drawImage(result, x, y, textRect.width, textRect.height, null);
-        }
-        context.restore();
     }
 
     private static Image postProcessImage(final Graphics2D g, final BufferedImage img, final Point textPos,
             final Color bgColor, final Color fgColor) {
         if (experimentalAntialiasingEnabled) {
             final BufferedImage destImg = getImage(g);
-            ImageFilter filter = new AntialiasingImageFilter(destImg, textPos.x, textPos.y, fgColor, bgColor);
-            return Toolkit.getDefaultToolkit().createImage(new FilteredImageSource(img.getSource(), filter));
+            return new AntialiasingImageFilter(destImg, textPos.x, textPos.y, fgColor, bgColor).filter(img);
         } else {
             return img;
         }
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Cache for the text rasters painted by {@link StringPainter} if text has to be painted onto an opaque
+ * buffer first. The cache is bounded by the memory used for the rasters and evicts the least recently
+ * used rasters first.
+ *
+ * <p>
+ * Cached rasters are shared and must not be modified.
+ *
+ * @author Jannis Weis
+ */
+final class TextRasterCache {
+
+    private static final long MAX_CACHE_BYTES = 4 * 1024 * 1024;
+    private static final long MAX_ENTRY_BYTES = MAX_CACHE_BYTES / 16;
+    private static final Map<Key, BufferedImage> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cacheBytes;
+
+    private TextRasterCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static BufferedImage getRaster(final Key key, final Supplier<BufferedImage> renderer) {
+        synchronized (CACHE) {
+            BufferedImage raster = CACHE.get(key);
+            if (raster != null) return raster;
+        }
+        BufferedImage raster = renderer.get();
+        long bytes = sizeOf(raster);
+        if (bytes > MAX_ENTRY_BYTES) return raster;
+        synchronized (CACHE) {
+            BufferedImage old = CACHE.put(key, raster);
+            cacheBytes += bytes;
+            if (old != null) cacheBytes -= sizeOf(old);
+            Iterator<BufferedImage> iterator = CACHE.values().iterator();
+            while (cacheBytes > MAX_CACHE_BYTES && iterator.hasNext()) {
+                cacheBytes -= sizeOf(iterator.next());
+                iterator.remove();
+            }
+        }
+        return raster;
+    }
+
+    static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            cacheBytes = 0;
+        }
+    }
+
+    private static long sizeOf(final BufferedImage image) {
+        return 4L * image.getWidth() * image.getHeight();
+    }
+
+    static final class Key {
+        private final String text;
+        private final int mnemonicIndex;
+        private final Font font;
+        private final int fgRgb;
+        private final int bgRgb;
+        private final int width;
+        private final int height;
+        private final double scaleX;
+        private final double scaleY;
+        private final FontRenderContext fontRenderContext;
+        private final Object textAntialiasing;
+        private final Object lcdContrast;
+        private final Object numericShaping;
+        private final int hashCode;
+
+        /*
+         * The text hints are the ones the component applies when drawing the text and not the ones of the
+         * graphics the raster is painted to.
+         */
+        Key(final String text, final int mnemonicIndex, final Font font, final Color fg, final Color bg,
+                final int width, final int height, final double scaleX, final double scaleY,
+                final FontRenderContext fontRenderContext, final Object textAntialiasing, final Object lcdContrast,
+                final Object numericShaping) {
+            this.text = text;
+            this.mnemonicIndex = mnemonicIndex;
+            this.font = font;
+            this.fgRgb = fg.getRGB();
+            this.bgRgb = bg.getRGB();
+            this.width = width;
+            this.height = height;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.fontRenderContext = fontRenderContext;
+            this.textAntialiasing = textAntialiasing;
+            this.lcdContrast = lcdContrast;
+            this.numericShaping = numericShaping;
+            this.hashCode = Objects.hash(text, mnemonicIndex, font, fgRgb, bgRgb, width, height, scaleX, scaleY,
+                    fontRenderContext, textAntialiasing, lcdContrast, numericShaping);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && mnemonicIndex == key.mnemonicIndex
+                    && fgRgb == key.fgRgb
+                    && bgRgb == key.bgRgb
+                    && width == key.width
+                    && height == key.height
+                    && Double.compare(key.scaleX, scaleX) == 0
+                    && Double.compare(key.scaleY, scaleY) == 0
+                    && text.equals(key.text)
+                    && font.equals(key.font)
+                    && Objects.equals(fontRenderContext, key.fontRenderContext)
+                    && Objects.equals(textAntialiasing, key.textAntialiasing)
+                    && Objects.equals(lcdContrast, key.lcdContrast)
+                    && Objects.equals(numericShaping, key.numericShaping);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.task;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.PropertyLoader;
+import com.github.weisj.darklaf.color.DarkColorModelHSB;
+import com.github.weisj.darklaf.parser.ParseResult;
+import com.github.weisj.darklaf.parser.Parser;
+import com.github.weisj.darklaf.parser.ParserContext;
+import com.github.weisj.darklaf.parser.ReferenceGraph;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.theme.info.AccentColorRule;
+import com.github.weisj.darklaf.uiresource.DarkColorUIResource;
+import com.github.weisj.darklaf.util.DarkUIUtil;
+import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.Types;
+
+/**
+ * The mappings from the colors of an {@link AccentColorRule} to the properties of a theme as declared
+ * in its accent properties. The mappings only depend on the theme hence they are parsed once and
+ * reused whenever the accent colors are applied.
+ *
+ * <p>
+ * After the defaults of a theme have been loaded a {@link Binding} is put into the defaults. It
+ * allows to apply a different accent color rule by only updating the affected defaults.
+ *
+ * @author Jannis Weis
+ */
+public final class AccentColorPlan {
+
+    private static final Logger LOGGER = LogUtil.getLogger(AccentColorPlan.class);
+
+    private static final String MAIN_ACCENT_LIST_KEY = "accent.propertyList";
+    private static final String SELECTION_ACCENT_LIST_KEY = "selection.propertyList";
+    private static final String ACCENT_FOREGROUND_LIST_KEY = "accentForeground.propertyList";
+    private static final String SELECTION_FOREGROUND_LIST_KEY = "selectionForeground.propertyList";
+    private static final List<Integer> DEFAULT_MODIFIERS = Arrays.asList(100, 100, 100);
+
+    private static final Map<Class<? extends Theme>, AccentColorPlan> planCache = new ConcurrentHashMap<>();
+
+    /*
+     * Resolves every reference to a marker of the referenced key. This way the mappings can be parsed
+     * without any properties and references are resolved each time the mappings are applied.
+     */
+    private static final Map<Object, Object> REFERENCE_MARKERS = new AbstractMap<Object, Object>() {
+        @Override
+        public Object get(final Object key) {
+            return key != null ? new Reference(key.toString()) : null;
+        }
+
+        @Override
+        public Set<Entry<Object, Object>> entrySet() {
+            return Collections.emptySet();
+        }
+    };
+
+    private final List<ColorMapping> accentMappings;
+    private final List<ColorMapping> selectionMappings;
+    private final List<ForegroundMapping> accentForegroundMappings;
+    private final List<ForegroundMapping> selectionForegroundMappings;
+    private final Set<String> inputKeys;
+
+    private AccentColorPlan(final Properties accentProperties) {
+        Properties props = accentProperties != null ? accentProperties : new Properties();
+        accentMappings = parseColorMappings(MAIN_ACCENT_LIST_KEY, props);
+        selectionMappings = parseColorMappings(SELECTION_ACCENT_LIST_KEY, props);
+        accentForegroundMappings = parseForegroundMappings(ACCENT_FOREGROUND_LIST_KEY, props);
+        selectionForegroundMappings = parseForegroundMappings(SELECTION_FOREGROUND_LIST_KEY, props);
+        Set<String> keys = new HashSet<>();
+        accentMappings.forEach(m -> keys.add(m.key));
+        selectionMappings.forEach(m -> keys.add(m.key));
+        accentForegroundMappings.forEach(m -> m.addInputKeys(keys));
+        selectionForegroundMappings.forEach(m -> m.addInputKeys(keys));
+        inputKeys = Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Get the plan for the given theme. Plans of themes which don't customize the loading of their
+     * properties are cached.
+     *
+     * @param theme the theme.
+     * @return the accent color plan.
+     */
+    public static AccentColorPlan forTheme(final Theme theme) {
+        if (!ThemeSnapshot.isUncustomized(theme)) return new AccentColorPlan(theme.loadAccentProperties());
+        return planCache.computeIfAbsent(theme.getThemeClass(),
+                c -> new AccentColorPlan(theme.loadAccentProperties()));
+    }
+
+    /**
+     * The keys of all properties the mappings read from. The values of these properties determine the
+     * result of the mappings together with the accent color rule.
+     *
+     * @return the input keys.
+     */
+    public Set<String> getInputKeys() {
+        return inputKeys;
+    }
+
+    /**
+     * Adjusts the properties mapped to the accent and selection colors.
+     *
+     * @param theme the theme.
+     * @param accentColor the accent color. May be null.
+     * @param selectionColor the selection color. May be null.
+     * @param properties the properties to adjust.
+     */
+    public void applyAccentColors(final Theme theme, final Color accentColor, final Color selectionColor,
+            final Map<Object, Object> properties) {
+        if (accentColor != null && theme.supportsCustomAccentColor()) {
+            applyColorMappings(accentMappings, accentColor, properties);
+        }
+        if (selectionColor != null && theme.supportsCustomSelectionColor()) {
+            applyColorMappings(selectionMappings, selectionColor, properties);
+        }
+    }
+
+    /**
+     * Generates the foreground colors for the backgrounds adjusted by
+     * {@link #applyAccentColors(Theme, Color, Color, Map)}.
+     *
+     * @param theme the theme.
+     * @param accentColorRule the accent color rule.
+     * @param properties the properties to adjust.
+     */
+    public void applyForegroundColors(final Theme theme, final AccentColorRule accentColorRule,
+            final Map<Object, Object> properties) {
+        if (accentColorRule.getAccentColor() != null && theme.supportsCustomAccentColor()) {
+            applyForegroundMappings(accentForegroundMappings, properties);
+        }
+        if (accentColorRule.getSelectionColor() != null && theme.supportsCustomSelectionColor()) {
+            applyForegroundMappings(selectionForegroundMappings, properties);
+        }
+    }
+
+    /*
+     * Applies the accent color rule of the theme to the given input values without modifying them.
+     */
+    Map<Object, Object> apply(final Theme theme, final Map<Object, Object> inputValues) {
+        Map<Object, Object> values = new HashMap<>(inputValues);
+        AccentColorRule accentColorRule = theme.getAccentColorRule();
+        applyAccentColors(theme, accentColorRule.getAccentColor(), accentColorRule.getSelectionColor(), values);
+        applyForegroundColors(theme, accentColorRule, values);
+        return values;
+    }
+
+    Map<Object, Object> getInputValues(final Map<Object, Object> properties) {
+        Map<Object, Object> values = new HashMap<>(inputKeys.size());
+        for (String key : inputKeys) {
+            Object value = properties.get(key);
+            if (value != null) values.put(key, value);
+        }
+        return values;
+    }
+
+    private void applyColorMappings(final List<ColorMapping> mappings, final Color c,
+            final Map<Object, Object> properties) {
+        double[] hsb = DarkColorModelHSB.RGBtoHSBValues(c.getRed(), c.getGreen(), c.getBlue());
+        for (ColorMapping mapping : mappings) {
+            Object obj = properties.get(mapping.key);
+            if (obj instanceof Color) {
+                properties.put(mapping.key, mapping.map(hsb));
+            } else {
+                LOGGER.warning("Color with key '" + mapping.key + "' could not be adjusted because the value '" + obj
+                        + "' is not a color");
+            }
+        }
+    }
+
+    private void applyForegroundMappings(final List<ForegroundMapping> mappings,
+            final Map<Object, Object> properties) {
+        for (ForegroundMapping mapping : mappings) {
+            Object background = mapping.background instanceof Reference
+                    ? properties.get(((Reference) mapping.background).key)
+                    : mapping.background;
+            if (!(background instanceof Color)) continue;
+            for (String fgKey : mapping.targets) {
+                Color suggestion = Types.safeCast(properties.get(fgKey), Color.class);
+                properties.put(fgKey, ForegroundColorGenerationTask.makeAdjustedForeground(suggestion,
+                        (Color) background, ForegroundColorGenerationTask.Bias.BACKGROUND,
+                        ForegroundColorGenerationTask.DEFAULT_COLOR_ADJUSTED_FG_DIFFERENCE,
+                        ForegroundColorGenerationTask.DEFAULT_COLOR_ADJUSTED_BG_THRESHOLD));
+            }
+        }
+    }
+
+    private static Map<?, ?> parseMap(final String listKey, final Properties listProperties) {
+        String declaration = listProperties.getProperty(listKey);
+        if (declaration == null) return Collections.emptyMap();
+        ParseResult p = Parser.parse(Parser.createParseResult(listKey, declaration),
+                new ParserContext(REFERENCE_MARKERS, Collections.emptyMap(), DarkUIUtil.ICON_LOADER));
+        Object obj = p.result;
+        if (obj instanceof Map<?, ?>) return (Map<?, ?>) obj;
+        LOGGER.severe("Expected map object but received " + obj + "[" + (obj != null ? obj.getClass() : null) + "]."
+                + " Declared as " + declaration + " with key " + listKey);
+        return Collections.emptyMap();
+    }
+
+    private static List<ColorMapping> parseColorMappings(final String listKey, final Properties listProperties) {
+        List<ColorMapping> mappings = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : parseMap(listKey, listProperties).entrySet()) {
+            String targetKey = Types.safeCast(entry.getKey(), String.class);
+            List<?> modifiers = entry.getValue() == Parser.EMPTY_VALUE
+                    ? DEFAULT_MODIFIERS
+                    : Types.safeCast(entry.getValue(), List.class);
+            if (targetKey == null) {
+                LOGGER.severe("Target key is null");
+                continue;
+            }
+            if (modifiers == null || modifiers.size() != 3
+                    || !(modifiers.get(0) instanceof Integer)
+                    || !(modifiers.get(1) instanceof Integer)
+                    || !(modifiers.get(2) instanceof Integer)) {
+                LOGGER.severe("Incorrect modifier list " + modifiers);
+                continue;
+            }
+            mappings.add(new ColorMapping(targetKey, (Integer) modifiers.get(0), (Integer) modifiers.get(1),
+                    (Integer) modifiers.get(2)));
+        }
+        return mappings;
+    }
+
+    private static List<ForegroundMapping> parseForegroundMappings(final String listKey,
+            final Properties listProperties) {
+        List<ForegroundMapping> mappings = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : parseMap(listKey, listProperties).entrySet()) {
+            Object background = entry.getValue();
+            if (!(background instanceof Color || background instanceof Reference)) continue;
+            Object targets = entry.getKey();
+            List<String> targetKeys = new ArrayList<>();
+            if (targets instanceof String) {
+                targetKeys.add((String) targets);
+            } else if (targets instanceof List) {
+                for (Object target : (List<?>) targets) {
+                    if (target instanceof String) {
+                        targetKeys.add((String) target);
+                    } else {
+                        LOGGER.warning("Invalid target " + target);
+                    }
+                }
+            } else {
+                LOGGER.warning("Invalid target declaration " + targets);
+            }
+            mappings.add(new ForegroundMapping(targetKeys, background));
+        }
+        return mappings;
+    }
+
+    private static final class Reference {
+        private final String key;
+
+        private Reference(final String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class ColorMapping {
+        private final String key;
+        private final int hAdj;
+        private final int sAdj;
+        private final int bAdj;
+
+        private ColorMapping(final String key, final int hAdj, final int sAdj, final int bAdj) {
+            this.key = key;
+            this.hAdj = hAdj;
+            this.sAdj = sAdj;
+            this.bAdj = bAdj;
+        }
+
+        private Color map(final double[] hsb) {
+            return new DarkColorUIResource(DarkColorModelHSB.getColorFromHSBValues(mapValue(hsb[0], hAdj),
+                    mapValue(hsb[1], sAdj), mapValue(hsb[2], bAdj)));
+        }
+
+        private static double mapValue(final double value, final int adjustment) {
+            return value * (adjustment / 100.0);
+        }
+    }
+
+    private static final class ForegroundMapping {
+        private final List<String> targets;
+        private final Object background;
+
+        private ForegroundMapping(final List<String> targets, final Object background) {
+            this.targets = targets;
+            this.background = background;
+        }
+
+        private void addInputKeys(final Set<String> keys) {
+            keys.addAll(targets);
+            if (background instanceof Reference) keys.add(((Reference) background).key);
+        }
+    }
+
+    /**
+     * The accent colors applied to the installed defaults of a theme. Besides the values the mappings
+     * were applied to, the binding knows the declarations of all properties which have been loaded
+     * after the accent colors were applied. This allows to apply a different accent color rule by
+     * updating the mapped properties and only the properties which reference them.
+     */
+    public static final class Binding {
+
+        static final String KEY = "AccentColorPlan.binding";
+
+        private final AccentColorPlan plan;
+        private final Map<Object, Object> inputValues;
+        private final Map<Object, Object> declarations;
+        private final Map<Object, Object> values;
+        private ReferenceGraph graph;
+        private Theme theme;
+
+        Binding(final AccentColorPlan plan, final Theme theme, final Map<Object, Object> inputValues,
+                final Map<Object, Object> declarations, final Map<Object, Object> values) {
+            this.plan = plan;
+            this.theme = theme;
+            this.inputValues = inputValues;
+            this.declarations = declarations;
+            this.values = values;
+        }
+
+        /**
+         * Get the binding of the given defaults.
+         *
+         * @param defaults the defaults.
+         * @return the binding or null if the defaults don't support changing the accent colors.
+         */
+        public static Binding get(final UIDefaults defaults) {
+            Object binding = defaults.get(KEY);
+            return binding instanceof Binding ? (Binding) binding : null;
+        }
+
+        /**
+         * Returns whether the given theme can be applied using this binding i.e. it only differs from
+         * the bound theme in its accent color rule.
+         *
+         * @param newTheme the theme to apply.
+         * @return true if the theme can be applied.
+         */
+        public boolean canApply(final Theme newTheme) {
+            return newTheme != null
+                    && Objects.equals(theme.getThemeClass(), newTheme.getThemeClass())
+                    && Objects.equals(theme.getColorToneRule(), newTheme.getColorToneRule())
+                    && Objects.equals(theme.getContrastRule(), newTheme.getContrastRule())
+                    && Objects.equals(theme.getFontSizeRule(), newTheme.getFontSizeRule())
+                    && plan == forTheme(newTheme);
+        }
+
+        /**
+         * Applies the accent color rule of the given theme to the defaults. Values which have been
+         * changed after the theme was loaded e.g. by user tasks are kept.
+         *
+         * @param newTheme the theme to apply.
+         * @param defaults the defaults to update.
+         * @return the keys of all changed values.
+         */
+        public Set<Object> apply(final Theme newTheme, final UIDefaults defaults) {
+            Properties updated = new Properties();
+            updated.putAll(plan.apply(newTheme, inputValues));
+            ThemeDefaultsInitTask.initAccentProperties(newTheme, values, updated);
+            theme = newTheme;
+
+            Set<String> changedRoots = new HashSet<>();
+            for (String key : updated.stringPropertyNames()) {
+                if (!Objects.equals(updated.get(key), values.get(key))) changedRoots.add(key);
+            }
+            if (changedRoots.isEmpty()) return Collections.emptySet();
+
+            List<String> affectedKeys = getGraph().getAffectedKeys(changedRoots);
+            PropertyLoader.putProperties(declarations, new LinkedHashSet<>(affectedKeys), updated, defaults,
+                    DarkUIUtil.ICON_LOADER);
+            propagateGlobals(updated, defaults);
+
+            Set<Object> changedKeys = new HashSet<>();
+            for (String key : updated.stringPropertyNames()) {
+                Object value = updated.get(key);
+                Object previous = values.get(key);
+                if (Objects.equals(value, previous)) continue;
+                if (previous != null && !Objects.equals(defaults.get(key), previous)) continue;
+                defaults.put(key, value);
+                values.put(key, value);
+                changedKeys.add(key);
+            }
+            return changedKeys;
+        }
+
+        private ReferenceGraph getGraph() {
+            if (graph == null) {
+                Set<String> keys = new LinkedHashSet<>();
+                for (Object key : declarations.keySet()) {
+                    keys.add(key.toString());
+                }
+                graph = ReferenceGraph.create(declarations, keys);
+            }
+            return graph;
+        }
+
+        /*
+         * Global properties have been copied to the values of the base look and feel with the same
+         * name (see ThemeDefaultsInitTask#installGlobals). Copies which still hold the old value are
+         * updated.
+         */
+        private void propagateGlobals(final Properties updated, final UIDefaults defaults) {
+            KeySuffixIndex index = null;
+            for (String key : updated.stringPropertyNames()) {
+                if (!key.startsWith(ThemeDefaultsInitTask.GLOBAL_PREFIX)) continue;
+                if (index == null) index = KeySuffixIndex.of(defaults);
+                Object oldValue = values.get(key);
+                Object newValue = updated.get(key);
+                for (Object target : index.getKeys(key.substring(ThemeDefaultsInitTask.GLOBAL_PREFIX.length()))) {
+                    if (declarations.containsKey(target) || !defaults.containsKey(target)) continue;
+                    if (Objects.equals(defaults.get(target), oldValue)) {
+                        updated.put(target, newValue);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -45,4 +45,15 @@ public interface DefaultsInitTask {
     default boolean onlyDuringInstallation() {
         return false;
     }
+
+    /**
+     * Indicates that the task only depends on the theme and the defaults it is given. Such tasks may
+     * be run in advance on a background thread when a theme is prewarmed.
+     *
+     * @return true if the task can be run before the LaF is installed.
+     * @see com.github.weisj.darklaf.LafManager#prewarm(Theme)
+     */
+    default boolean canBePrewarmed() {
+        return false;
+    }
 }
@@ -242,4 +242,9 @@ public class FontDefaultsInitTask implements DefaultsInitTask {
         }
         return withRule;
     }
+
+    @Override
+    public boolean canBePrewarmed() {
+        return true;
+    }
 }
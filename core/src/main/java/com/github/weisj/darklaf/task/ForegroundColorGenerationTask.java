@@ -22,10 +22,7 @@
 package com.github.weisj.darklaf.task;
 
 import java.awt.*;
-import java.util.List;
-import java.util.Map;
 import java.util.Properties;
-import java.util.logging.Logger;
 
 import javax.swing.plaf.ColorUIResource;
 
@@ -35,67 +32,19 @@ import com.github.weisj.darklaf.color.DarkColorModelHSL;
 import com.github.weisj.darklaf.theme.Theme;
 import com.github.weisj.darklaf.theme.info.AccentColorRule;
 import com.github.weisj.darklaf.uiresource.DarkColorUIResource;
-import com.github.weisj.darklaf.util.LogUtil;
-import com.github.weisj.darklaf.util.Types;
 
 public class ForegroundColorGenerationTask extends ColorAdjustmentTask {
 
-
-    private static final Logger LOGGER = LogUtil.getLogger(ForegroundColorGenerationTask.class);
-    private static final String FOREGROUND_LIST_KEY = "selectionForeground.propertyList";
-    private static final String ACCENT_LIST_KEY = "accentForeground.propertyList";
-
-    private static final double DEFAULT_COLOR_ADJUSTED_BG_THRESHOLD = 0.552;
-    private static final double DEFAULT_COLOR_ADJUSTED_FG_DIFFERENCE = 0.8;
+    static final double DEFAULT_COLOR_ADJUSTED_BG_THRESHOLD = 0.552;
+    static final double DEFAULT_COLOR_ADJUSTED_FG_DIFFERENCE = 0.8;
     private static final double MIN_FOREGROUND_DIFFERENCE = 0.5;
 
-    @Override
-    protected void beforeTask(final Theme currentTheme, final Properties properties) {
-        super.beforeTask(currentTheme, properties);
-        DEFAULTS.putAll(properties);
-    }
-
     @Override
     protected void runTask(final Theme currentTheme, final Properties properties) {
-        Properties props = currentTheme.loadPropertyFile("accents", true);
         AccentColorRule accentColorRule = currentTheme.getAccentColorRule();
-        if (accentColorRule.getAccentColor() != null && currentTheme.supportsCustomAccentColor()) {
-            adjust(ACCENT_LIST_KEY, props, map -> adjustForegroundList(map, properties));
-        }
-        if (accentColorRule.getSelectionColor() != null && currentTheme.supportsCustomSelectionColor()) {
-            adjust(FOREGROUND_LIST_KEY, props, map -> adjustForegroundList(map, properties));
-        }
-    }
-
-    private void adjustForegroundList(final Map<?, ?> map, final Properties properties) {
-        map.entrySet().stream()
-                .filter(e -> e.getValue() instanceof Color)
-                .forEach(e -> {
-                    Object targets = e.getKey();
-                    if (targets instanceof String) {
-                        adjustForeground(targets.toString(), (Color) e.getValue(), properties);
-                    } else if (targets instanceof List) {
-                        for (Object target : (List<?>) targets) {
-                            if (target instanceof String) {
-                                adjustForeground(target.toString(), (Color) e.getValue(), properties);
-                            } else {
-                                LOGGER.warning("Invalid target " + target);
-                            }
-                        }
-                    } else {
-                        LOGGER.warning("Invalid target declaration " + targets);
-                    }
-                });
+        AccentColorPlan.forTheme(currentTheme).applyForegroundColors(currentTheme, accentColorRule, properties);
     }
 
-    private void adjustForeground(final String fgKey, final Color bg, final Properties properties) {
-        Color suggestion = Types.safeCast(properties.get(fgKey), Color.class);
-        Color c = makeAdjustedForeground(suggestion, bg, Bias.BACKGROUND,
-                DEFAULT_COLOR_ADJUSTED_FG_DIFFERENCE, DEFAULT_COLOR_ADJUSTED_BG_THRESHOLD);
-        properties.put(fgKey, c);
-    }
-
-
     public static ColorUIResource makeForeground(final Color bg) {
         return makeForeground(bg, MIN_FOREGROUND_DIFFERENCE);
     }
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.DarkLaf;
+import com.github.weisj.darklaf.icons.IconLoader;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.util.PropertyUtil;
+
+/**
+ * Packs the state icons of check boxes, radio buttons, sliders and trees into an icon atlas. These
+ * icons are painted very frequently in tables and trees. The atlas is opt-in and can be enabled
+ * using the system property {@value #ICON_ATLAS_FLAG}.
+ *
+ * @see IconLoader#createIconAtlas(java.util.Collection)
+ */
+public class IconAtlasInitTask implements DefaultsInitTask {
+
+    public static final String ICON_ATLAS_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "iconAtlas";
+    private static final String[] ICON_KEY_PREFIXES = new String[] {"CheckBox", "RadioButton", "Slider.", "Tree."};
+
+    @Override
+    public void run(final Theme currentTheme, final UIDefaults defaults) {
+        if (!PropertyUtil.getSystemFlag(ICON_ATLAS_FLAG, false)) {
+            IconLoader.clearIconAtlas();
+            return;
+        }
+        List<Icon> icons = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+            if (entry.getValue() instanceof Icon && isStateIconKey(entry.getKey())) {
+                icons.add((Icon) entry.getValue());
+            }
+        }
+        IconLoader.createIconAtlas(icons);
+    }
+
+    private boolean isStateIconKey(final Object key) {
+        if (!(key instanceof String)) return false;
+        String k = (String) key;
+        if (!k.endsWith("Icon") && !k.endsWith(".icon")) return false;
+        for (String prefix : ICON_KEY_PREFIXES) {
+            if (k.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean onlyDuringInstallation() {
+        return true;
+    }
+}
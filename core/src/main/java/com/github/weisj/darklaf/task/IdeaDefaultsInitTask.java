@@ -53,4 +53,9 @@ public class IdeaDefaultsInitTask implements DefaultsInitTask {
                 "selectPreviousColumnCell", "ENTER", "selectNextRowCell", "shift ENTER", "selectPreviousRowCell",
                 "ctrl A", "selectAll", "meta A", "selectAll", "ESCAPE", "cancel", "F2", "startEditing"}));
     }
+
+    @Override
+    public boolean canBePrewarmed() {
+        return true;
+    }
 }
@@ -102,4 +102,9 @@ public class InputDefaultsInitTask implements DefaultsInitTask {
         defaults.put("ComboBox.ancestorInputMap", metalDefaults.get("ComboBox.ancestorInputMap"));
         defaults.put("ComboBox.actionMap", metalDefaults.get("ComboBox.actionMap"));
     }
+
+    @Override
+    public boolean canBePrewarmed() {
+        return true;
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.task;
+
+import java.util.*;
+
+import javax.swing.*;
+
+/**
+ * Index of keys by their suffix i.e. the part after the last '.' of the key. Global properties are
+ * applied to all keys with the corresponding suffix, which using the index only requires to visit
+ * the matching keys.
+ *
+ * <p>
+ * The index may be shared between defaults with the same keys. Keys in the index are not guaranteed
+ * to be present in the defaults and should be checked before they are used.
+ *
+ * @author Jannis Weis
+ */
+public final class KeySuffixIndex {
+
+    private final Map<String, List<Object>> keysBySuffix;
+    private final Set<Object> keys;
+
+    private KeySuffixIndex(final Map<String, List<Object>> keysBySuffix, final Set<Object> keys) {
+        this.keysBySuffix = keysBySuffix;
+        this.keys = keys;
+    }
+
+    /**
+     * Create the index of the given keys. Only keys which are strings containing a '.' are indexed.
+     *
+     * @param keys the keys.
+     * @return the index.
+     */
+    public static KeySuffixIndex create(final Collection<?> keys) {
+        Map<String, List<Object>> keysBySuffix = new HashMap<>();
+        for (Object key : keys) {
+            if (!(key instanceof String)) continue;
+            String s = (String) key;
+            int index = s.lastIndexOf('.');
+            if (index < 0) continue;
+            keysBySuffix.computeIfAbsent(s.substring(index + 1), k -> new ArrayList<>(2)).add(key);
+        }
+        return new KeySuffixIndex(keysBySuffix, new HashSet<>(keys));
+    }
+
+    /**
+     * Get the index of the given defaults. If the defaults don't provide an index it is created from
+     * their current keys.
+     *
+     * @param defaults the defaults.
+     * @return the index.
+     */
+    public static KeySuffixIndex of(final UIDefaults defaults) {
+        if (defaults instanceof Provider) return ((Provider) defaults).getKeySuffixIndex();
+        return create(defaults.keySet());
+    }
+
+    /**
+     * Get all keys with the given suffix.
+     *
+     * @param suffix the suffix without the leading '.'.
+     * @return the keys.
+     */
+    public List<Object> getKeys(final String suffix) {
+        return keysBySuffix.getOrDefault(suffix, Collections.emptyList());
+    }
+
+    /**
+     * Returns whether the index was created from exactly the given keys.
+     *
+     * @param keys the keys.
+     * @return true if the index was created from the given keys.
+     */
+    public boolean hasKeys(final Set<?> keys) {
+        return this.keys.size() == keys.size() && this.keys.containsAll(keys);
+    }
+
+    /**
+     * Defaults which maintain an index of their keys.
+     */
+    public interface Provider {
+
+        /**
+         * Get the index of the keys.
+         *
+         * @return the index.
+         */
+        KeySuffixIndex getKeySuffixIndex();
+    }
+}
@@ -36,4 +36,9 @@ public class RemoveUnusedInitTask implements DefaultsInitTask {
         Properties props = PropertyLoader.loadProperties(DarkLaf.class, "unused", "properties/");
         props.keySet().forEach(defaults::remove);
     }
+
+    @Override
+    public boolean canBePrewarmed() {
+        return true;
+    }
 }
@@ -45,4 +45,9 @@ public class ResourceBundleInitTask implements DefaultsInitTask {
         defaults.addResourceBundle(SETTING_BUNDLE_NAME);
         defaults.addResourceBundle(TAB_FRAME_BUNDLE_NAME);
     }
+
+    @Override
+    public boolean canBePrewarmed() {
+        return true;
+    }
 }
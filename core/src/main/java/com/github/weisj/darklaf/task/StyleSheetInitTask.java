@@ -32,6 +32,8 @@ import com.github.weisj.darklaf.theme.Theme;
 
 public class StyleSheetInitTask implements DefaultsInitTask {
 
+    public static final String STYLE_SHEET_KEY = "html.styleSheet";
+
     private UIDefaults defaults;
 
     @Override
@@ -244,7 +246,20 @@ public class StyleSheetInitTask implements DefaultsInitTask {
         if (custom.getStyleNames().hasMoreElements()) {
             styleSheet.addStyleSheet(custom);
         }
-        new HTMLEditorKit().setStyleSheet(styleSheet);
+        defaults.put(STYLE_SHEET_KEY, styleSheet);
+    }
+
+    /**
+     * Installs the style sheet created by this task as the default style sheet of
+     * {@link HTMLEditorKit}.
+     *
+     * @param defaults the defaults containing the style sheet.
+     */
+    public static void installStyleSheet(final UIDefaults defaults) {
+        Object styleSheet = defaults.get(STYLE_SHEET_KEY);
+        if (styleSheet instanceof StyleSheet) {
+            new HTMLEditorKit().setStyleSheet((StyleSheet) styleSheet);
+        }
     }
 
     protected String hex(final String key) {
@@ -261,7 +276,7 @@ public class StyleSheetInitTask implements DefaultsInitTask {
     }
 
     @Override
-    public boolean onlyDuringInstallation() {
+    public boolean canBePrewarmed() {
         return true;
     }
 }
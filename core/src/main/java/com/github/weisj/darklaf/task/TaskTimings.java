@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.task;
+
+import java.util.Properties;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.parser.Parser;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.util.timing.Timing;
+import com.github.weisj.darklaf.util.timing.TimingRecorder;
+
+/**
+ * Runs tasks while measuring their duration, the number of keys afterwards and the number of parse
+ * warnings emitted by the task. Warnings emitted concurrently on other threads aren't counted.
+ *
+ * @author Jannis Weis
+ * @see TimingRecorder
+ */
+public final class TaskTimings {
+
+    private TaskTimings() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static void run(final DefaultsInitTask task, final Theme currentTheme, final UIDefaults defaults) {
+        TimingRecorder.Measurement measurement = TimingRecorder.start(Timing.Kind.INIT_TASK, getName(task));
+        int warningCount = Parser.getWarningCount();
+        try {
+            task.run(currentTheme, defaults);
+        } finally {
+            measurement.setKeyCount(defaults.size())
+                    .setWarningCount(Parser.getWarningCount() - warningCount)
+                    .end();
+        }
+    }
+
+    public static void run(final DefaultsAdjustmentTask task, final Theme currentTheme,
+            final Properties properties) {
+        TimingRecorder.Measurement measurement = TimingRecorder.start(Timing.Kind.ADJUSTMENT_TASK, getName(task));
+        int warningCount = Parser.getWarningCount();
+        try {
+            task.run(currentTheme, properties);
+        } finally {
+            measurement.setKeyCount(properties.size())
+                    .setWarningCount(Parser.getWarningCount() - warningCount)
+                    .end();
+        }
+    }
+
+    private static String getName(final Object task) {
+        String name = task.getClass().getSimpleName();
+        return name.isEmpty() ? task.getClass().getName() : name;
+    }
+}
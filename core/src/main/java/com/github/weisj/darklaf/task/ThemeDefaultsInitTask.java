@@ -22,28 +22,36 @@
 package com.github.weisj.darklaf.task;
 
 import java.awt.*;
-import java.util.HashMap;
-import java.util.Objects;
-import java.util.Properties;
+import java.util.*;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.swing.*;
 
 import com.github.weisj.darklaf.DarkLaf;
 import com.github.weisj.darklaf.PropertyLoader;
+import com.github.weisj.darklaf.parser.ParseResult;
+import com.github.weisj.darklaf.parser.Parser;
 import com.github.weisj.darklaf.platform.DecorationsHandler;
 import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.util.DarkUIUtil;
 import com.github.weisj.darklaf.util.PropertyUtil;
 import com.github.weisj.darklaf.util.SystemInfo;
+import com.github.weisj.darklaf.util.timing.Timing;
+import com.github.weisj.darklaf.util.timing.TimingRecorder;
 
 public class ThemeDefaultsInitTask implements DefaultsInitTask {
 
-    private static final String GLOBAL_PREFIX = "global.";
+    public static final String PARALLEL_LOADING_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "parallelPropertyLoading";
+
+    static final String GLOBAL_PREFIX = "global.";
     private static final String MAC_OS_MENU_BAR_KEY = "apple.laf.useScreenMenuBar";
     private static final String[] UI_PROPERTIES = new String[] {"borders", "button", "cell", "checkBox", "colorChooser",
             "comboBox", "fileChooser", "tristate", "internalFrame", "label", "list", "menu", "menuBar", "menuItem",
             "numberingPane", "optionPane", "panel", "popupMenu", "progressBar", "radioButton", "rootPane", "scrollBar",
             "scrollPane", "separator", "slider", "spinner", "splitPane", "statusBar", "tabbedPane", "tabFrame", "table",
             "taskPane", "text", "toggleButton", "toolBar", "toolTip", "tree", "misc"};
+    private static final String UI_PROPERTY_PATH = "properties/ui/";
     private static final String[] ICON_PROPERTIES =
             new String[] {"checkBox", "radioButton", "slider", "files", "frame"};
     private static final String ACCENT_COLOR_KEY = "effectiveAccentColor";
@@ -63,6 +71,62 @@ public class ThemeDefaultsInitTask implements DefaultsInitTask {
 
     private void loadThemeDefaults(final Theme currentTheme, final UIDefaults defaults) {
         Properties uiProps = new Properties();
+
+        ThemeSnapshot snapshot = ThemeSnapshot.forTheme(currentTheme);
+        AccentColorPlan accentColorPlan = null;
+        Map<Object, Object> accentInputValues = null;
+        if (snapshot == null) {
+            loadThemeProperties(currentTheme, defaults, uiProps);
+            accentColorPlan = AccentColorPlan.forTheme(currentTheme);
+            accentInputValues = accentColorPlan.getInputValues(uiProps);
+            adjustAccentColors(currentTheme, uiProps);
+        }
+
+        /*
+         * Everything loaded from here on may depend on the accent colors. Recording the declarations
+         * allows to update the dependent values if the accent colors change.
+         */
+        Map<Object, Object> previousDeclarations = PropertyLoader.startRecording();
+        Map<Object, Object> declarations;
+        try {
+            if (snapshot != null) {
+                snapshot.apply(ThemeSnapshot.Stage.GLOBALS, uiProps, defaults);
+                installGlobals(uiProps, defaults);
+                snapshot.apply(ThemeSnapshot.Stage.COMPONENTS, uiProps, defaults);
+            } else {
+                initGlobals(currentTheme, defaults, uiProps);
+                installGlobals(uiProps, defaults);
+                loadComponentProperties(currentTheme, defaults, uiProps);
+            }
+
+            initPlatformProperties(currentTheme, defaults, uiProps);
+
+            DecorationsHandler.getSharedInstance().loadDecorationProperties(uiProps, defaults);
+            adjustPlatformSpecifics(uiProps);
+        } finally {
+            declarations = PropertyLoader.stopRecording(previousDeclarations);
+        }
+
+        initAccentProperties(currentTheme, uiProps, uiProps);
+
+        defaults.putAll(uiProps);
+        AccentColorPlan.Binding binding = accentColorPlan != null
+                ? new AccentColorPlan.Binding(accentColorPlan, currentTheme, accentInputValues, declarations, uiProps)
+                : snapshot.createAccentBinding(currentTheme, declarations, uiProps);
+        if (binding != null) defaults.put(AccentColorPlan.Binding.KEY, binding);
+    }
+
+    /*
+     * Loads the theme defaults and global properties. Everything done in here (together with
+     * #loadComponentProperties) only depends on the theme and can be replaced by a ThemeSnapshot.
+     */
+    void loadGlobalProperties(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
+        loadThemeProperties(currentTheme, defaults, uiProps);
+        adjustAccentColors(currentTheme, uiProps);
+        initGlobals(currentTheme, defaults, uiProps);
+    }
+
+    void loadThemeProperties(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
         currentTheme.loadDefaults(uiProps, defaults);
 
         backupAccentColors(uiProps);
@@ -71,25 +135,20 @@ public class ThemeDefaultsInitTask implements DefaultsInitTask {
          * User preferences need to be applied here so changes are applied to all components that use the
          * property.
          */
-        userPreferenceAdjustment.run(currentTheme, uiProps);
+        TaskTimings.run(userPreferenceAdjustment, currentTheme, uiProps);
+    }
 
-        /*
-         * Adjust the accent/selection colors.
-         */
-        accentColorAdjustment.run(currentTheme, uiProps);
-        foregroundGeneration.run(currentTheme, uiProps);
+    /*
+     * Adjust the accent/selection colors.
+     */
+    void adjustAccentColors(final Theme currentTheme, final Properties uiProps) {
+        TaskTimings.run(accentColorAdjustment, currentTheme, uiProps);
+        TaskTimings.run(foregroundGeneration, currentTheme, uiProps);
+    }
 
-        initGlobals(currentTheme, defaults, uiProps);
+    void loadComponentProperties(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
         initUIProperties(currentTheme, defaults, uiProps);
         initIconTheme(currentTheme, defaults, uiProps);
-        initPlatformProperties(currentTheme, defaults, uiProps);
-
-        DecorationsHandler.getSharedInstance().loadDecorationProperties(uiProps, defaults);
-        adjustPlatformSpecifics(uiProps);
-
-        initAccentProperties(currentTheme, uiProps);
-
-        defaults.putAll(uiProps);
     }
 
     private void backupAccentColors(final Properties uiProps) {
@@ -99,45 +158,63 @@ public class ThemeDefaultsInitTask implements DefaultsInitTask {
                 uiProps.get(SELECTION_COLOR_SOURCE_KEY), SELECTION_COLOR_SOURCE_KEY));
     }
 
-    private void initAccentProperties(final Theme currentTheme, final Properties uiProps) {
+    static void initAccentProperties(final Theme currentTheme, final Map<Object, Object> values,
+            final Map<Object, Object> target) {
         Color accentColor = currentTheme.getAccentColorRule().getAccentColor();
         Color selectionColor = currentTheme.getAccentColorRule().getSelectionColor();
-        uiProps.put(ACCENT_COLOR_KEY, accentColor != null ? accentColor : uiProps.get(ACCENT_COLOR_BACKUP_KEY));
-        uiProps.put(SELECTION_COLOR_KEY,
-                selectionColor != null ? selectionColor : uiProps.get(SELECTION_COLOR_BACKUP_KEY));
+        target.put(ACCENT_COLOR_KEY, accentColor != null ? accentColor : values.get(ACCENT_COLOR_BACKUP_KEY));
+        target.put(SELECTION_COLOR_KEY,
+                selectionColor != null ? selectionColor : values.get(SELECTION_COLOR_BACKUP_KEY));
     }
 
-    private void initGlobals(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
+    void initGlobals(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
         PropertyLoader.putProperties(PropertyLoader.loadProperties(DarkLaf.class, "globals", "properties/"), uiProps,
                 defaults);
 
         currentTheme.customizeGlobals(uiProps, defaults);
-        installGlobals(uiProps, defaults);
     }
 
-    private void installGlobals(final Properties uiProps, final UIDefaults defaults) {
-        final HashMap<String, Object> globalSettings = new HashMap<>();
-        for (final Object key : uiProps.keySet()) {
-            if (key instanceof String && ((String) key).startsWith(GLOBAL_PREFIX)) {
-                globalSettings.put(((String) key).substring(GLOBAL_PREFIX.length()), uiProps.get(key));
+    void installGlobals(final Properties uiProps, final UIDefaults defaults) {
+        KeySuffixIndex index = KeySuffixIndex.of(defaults);
+        for (final Map.Entry<Object, Object> entry : uiProps.entrySet()) {
+            Object key = entry.getKey();
+            if (!(key instanceof String) || !((String) key).startsWith(GLOBAL_PREFIX)) continue;
+            String globalKey = ((String) key).substring(GLOBAL_PREFIX.length());
+            for (Object target : index.getKeys(globalKey)) {
+                if (defaults.containsKey(target)) defaults.put(target, entry.getValue());
             }
         }
-        PropertyLoader.replaceProperties(defaults,
-                e -> e.getKey() instanceof String && ((String) e.getKey()).contains("."), e -> {
-                    final String s = (String) e.getKey();
-                    final String globalKey = s.substring(s.lastIndexOf('.') + 1);
-                    return globalSettings.get(globalKey);
-                });
     }
 
     private void initUIProperties(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
-        for (String property : UI_PROPERTIES) {
-            PropertyLoader.putProperties(PropertyLoader.loadProperties(DarkLaf.class, property, "properties/ui/"),
-                    uiProps, defaults);
+        if (isParallelLoadingEnabled()) {
+            /*
+             * Reading the files and parsing values without references can be done independently for each
+             * file. The results are put into the properties in the same order as if loaded sequentially.
+             */
+            List<Timing> timings = TimingRecorder.getRecording();
+            List<ParsedProperties> parsedProperties = Arrays.stream(UI_PROPERTIES).parallel()
+                    .map(name -> ParsedProperties.load(name, timings))
+                    .collect(Collectors.toList());
+            for (ParsedProperties parsed : parsedProperties) {
+                // Warnings of the files parsed on other threads are counted as warnings of this task.
+                if (parsed.parsingThread != Thread.currentThread()) Parser.addWarningCount(parsed.warningCount);
+                PropertyLoader.putProperties(parsed.properties, parsed.properties.stringPropertyNames(), uiProps,
+                        defaults, DarkUIUtil.ICON_LOADER, parsed.values);
+            }
+        } else {
+            for (String property : UI_PROPERTIES) {
+                PropertyLoader.putProperties(PropertyLoader.loadProperties(DarkLaf.class, property, UI_PROPERTY_PATH),
+                        uiProps, defaults);
+            }
         }
         currentTheme.customizeUIProperties(uiProps, defaults);
     }
 
+    private static boolean isParallelLoadingEnabled() {
+        return PropertyUtil.getSystemFlag(PARALLEL_LOADING_FLAG) && Runtime.getRuntime().availableProcessors() > 1;
+    }
+
     private void initIconTheme(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
         currentTheme.loadIconTheme(uiProps, defaults);
         for (String property : ICON_PROPERTIES) {
@@ -163,4 +240,34 @@ public class ThemeDefaultsInitTask implements DefaultsInitTask {
             uiProps.remove("MenuBarUI");
         }
     }
+
+    @Override
+    public boolean canBePrewarmed() {
+        return true;
+    }
+
+    private static final class ParsedProperties {
+
+        private final Properties properties;
+        private final Map<String, ParseResult> values;
+        private final Thread parsingThread;
+        private final int warningCount;
+
+        private ParsedProperties(final Properties properties) {
+            parsingThread = Thread.currentThread();
+            int warnings = Parser.getWarningCount();
+            this.properties = properties;
+            this.values = PropertyLoader.parseIndependentProperties(properties);
+            this.warningCount = Parser.getWarningCount() - warnings;
+        }
+
+        private static ParsedProperties load(final String name, final List<Timing> timings) {
+            List<Timing> previousTimings = TimingRecorder.setRecording(timings);
+            try {
+                return new ParsedProperties(PropertyLoader.loadProperties(DarkLaf.class, name, UI_PROPERTY_PATH));
+            } finally {
+                TimingRecorder.setRecording(previousTimings);
+            }
+        }
+    }
 }
@@ -0,0 +1,409 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.task;
+
+import java.awt.*;
+import java.io.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.*;
+import javax.swing.plaf.DimensionUIResource;
+import javax.swing.plaf.InsetsUIResource;
+
+import com.github.weisj.darklaf.DarkLaf;
+import com.github.weisj.darklaf.LafManager;
+import com.github.weisj.darklaf.PropertyLoader;
+import com.github.weisj.darklaf.parser.Parser;
+import com.github.weisj.darklaf.parser.ValueInterner;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.theme.ThemeDelegate;
+import com.github.weisj.darklaf.theme.info.AccentColorRule;
+import com.github.weisj.darklaf.theme.laf.RenamedTheme;
+import com.github.weisj.darklaf.uiresource.DarkColorUIResource;
+import com.github.weisj.darklaf.util.DarkUIUtil;
+import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.PropertyUtil;
+
+/**
+ * Pre resolved properties of a bundled theme. Snapshots are created at build time by
+ * {@link ThemeSnapshotCompiler} and replace the loading and parsing of the theme, global, ui and
+ * icon properties done by {@link ThemeDefaultsInitTask}.
+ *
+ * <p>
+ * Values which can't be stored in binary form (e.g. icons, fonts or lazy values) or which depend on
+ * the defaults of the base look and feel are stored as their declaration and are parsed when the
+ * snapshot is applied.
+ *
+ * <p>
+ * Snapshots also contain what is needed to change the accent colors of the loaded defaults (see
+ * {@link AccentColorPlan.Binding}): The values the accent color mappings read and the declarations of
+ * all properties loaded after the accent colors have been applied.
+ *
+ * @author Jannis Weis
+ */
+public final class ThemeSnapshot {
+
+    public static final String SNAPSHOT_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "themeSnapshots";
+
+    private static final Logger LOGGER = LogUtil.getLogger(ThemeSnapshot.class);
+    private static final String SNAPSHOT_PATH = "snapshots/";
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    static final int MAGIC = 0x444C5453;
+    static final int VERSION = 2;
+
+    static final byte TAG_COLOR = 0;
+    static final byte TAG_INTEGER = 1;
+    static final byte TAG_BOOLEAN = 2;
+    static final byte TAG_STRING = 3;
+    static final byte TAG_INSETS = 4;
+    static final byte TAG_DIMENSION = 5;
+    static final byte TAG_DECLARATION = 6;
+    static final byte TAG_REMOVE_PROPERTY = 7;
+    static final byte TAG_REMOVE_DEFAULT = 8;
+
+    private static final ThemeSnapshot NO_SNAPSHOT = new ThemeSnapshot(null, Collections.emptyMap(), null);
+    private static final Map<Class<? extends Theme>, ThemeSnapshot> snapshotCache = new ConcurrentHashMap<>();
+
+    private final String themeClassName;
+    private final Map<Stage, List<Entry>> entries;
+    private final List<Entry> accentBindingEntries;
+
+    ThemeSnapshot(final String themeClassName, final Map<Stage, List<Entry>> entries,
+            final List<Entry> accentBindingEntries) {
+        this.themeClassName = themeClassName;
+        this.entries = entries;
+        this.accentBindingEntries = accentBindingEntries;
+    }
+
+    /**
+     * The stages of {@link ThemeDefaultsInitTask} covered by a snapshot.
+     */
+    public enum Stage {
+        /*
+         * Theme defaults and global properties. Applied before the globals are installed.
+         */
+        GLOBALS,
+        /*
+         * Component and icon properties.
+         */
+        COMPONENTS
+    }
+
+    /**
+     * Returns whether snapshots are used when installing themes. Snapshots can be disabled by setting
+     * the system property {@link #SNAPSHOT_FLAG} to false.
+     *
+     * @return true if snapshots are enabled.
+     */
+    public static boolean isEnabled() {
+        return PropertyUtil.getSystemFlag(SNAPSHOT_FLAG);
+    }
+
+    /**
+     * Get the snapshot for the given theme. A snapshot is only returned if the theme is one of the
+     * bundled themes and the installation of the theme isn't affected by any user customizations.
+     *
+     * @param theme the theme.
+     * @return the snapshot or null if the theme has to be loaded from its properties.
+     */
+    public static ThemeSnapshot forTheme(final Theme theme) {
+        if (!isEnabled() || !isApplicable(theme)) return null;
+        Theme baseTheme = unwrap(theme);
+        ThemeSnapshot snapshot = snapshotCache.computeIfAbsent(baseTheme.getThemeClass(),
+                c -> load(baseTheme.getPrefix(), c));
+        return snapshot != NO_SNAPSHOT ? snapshot : null;
+    }
+
+    static boolean isApplicable(final Theme theme) {
+        if (theme == null || Parser.isDebugMode()) return false;
+        if (!LafManager.getUserDefaultsAdjustmentTasks().isEmpty()) return false;
+        AccentColorRule accentColorRule = theme.getAccentColorRule();
+        if (accentColorRule.getAccentColor() != null && theme.supportsCustomAccentColor()) return false;
+        if (accentColorRule.getSelectionColor() != null && theme.supportsCustomSelectionColor()) return false;
+        return isUncustomized(theme);
+    }
+
+    /*
+     * Returns whether the properties of the theme are loaded exactly as the ones of its theme class.
+     */
+    static boolean isUncustomized(final Theme theme) {
+        Theme t = theme;
+        while (t instanceof ThemeDelegate) {
+            // Subclasses of ThemeDelegate may customize the properties.
+            if (t.getClass() != ThemeDelegate.class && t.getClass() != RenamedTheme.class) return false;
+            t = ((ThemeDelegate) t).getDelegate();
+        }
+        // Subclasses of the bundled themes may customize the properties.
+        return t.getClass() == t.getThemeClass();
+    }
+
+    private static Theme unwrap(final Theme theme) {
+        Theme t = theme;
+        while (t instanceof ThemeDelegate) {
+            t = ((ThemeDelegate) t).getDelegate();
+        }
+        return t;
+    }
+
+    static String getResourceName(final String themePrefix) {
+        return SNAPSHOT_PATH + themePrefix + SNAPSHOT_EXTENSION;
+    }
+
+    private static ThemeSnapshot load(final String themePrefix, final Class<? extends Theme> themeClass) {
+        String name = getResourceName(themePrefix);
+        try (InputStream stream = ThemeSnapshot.class.getResourceAsStream(name)) {
+            if (stream == null) {
+                LOGGER.fine(() -> "No snapshot available for theme " + themeClass.getName());
+                return NO_SNAPSHOT;
+            }
+            ThemeSnapshot snapshot = read(stream);
+            if (!themeClass.getName().equals(snapshot.themeClassName)) {
+                LOGGER.warning("Snapshot " + name + " was created for " + snapshot.themeClassName
+                        + " but is requested for " + themeClass.getName());
+                return NO_SNAPSHOT;
+            }
+            return snapshot;
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not read snapshot " + name + ". " + e.getMessage(), e);
+            return NO_SNAPSHOT;
+        }
+    }
+
+    /**
+     * Apply the values of the given stage.
+     *
+     * @param stage the stage.
+     * @param properties the properties to put the values into.
+     * @param currentDefaults the current ui defaults.
+     */
+    public void apply(final Stage stage, final Properties properties, final UIDefaults currentDefaults) {
+        List<Entry> stageEntries = entries.getOrDefault(stage, Collections.emptyList());
+        Map<Object, Object> declarations = new HashMap<>();
+        Set<String> declarationKeys = new LinkedHashSet<>();
+        for (Entry entry : stageEntries) {
+            switch (entry.tag) {
+                case TAG_DECLARATION:
+                    declarations.put(entry.key, entry.value);
+                    declarationKeys.add(entry.key);
+                    break;
+                case TAG_REMOVE_PROPERTY:
+                    properties.remove(entry.key);
+                    break;
+                case TAG_REMOVE_DEFAULT:
+                    currentDefaults.remove(entry.key);
+                    break;
+                default:
+                    properties.put(entry.key, entry.createValue());
+            }
+        }
+        if (!declarationKeys.isEmpty()) {
+            // Declarations are ordered such that referenced declarations are parsed first.
+            PropertyLoader.putProperties(declarations, declarationKeys, properties, currentDefaults,
+                    DarkUIUtil.ICON_LOADER);
+        }
+        LOGGER.finer(() -> "Applied " + stageEntries.size() + " snapshot entries of stage " + stage
+                + " for theme " + themeClassName);
+    }
+
+    /**
+     * Creates the binding of the accent colors for the defaults loaded from this snapshot.
+     *
+     * @param theme the theme.
+     * @param recordedDeclarations the declarations recorded while the snapshot was applied.
+     * @param values the loaded properties.
+     * @return the binding or null if the snapshot doesn't support changing the accent colors.
+     */
+    AccentColorPlan.Binding createAccentBinding(final Theme theme, final Map<Object, Object> recordedDeclarations,
+            final Map<Object, Object> values) {
+        if (accentBindingEntries == null) return null;
+        Map<Object, Object> inputValues = new HashMap<>();
+        Map<Object, Object> declarations = new LinkedHashMap<>();
+        for (Entry entry : accentBindingEntries) {
+            if (entry.tag == TAG_DECLARATION) {
+                declarations.put(entry.key, entry.value);
+            } else {
+                inputValues.put(entry.key, entry.createValue());
+            }
+        }
+        declarations.putAll(recordedDeclarations);
+        return new AccentColorPlan.Binding(AccentColorPlan.forTheme(theme), theme, inputValues, declarations,
+                values);
+    }
+
+    static ThemeSnapshot read(final InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC) throw new IOException("Not a theme snapshot");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+        String themeClassName = in.readUTF();
+        Map<Stage, List<Entry>> entries = new EnumMap<>(Stage.class);
+        int stageCount = in.readInt();
+        for (int i = 0; i < stageCount; i++) {
+            Stage stage = Stage.values()[in.readByte()];
+            int entryCount = in.readInt();
+            List<Entry> stageEntries = new ArrayList<>(entryCount);
+            for (int j = 0; j < entryCount; j++) {
+                stageEntries.add(Entry.read(in));
+            }
+            entries.put(stage, stageEntries);
+        }
+        List<Entry> accentBindingEntries = null;
+        int accentBindingCount = in.readInt();
+        if (accentBindingCount >= 0) {
+            accentBindingEntries = new ArrayList<>(accentBindingCount);
+            for (int i = 0; i < accentBindingCount; i++) {
+                accentBindingEntries.add(Entry.read(in));
+            }
+        }
+        return new ThemeSnapshot(themeClassName, entries, accentBindingEntries);
+    }
+
+    void write(final OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(themeClassName);
+        out.writeInt(entries.size());
+        for (Map.Entry<Stage, List<Entry>> stageEntries : entries.entrySet()) {
+            out.writeByte(stageEntries.getKey().ordinal());
+            out.writeInt(stageEntries.getValue().size());
+            for (Entry entry : stageEntries.getValue()) {
+                entry.write(out);
+            }
+        }
+        if (accentBindingEntries != null) {
+            out.writeInt(accentBindingEntries.size());
+            for (Entry entry : accentBindingEntries) {
+                entry.write(out);
+            }
+        } else {
+            out.writeInt(-1);
+        }
+        out.flush();
+    }
+
+    Map<Stage, List<Entry>> getEntries() {
+        return entries;
+    }
+
+    static final class Entry {
+        final byte tag;
+        final String key;
+        final Object value;
+
+        Entry(final byte tag, final String key, final Object value) {
+            this.tag = tag;
+            this.key = key;
+            this.value = value;
+        }
+
+        /*
+         * Values are shared with equal values of other keys and themes the same way as parsed values.
+         * Mutable values are copied such that every key gets its own instance.
+         */
+        private Object createValue() {
+            switch (tag) {
+                case TAG_INSETS:
+                    Insets insets = (Insets) value;
+                    return new InsetsUIResource(insets.top, insets.left, insets.bottom, insets.right);
+                case TAG_DIMENSION:
+                    Dimension dimension = (Dimension) value;
+                    return new DimensionUIResource(dimension.width, dimension.height);
+                default:
+                    return ValueInterner.intern(value);
+            }
+        }
+
+        private static Entry read(final DataInputStream in) throws IOException {
+            byte tag = in.readByte();
+            String key = in.readUTF();
+            Object value;
+            switch (tag) {
+                case TAG_COLOR:
+                    value = new DarkColorUIResource(new Color(in.readInt(), true));
+                    break;
+                case TAG_INTEGER:
+                    value = in.readInt();
+                    break;
+                case TAG_BOOLEAN:
+                    value = in.readBoolean();
+                    break;
+                case TAG_STRING:
+                case TAG_DECLARATION:
+                    value = in.readUTF();
+                    break;
+                case TAG_INSETS:
+                    value = new Insets(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                    break;
+                case TAG_DIMENSION:
+                    value = new Dimension(in.readInt(), in.readInt());
+                    break;
+                case TAG_REMOVE_PROPERTY:
+                case TAG_REMOVE_DEFAULT:
+                    value = null;
+                    break;
+                default:
+                    throw new IOException("Unknown entry tag " + tag + " for key " + key);
+            }
+            return new Entry(tag, key, value);
+        }
+
+        private void write(final DataOutputStream out) throws IOException {
+            out.writeByte(tag);
+            out.writeUTF(key);
+            switch (tag) {
+                case TAG_COLOR:
+                    out.writeInt(((Color) value).getRGB());
+                    break;
+                case TAG_INTEGER:
+                    out.writeInt((Integer) value);
+                    break;
+                case TAG_BOOLEAN:
+                    out.writeBoolean((Boolean) value);
+                    break;
+                case TAG_STRING:
+                case TAG_DECLARATION:
+                    out.writeUTF((String) value);
+                    break;
+                case TAG_INSETS:
+                    Insets insets = (Insets) value;
+                    out.writeInt(insets.top);
+                    out.writeInt(insets.left);
+                    out.writeInt(insets.bottom);
+                    out.writeInt(insets.right);
+                    break;
+                case TAG_DIMENSION:
+                    Dimension dimension = (Dimension) value;
+                    out.writeInt(dimension.width);
+                    out.writeInt(dimension.height);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
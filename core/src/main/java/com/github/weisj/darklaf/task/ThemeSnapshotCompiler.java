@@ -0,0 +1,371 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.task;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.swing.*;
+import javax.swing.plaf.DimensionUIResource;
+import javax.swing.plaf.InsetsUIResource;
+import javax.swing.plaf.metal.MetalLookAndFeel;
+
+import com.github.weisj.darklaf.PropertyLoader;
+import com.github.weisj.darklaf.parser.ParseResult;
+import com.github.weisj.darklaf.parser.Parser;
+import com.github.weisj.darklaf.theme.*;
+import com.github.weisj.darklaf.uiresource.DarkColorUIResource;
+
+/**
+ * Creates the {@link ThemeSnapshot}s of the bundled themes. This is run at build time.
+ *
+ * <p>
+ * The properties are resolved in debug mode of the {@link Parser} to retain the declarations of
+ * the values. Values are stored resolved if they are of a simple type and don't depend on the
+ * defaults of the base look and feel. All other values are stored as their declaration.
+ *
+ * @author Jannis Weis
+ */
+public final class ThemeSnapshotCompiler {
+
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("%([\\w.]+)");
+    private static final String FALLBACK_PREFIX = "?:";
+
+    private final ThemeDefaultsInitTask task = new ThemeDefaultsInitTask();
+
+    private ThemeSnapshotCompiler() {}
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Expected the output directory as the only argument.");
+        }
+        File outputDirectory = new File(args[0]);
+        ThemeSnapshotCompiler compiler = new ThemeSnapshotCompiler();
+        Theme[] themes = new Theme[] {
+                new DarculaTheme(),
+                new IntelliJTheme(),
+                new OneDarkTheme(),
+                new SolarizedDarkTheme(),
+                new SolarizedLightTheme(),
+                new HighContrastDarkTheme(),
+                new HighContrastLightTheme()};
+        for (Theme theme : themes) {
+            ThemeSnapshot snapshot = compiler.compile(theme);
+            compiler.verify(theme, snapshot);
+            File file = new File(outputDirectory, ThemeSnapshot.getResourceName(theme.getPrefix()));
+            Files.createDirectories(file.getParentFile().toPath());
+            try (OutputStream out = Files.newOutputStream(file.toPath())) {
+                snapshot.write(out);
+            }
+            System.out.println("Created snapshot for " + theme.getName() + " (" + file.length() + " bytes)");
+        }
+    }
+
+    ThemeSnapshot compile(final Theme theme) {
+        RecordingDefaults defaults = new RecordingDefaults(createBaseDefaults(theme));
+        Properties uiProps = new Properties();
+        Map<Object, Object> globalsState;
+        Map<Object, Object> componentsState;
+        List<String> globalsRemovals;
+        List<String> componentsRemovals;
+        Map<Object, Object> accentInputValues;
+        Map<Object, Object> declarations;
+
+        boolean debugMode = Parser.isDebugMode();
+        Parser.setDebugMode(true);
+        try {
+            // Same as ThemeDefaultsInitTask#loadGlobalProperties.
+            task.loadThemeProperties(theme, defaults, uiProps);
+            accentInputValues = AccentColorPlan.forTheme(theme).getInputValues(uiProps);
+            task.adjustAccentColors(theme, uiProps);
+            Map<Object, Object> previousDeclarations = PropertyLoader.startRecording();
+            try {
+                task.initGlobals(theme, defaults, uiProps);
+                globalsState = new HashMap<>(uiProps);
+                globalsRemovals = defaults.takeRemovedKeys();
+
+                task.installGlobals(uiProps, defaults);
+                task.loadComponentProperties(theme, defaults, uiProps);
+                componentsState = new HashMap<>(uiProps);
+                componentsRemovals = defaults.takeRemovedKeys();
+            } finally {
+                declarations = PropertyLoader.stopRecording(previousDeclarations);
+            }
+        } finally {
+            Parser.setDebugMode(debugMode);
+        }
+
+        Set<String> declaredKeys = new HashSet<>();
+        Map<ThemeSnapshot.Stage, List<ThemeSnapshot.Entry>> entries = new EnumMap<>(ThemeSnapshot.Stage.class);
+        entries.put(ThemeSnapshot.Stage.GLOBALS,
+                createEntries(globalsState, Collections.emptyMap(), globalsRemovals, declaredKeys));
+        entries.put(ThemeSnapshot.Stage.COMPONENTS,
+                createEntries(componentsState, globalsState, componentsRemovals, declaredKeys));
+        return new ThemeSnapshot(theme.getThemeClass().getName(), entries,
+                createAccentBindingEntries(theme, accentInputValues, declarations));
+    }
+
+    /*
+     * The values read by the accent color mappings and the declarations of the properties loaded after
+     * the accent colors have been applied. Returns null if one of them can't be stored in a snapshot, in
+     * which case the accent colors of the snapshot can't be changed without loading the theme again.
+     */
+    private static List<ThemeSnapshot.Entry> createAccentBindingEntries(final Theme theme,
+            final Map<Object, Object> inputValues, final Map<Object, Object> declarations) {
+        List<ThemeSnapshot.Entry> entries = new ArrayList<>();
+        List<String> inputKeys = new ArrayList<>();
+        for (Object key : inputValues.keySet()) {
+            inputKeys.add(key.toString());
+        }
+        Collections.sort(inputKeys);
+        for (String key : inputKeys) {
+            Object value = getResult(inputValues.get(key));
+            if (getTag(value) < 0) {
+                System.out.println("Accent colors of " + theme.getName() + " can't be changed using the snapshot."
+                        + " Value of '" + key + "' (" + value + ") can't be stored.");
+                return null;
+            }
+            entries.add(createValueEntry(key, value));
+        }
+        for (Map.Entry<Object, Object> entry : declarations.entrySet()) {
+            if (!(entry.getValue() instanceof String)) {
+                System.out.println("Accent colors of " + theme.getName() + " can't be changed using the snapshot."
+                        + " Declaration of '" + entry.getKey() + "' is no string.");
+                return null;
+            }
+            entries.add(new ThemeSnapshot.Entry(ThemeSnapshot.TAG_DECLARATION, entry.getKey().toString(),
+                    entry.getValue()));
+        }
+        return entries;
+    }
+
+    private List<ThemeSnapshot.Entry> createEntries(final Map<Object, Object> state,
+            final Map<Object, Object> previousState, final List<String> removedDefaults,
+            final Set<String> declaredKeys) {
+        List<String> changedKeys = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : state.entrySet()) {
+            if (!(entry.getKey() instanceof String)) {
+                throw new IllegalStateException("Key '" + entry.getKey() + "' is not a string.");
+            }
+            if (previousState.get(entry.getKey()) != entry.getValue()) {
+                changedKeys.add((String) entry.getKey());
+            }
+        }
+        Collections.sort(changedKeys);
+
+        /*
+         * Values which reference a value that has to be parsed again need to be parsed again as well.
+         */
+        Set<String> stageDeclarations = new HashSet<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (String key : changedKeys) {
+                if (stageDeclarations.contains(key)) continue;
+                if (needsDeclaration(state.get(key), state, declaredKeys)) {
+                    stageDeclarations.add(key);
+                    declaredKeys.add(key);
+                    changed = true;
+                }
+            }
+        }
+
+        List<ThemeSnapshot.Entry> entries = new ArrayList<>();
+        for (String key : removedDefaults) {
+            entries.add(new ThemeSnapshot.Entry(ThemeSnapshot.TAG_REMOVE_DEFAULT, key, null));
+        }
+        for (Object key : previousState.keySet()) {
+            if (!state.containsKey(key)) {
+                entries.add(new ThemeSnapshot.Entry(ThemeSnapshot.TAG_REMOVE_PROPERTY, key.toString(), null));
+            }
+        }
+        for (String key : changedKeys) {
+            if (!stageDeclarations.contains(key)) {
+                entries.add(createValueEntry(key, getResult(state.get(key))));
+            }
+        }
+        Set<String> visited = new HashSet<>();
+        for (String key : changedKeys) {
+            if (stageDeclarations.contains(key)) {
+                addDeclarationEntry(key, state, stageDeclarations, visited, entries);
+            }
+        }
+        return entries;
+    }
+
+    /*
+     * Declarations are added in an order such that referenced declarations are parsed first.
+     */
+    private void addDeclarationEntry(final String key, final Map<Object, Object> state,
+            final Set<String> stageDeclarations, final Set<String> visited, final List<ThemeSnapshot.Entry> entries) {
+        if (!visited.add(key)) return;
+        String declaration = getDeclaration(state.get(key));
+        if (declaration == null) {
+            throw new IllegalStateException("Value of '" + key + "' (" + state.get(key) + ") can't be stored "
+                    + "in a snapshot and has no declaration.");
+        }
+        for (String reference : getReferences(declaration)) {
+            if (stageDeclarations.contains(reference)) {
+                addDeclarationEntry(reference, state, stageDeclarations, visited, entries);
+            }
+        }
+        entries.add(new ThemeSnapshot.Entry(ThemeSnapshot.TAG_DECLARATION, key, declaration));
+    }
+
+    private boolean needsDeclaration(final Object value, final Map<Object, Object> state,
+            final Set<String> declaredKeys) {
+        if (getTag(getResult(value)) < 0) return true;
+        String declaration = getDeclaration(value);
+        if (declaration == null) return false;
+        if (declaration.contains(FALLBACK_PREFIX)) return true;
+        for (String reference : getReferences(declaration)) {
+            // References which aren't part of the properties are resolved from the base look and feel.
+            if (!state.containsKey(reference) || declaredKeys.contains(reference)) return true;
+        }
+        return false;
+    }
+
+    private static List<String> getReferences(final String declaration) {
+        List<String> references = new ArrayList<>();
+        Matcher matcher = REFERENCE_PATTERN.matcher(declaration);
+        while (matcher.find()) {
+            references.add(matcher.group(1));
+        }
+        return references;
+    }
+
+    private static Object getResult(final Object value) {
+        Object result = value;
+        while (result instanceof ParseResult) {
+            result = ((ParseResult) result).result;
+        }
+        return result;
+    }
+
+    private static String getDeclaration(final Object value) {
+        if (value instanceof Parser.DebugParseResult) {
+            return ((Parser.DebugParseResult) value).originalValue;
+        }
+        return null;
+    }
+
+    private static byte getTag(final Object value) {
+        if (value == null) return -1;
+        Class<?> type = value.getClass();
+        if (type == DarkColorUIResource.class) return ThemeSnapshot.TAG_COLOR;
+        if (type == Integer.class) return ThemeSnapshot.TAG_INTEGER;
+        if (type == Boolean.class) return ThemeSnapshot.TAG_BOOLEAN;
+        if (type == String.class) return ThemeSnapshot.TAG_STRING;
+        if (type == InsetsUIResource.class) return ThemeSnapshot.TAG_INSETS;
+        if (type == DimensionUIResource.class) return ThemeSnapshot.TAG_DIMENSION;
+        return -1;
+    }
+
+    private static ThemeSnapshot.Entry createValueEntry(final String key, final Object value) {
+        return new ThemeSnapshot.Entry(getTag(value), key, value);
+    }
+
+    void verify(final Theme theme, final ThemeSnapshot snapshot) {
+        UIDefaults expectedDefaults = createBaseDefaults(theme);
+        Properties expected = new Properties();
+        task.loadGlobalProperties(theme, expectedDefaults, expected);
+        task.installGlobals(expected, expectedDefaults);
+        task.loadComponentProperties(theme, expectedDefaults, expected);
+
+        UIDefaults actualDefaults = createBaseDefaults(theme);
+        Properties actual = new Properties();
+        snapshot.apply(ThemeSnapshot.Stage.GLOBALS, actual, actualDefaults);
+        task.installGlobals(actual, actualDefaults);
+        snapshot.apply(ThemeSnapshot.Stage.COMPONENTS, actual, actualDefaults);
+
+        List<String> errors = new ArrayList<>();
+        compare("property", expected, actual, errors);
+        compare("default", expectedDefaults, actualDefaults, errors);
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Snapshot of " + theme.getName() + " doesn't match the theme:\n"
+                    + String.join("\n", errors));
+        }
+    }
+
+    private static void compare(final String kind, final Map<Object, Object> expected,
+            final Map<Object, Object> actual, final List<String> errors) {
+        Set<Object> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        for (Object key : keys) {
+            Object expectedValue = expected.get(key);
+            Object actualValue = actual.get(key);
+            if (!isEquivalent(expectedValue, actualValue)) {
+                errors.add("Mismatching " + kind + " '" + key + "': expected " + expectedValue
+                        + " but got " + actualValue);
+            }
+        }
+    }
+
+    private static boolean isEquivalent(final Object expected, final Object actual) {
+        if (expected == null || actual == null) return expected == actual;
+        if (expected.getClass() != actual.getClass()) return false;
+        if (expected instanceof Color || expected instanceof Number || expected instanceof Boolean
+                || expected instanceof String || expected instanceof Insets || expected instanceof Dimension
+                || expected instanceof Font) {
+            return expected.equals(actual);
+        }
+        return true;
+    }
+
+    /*
+     * Darklaf uses the metal look and feel as its base on all platforms except macOS.
+     */
+    private static UIDefaults createBaseDefaults(final Theme theme) {
+        UIDefaults defaults = new MetalLookAndFeel().getDefaults();
+        new RemoveUnusedInitTask().run(theme, defaults);
+        return defaults;
+    }
+
+    private static final class RecordingDefaults extends UIDefaults {
+
+        private final List<String> removedKeys = new ArrayList<>();
+
+        private RecordingDefaults(final UIDefaults defaults) {
+            super(defaults.size(), 0.75f);
+            putAll(defaults);
+        }
+
+        @Override
+        public synchronized Object remove(final Object key) {
+            if (key instanceof String) removedKeys.add((String) key);
+            return super.remove(key);
+        }
+
+        private List<String> takeRemovedKeys() {
+            List<String> keys = new ArrayList<>(removedKeys);
+            removedKeys.clear();
+            return keys;
+        }
+    }
+}
@@ -59,6 +59,7 @@ public class UtilityDefaultsInitTask implements DefaultsInitTask {
         IconLoader.updateAwareStyle(Theme.isDark(currentTheme) ? AwareIconStyle.DARK : AwareIconStyle.LIGHT);
         IconLoader.updateThemeStatus(new Object());
         IconLoader.reloadFrameIcons();
+        StyleSheetInitTask.installStyleSheet(defaults);
 
         // Support for external libraries.
         defaults.put(ComponentFactory.COMPONENT_FACTORY_PROVIDER_KEY,
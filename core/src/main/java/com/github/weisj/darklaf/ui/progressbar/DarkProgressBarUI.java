@@ -35,6 +35,7 @@ import javax.swing.plaf.basic.BasicProgressBarUI;
 import com.github.weisj.darklaf.util.DarkUIUtil;
 import com.github.weisj.darklaf.util.PropertyKey;
 import com.github.weisj.darklaf.util.PropertyUtil;
+import com.github.weisj.darklaf.util.graphics.GeometryScratch;
 import com.github.weisj.darklaf.util.graphics.GraphicsContext;
 import com.github.weisj.darklaf.util.graphics.GraphicsUtil;
 
@@ -127,15 +128,20 @@ public class DarkProgressBarUI extends BasicProgressBarUI implements PropertyCha
                 Color[] ca = {startColor, endColor};
                 int idx = 0;
                 int delta = 10;
-                if (orientation == SwingConstants.HORIZONTAL) {
-                    for (float offset = r.x; offset - r.x < r.width; offset += delta) {
-                        g2.setPaint(ca[(getAnimationIndex() + idx++) % 2]);
-                        g2.fill(new Rectangle2D.Float(offset, yOffset, delta, pHeight));
-                    }
-                } else {
-                    for (float offset = r.y; offset - r.y < r.height; offset += delta) {
-                        g2.setPaint(ca[(getAnimationIndex() + idx++) % 2]);
-                        g2.fill(new Rectangle2D.Float(xOffset, offset, delta, pWidth));
+                try (GeometryScratch scratch = GeometryScratch.acquire()) {
+                    Rectangle2D.Float rect = scratch.rectangle(0);
+                    if (orientation == SwingConstants.HORIZONTAL) {
+                        for (float offset = r.x; offset - r.x < r.width; offset += delta) {
+                            g2.setPaint(ca[(getAnimationIndex() + idx++) % 2]);
+                            rect.setRect(offset, yOffset, delta, pHeight);
+                            g2.fill(rect);
+                        }
+                    } else {
+                        for (float offset = r.y; offset - r.y < r.height; offset += delta) {
+                            g2.setPaint(ca[(getAnimationIndex() + idx++) % 2]);
+                            rect.setRect(xOffset, offset, delta, pWidth);
+                            g2.fill(rect);
+                        }
                     }
                 }
             } else {
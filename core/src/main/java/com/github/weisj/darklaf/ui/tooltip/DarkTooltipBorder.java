@@ -42,9 +42,12 @@ public class DarkTooltipBorder implements Border, AlignableTooltipBorder {
     private final DropShadowBorder shadowBorder;
     private final BubbleBorder bubbleBorder;
     private final boolean paintShadow;
+    private final Rectangle shadowClipBounds = new Rectangle();
     private Insets margin;
     private Alignment alignment;
     private boolean showPointer;
+    private Area shadowClipSource;
+    private Area shadowClip;
 
     public DarkTooltipBorder() {
         margin = UIManager.getInsets("ToolTip.borderInsets");
@@ -114,24 +117,39 @@ public class DarkTooltipBorder implements Border, AlignableTooltipBorder {
         }
         Insets ins = shadowBorder.getBorderInsets(c);
         adjustInsets(ins);
-        Area innerArea = bubbleBorder.getBubbleArea(x + ins.left, y + ins.top, width - ins.left - ins.right,
-                height - ins.top - ins.bottom, bubbleBorder.getThickness());
+        int bubbleX = x + ins.left;
+        int bubbleY = y + ins.top;
+        int bubbleWidth = width - ins.left - ins.right;
+        int bubbleHeight = height - ins.top - ins.bottom;
         if (paintShadow) {
+            Area innerArea = bubbleBorder.getCachedBubbleArea(bubbleX, bubbleY, bubbleWidth, bubbleHeight,
+                    bubbleBorder.getThickness());
             paintShadow(c, g, x, y, width, height, innerArea);
         }
-        Area outerArea = bubbleBorder.getBubbleArea(x + ins.left, y + ins.top, width - ins.left - ins.right,
-                height - ins.top - ins.bottom, 0);
-        outerArea.subtract(innerArea);
-        bubbleBorder.paintBorder(g, outerArea);
+        bubbleBorder.paintBorder(g, bubbleBorder.getCachedBorderArea(bubbleX, bubbleY, bubbleWidth, bubbleHeight));
         context.restore();
     }
 
+    /*
+     * The clip only changes if the bubble area does, which is cached by the bubble border.
+     */
+    private Area getShadowClip(final int x, final int y, final int width, final int height,
+            final Area bubbleArea) {
+        Rectangle b = shadowClipBounds;
+        if (shadowClip == null || shadowClipSource != bubbleArea
+                || b.x != x || b.y != y || b.width != width || b.height != height) {
+            shadowClip = new Area(new Rectangle2D.Double(x, y, width, height));
+            shadowClip.subtract(bubbleArea);
+            shadowClipSource = bubbleArea;
+            shadowClipBounds.setBounds(x, y, width, height);
+        }
+        return shadowClip;
+    }
+
     public void paintShadow(final Component c, final Graphics g, final int x, final int y, final int width,
             final int height, final Area bubbleArea) {
         Shape oldClip = g.getClip();
-        Area clip = new Area(new Rectangle2D.Double(x, y, width, height));
-        clip.subtract(bubbleArea);
-        g.setClip(clip);
+        g.setClip(getShadowClip(x, y, width, height, bubbleArea));
         int bw = 1 + bubbleBorder.getThickness();
         shadowBorder.paintBorder(c, g, x + bw, y + bw, width - 2 * bw, height - 2 * bw);
         g.setClip(oldClip);
@@ -95,6 +95,7 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
 
     private int dashLength;
     private int dashGapLength;
+    private BasicStroke[] dashedStrokes;
     private DarkTreeExpansionAnimationListener treeExpansionAnimationListener;
 
     public static ComponentUI createUI(final JComponent c) {
@@ -150,6 +151,7 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
         LookAndFeel.installProperty(tree, JTree.SHOWS_ROOT_HANDLES_PROPERTY, true);
         dashLength = UIManager.getInt("Tree.dash.length");
         dashGapLength = UIManager.getInt("Tree.dash.gaplength");
+        dashedStrokes = null;
     }
 
     protected CellRendererPane createCellRendererPane() {
@@ -503,14 +505,29 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
         Graphics2D g2d = (Graphics2D) g;
         Stroke oldStroke = g2d.getStroke();
 
-        float[] dash = {dashLength, dashGapLength};
-        float phase = y1 % (dashLength + dashGapLength);
-        BasicStroke dashedStroke = new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND, 0, dash, phase);
-        g2d.setStroke(dashedStroke);
+        g2d.setStroke(getDashedStroke(y1));
         g2d.drawLine(x, y1, x, y2);
         g2d.setStroke(oldStroke);
     }
 
+    /*
+     * The strokes only differ in their phase, hence one stroke is created for every possible phase.
+     */
+    private BasicStroke getDashedStroke(final int y) {
+        int period = dashLength + dashGapLength;
+        if (dashedStrokes == null || dashedStrokes.length != period) {
+            dashedStrokes = new BasicStroke[period];
+        }
+        int phase = Math.floorMod(y, period);
+        BasicStroke stroke = dashedStrokes[phase];
+        if (stroke == null) {
+            float[] dash = {dashLength, dashGapLength};
+            stroke = new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND, 0, dash, phase);
+            dashedStrokes[phase] = stroke;
+        }
+        return stroke;
+    }
+
     @Override
     protected void paintHorizontalPartOfLeg(final Graphics g, final Rectangle clipBounds, final Insets insets,
             final Rectangle bounds, final TreePath path, final int row, final boolean isExpanded,
@@ -41,7 +41,6 @@ import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
-import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeListener;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
@@ -94,10 +93,9 @@ import com.github.weisj.darklaf.util.SystemInfo;
  * Also, when calculating the preferred size of {@link JLayer}, it transforms the normally
  * calculated size with the {@link AffineTransform} returned from
  * {@link #getPreferredTransform(Dimension, JLayer)}.
- * <li>This implementation allocates a fresh {@link BufferedImage} the size of the clip area, each
- * time that the {@link #paint(Graphics, JComponent)} method is invoked.
- * <li>Rather than configuring the screen graphics object, the image's graphics object is configured
- * through {@link #configureGraphics(Graphics2D, JLayer)}.
+ * <li>The view is painted directly onto a copy of the graphics object passed to
+ * {@link #paint(Graphics, JComponent)}, which is configured with the transformation through
+ * {@link #configureGraphics(Graphics2D, JLayer)}. No intermediate image is allocated.
  * <li>Regardless of whether or not the view is opaque, a background color is painted. It is
  * obtained from the first component upwards in the hierarchy starting with the view, that is
  * opaque. If an opaque component is not found, the background color of the layer is used. Painting
@@ -440,7 +438,7 @@ public class TransformUI extends MouseEventUI<JComponent> {
      * <p>
      * In all other cases, the super method is invoked.
      * <p>
-     * The {@code g2} argument is a graphics object obtained from a {@link BufferedImage}.
+     * The {@code g2} argument is a copy of the layer's graphics object with the transformation applied.
      *
      * @see #paint(Graphics, JComponent)
      */
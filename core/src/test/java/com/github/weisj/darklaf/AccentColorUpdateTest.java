@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf;
+
+import java.awt.Color;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.UIManager;
+import javax.swing.text.html.HTMLEditorKit;
+import javax.swing.text.html.StyleSheet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.task.StyleSheetInitTask;
+import com.github.weisj.darklaf.theme.IntelliJTheme;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.theme.info.AccentColorRule;
+import com.github.weisj.darklaf.util.timing.Timing;
+
+class AccentColorUpdateTest implements NonThreadSafeTest {
+
+    private static final Color ACCENT_COLOR = new Color(200, 40, 40);
+    private static final Color OTHER_ACCENT_COLOR = new Color(40, 160, 60);
+
+    private final Theme theme = new IntelliJTheme();
+    private final Theme accentTheme = theme.derive(theme.getFontSizeRule(), AccentColorRule.fromColor(ACCENT_COLOR));
+    private final Theme otherAccentTheme =
+            theme.derive(theme.getFontSizeRule(), AccentColorRule.fromColor(OTHER_ACCENT_COLOR));
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled(theme);
+    }
+
+    @AfterEach
+    void cleanup() {
+        System.clearProperty(LafInstaller.LIVE_ACCENT_COLOR_FLAG);
+        TestUtils.runOnSwingThreadNotThrowing(() -> LafManager.install(theme));
+    }
+
+    private static void install(final Theme theme, final boolean liveUpdate) {
+        System.setProperty(LafInstaller.LIVE_ACCENT_COLOR_FLAG, String.valueOf(liveUpdate));
+        TestUtils.runOnSwingThreadNotThrowing(() -> LafManager.install(theme));
+    }
+
+    private static Color getStyleSheetLinkColor() {
+        AtomicReference<Color> color = new AtomicReference<>();
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            StyleSheet styleSheet = (StyleSheet) UIManager.get(StyleSheetInitTask.STYLE_SHEET_KEY);
+            Assertions.assertSame(styleSheet, new HTMLEditorKit().getStyleSheet(),
+                    "Style sheet of the defaults isn't installed");
+            color.set(styleSheet.getForeground(styleSheet.getRule("a")));
+        });
+        return color.get();
+    }
+
+    private static boolean isAccentColorUpdate() {
+        return LafManager.getLastInstallTimings().stream()
+                .anyMatch(t -> t.getKind() == Timing.Kind.ACCENT_COLOR_UPDATE);
+    }
+
+    @Test
+    void testAccentColorUpdatesStyleSheet() {
+        Color defaultHyperlink = UIManager.getColor("hyperlink");
+        Color defaultLinkColor = getStyleSheetLinkColor();
+
+        install(accentTheme, false);
+        Assertions.assertFalse(isAccentColorUpdate());
+        Color expectedHyperlink = UIManager.getColor("hyperlink");
+        Color expectedLinkColor = getStyleSheetLinkColor();
+        Assertions.assertNotEquals(defaultHyperlink, expectedHyperlink, "hyperlink isn't mapped to the accent");
+
+        install(otherAccentTheme, false);
+        Color otherHyperlink = UIManager.getColor("hyperlink");
+        Assertions.assertNotEquals(expectedHyperlink, otherHyperlink);
+
+        // The defaults have been loaded for a different accent color.
+        install(accentTheme, true);
+        Assertions.assertTrue(isAccentColorUpdate(), "Accent colors weren't updated in place");
+        Assertions.assertEquals(accentTheme, LafManager.getInstalledTheme());
+        Assertions.assertEquals(expectedHyperlink, UIManager.getColor("hyperlink"));
+        Assertions.assertEquals(expectedLinkColor, getStyleSheetLinkColor());
+
+        install(theme, true);
+        Assertions.assertTrue(isAccentColorUpdate(), "Accent colors weren't updated in place");
+        Assertions.assertEquals(defaultHyperlink, UIManager.getColor("hyperlink"));
+        Assertions.assertEquals(defaultLinkColor, getStyleSheetLinkColor());
+
+        // The defaults have been loaded without an accent color e.g. from a snapshot.
+        install(theme, false);
+        install(accentTheme, true);
+        Assertions.assertTrue(isAccentColorUpdate(), "Accent colors weren't updated in place");
+        Assertions.assertEquals(expectedHyperlink, UIManager.getColor("hyperlink"));
+        Assertions.assertEquals(expectedLinkColor, getStyleSheetLinkColor());
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf;
+
+import java.awt.Color;
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.UIManager;
+import javax.swing.border.Border;
+import javax.swing.plaf.ColorUIResource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.components.border.MarginBorderWrapper;
+import com.github.weisj.darklaf.task.DefaultsInitTask;
+import com.github.weisj.darklaf.theme.DarculaTheme;
+import com.github.weisj.darklaf.theme.IntelliJTheme;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.ui.text.DarkTextBorder;
+
+class IncrementalUpdateTest implements NonThreadSafeTest {
+
+    private static final String HIGHLIGHT_KEY = "IncrementalUpdateTest.highlight";
+    private static final String BORDER_COLOR_KEY = "TextField.border.enabled";
+
+    private final AtomicReference<Color> highlight = new AtomicReference<>(new ColorUIResource(Color.RED));
+    private final DefaultsInitTask highlightTask = (theme, defaults) -> defaults.put(HIGHLIGHT_KEY, highlight.get());
+    private final AtomicReference<Color> borderColor = new AtomicReference<>();
+    private final DefaultsInitTask borderColorTask = (theme, defaults) -> {
+        if (borderColor.get() != null) defaults.put(BORDER_COLOR_KEY, borderColor.get());
+    };
+    private final AtomicReference<JFrame> frame = new AtomicReference<>();
+
+    @BeforeEach
+    void setup() {
+        System.clearProperty(LafInstaller.INCREMENTAL_UPDATE_FLAG);
+        LafManager.registerInitTask(highlightTask);
+        LafManager.registerInitTask(borderColorTask);
+        install(new IntelliJTheme());
+    }
+
+    @AfterEach
+    void cleanup() {
+        LafManager.removeInitTask(highlightTask);
+        LafManager.removeInitTask(borderColorTask);
+        if (frame.get() != null) {
+            TestUtils.runOnSwingThreadNotThrowing(() -> TestUtils.closeWindow(frame.get()));
+        }
+        install(new IntelliJTheme());
+    }
+
+    private static void install(final Theme theme) {
+        TestUtils.runOnSwingThreadNotThrowing(() -> LafManager.install(theme));
+    }
+
+    /*
+     * Reads a key in updateUI which the plain components don't access.
+     */
+    private static final class HighlightPanel extends JPanel {
+        private Color highlight;
+
+        @Override
+        public void updateUI() {
+            super.updateUI();
+            highlight = UIManager.getColor(HIGHLIGHT_KEY);
+        }
+    }
+
+    private static final class HighlightLabel extends JLabel {
+        private Color highlight;
+
+        @Override
+        public void updateUI() {
+            super.updateUI();
+            highlight = UIManager.getColor(HIGHLIGHT_KEY);
+        }
+    }
+
+    @Test
+    void testChangedColorsReachAllComponents() {
+        AtomicReference<JPanel> panel = new AtomicReference<>();
+        AtomicReference<JLabel> label = new AtomicReference<>();
+        AtomicReference<HighlightLabel> highlightLabel = new AtomicReference<>();
+        AtomicReference<HighlightPanel> highlightPanel = new AtomicReference<>();
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            frame.set(new JFrame());
+            panel.set(new JPanel());
+            label.set(new JLabel("Label"));
+            highlightLabel.set(new HighlightLabel());
+            frame.get().getContentPane().add(panel.get());
+            frame.get().getContentPane().add(label.get());
+            frame.get().getContentPane().add(highlightLabel.get());
+        });
+
+        // None of the components have been updated by the installer yet.
+        install(new DarculaTheme());
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            Assertions.assertEquals(UIManager.getColor("Panel.background"), panel.get().getBackground());
+            Assertions.assertEquals(UIManager.getColor("Label.foreground"), label.get().getForeground());
+            Assertions.assertEquals(Color.RED, highlightLabel.get().highlight);
+        });
+
+        // The panel is created after a plain panel has been updated by the installer but reads keys
+        // plain panels don't access.
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            highlightPanel.set(new HighlightPanel());
+            frame.get().getContentPane().add(highlightPanel.get());
+        });
+        highlight.set(new ColorUIResource(Color.BLUE));
+        install(new DarculaTheme());
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            Assertions.assertEquals(Color.BLUE, UIManager.getColor(HIGHLIGHT_KEY));
+            Assertions.assertEquals(Color.BLUE, highlightLabel.get().highlight, "Updated component is outdated");
+            Assertions.assertEquals(Color.BLUE, highlightPanel.get().highlight, "New component is outdated");
+            Assertions.assertEquals(UIManager.getColor("Panel.background"), panel.get().getBackground());
+            Assertions.assertEquals(UIManager.getColor("Label.foreground"), label.get().getForeground());
+        });
+
+        // All components have been updated by the installer before.
+        install(new IntelliJTheme());
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            Assertions.assertEquals(UIManager.getColor("Panel.background"), panel.get().getBackground());
+            Assertions.assertEquals(UIManager.getColor("Label.foreground"), label.get().getForeground());
+            Assertions.assertEquals(Color.BLUE, highlightPanel.get().highlight);
+        });
+    }
+
+    @Test
+    void testChangedDependenciesOfLazyValuesReachAllComponents() {
+        AtomicReference<JTextField> first = new AtomicReference<>();
+        AtomicReference<JTextField> second = new AtomicReference<>();
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            frame.set(new JFrame());
+            first.set(new JTextField());
+            second.set(new JTextField());
+            frame.get().getContentPane().add(first.get());
+            frame.get().getContentPane().add(second.get());
+        });
+
+        // The lazy border is resolved while the first text field is updated. Only this text field
+        // reads the border colors, the second one only reads the resolved border.
+        borderColor.set(new ColorUIResource(Color.RED));
+        install(new DarculaTheme());
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            Assertions.assertEquals(Color.RED, getBorderColor(first.get()));
+            Assertions.assertEquals(Color.RED, getBorderColor(second.get()));
+        });
+
+        // Only the border colors differ.
+        borderColor.set(new ColorUIResource(Color.BLUE));
+        install(new DarculaTheme());
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            Assertions.assertEquals(Color.BLUE, getBorderColor(first.get()), "First text field is outdated");
+            Assertions.assertEquals(Color.BLUE, getBorderColor(second.get()), "Second text field is outdated");
+        });
+    }
+
+    private static Color getBorderColor(final JTextField textField) {
+        Border border = MarginBorderWrapper.getBorder(textField);
+        Assertions.assertTrue(border instanceof DarkTextBorder, "Unexpected border " + border);
+        try {
+            Field field = DarkTextBorder.class.getDeclaredField("borderColor");
+            field.setAccessible(true);
+            return (Color) field.get(border);
+        } catch (final NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.graphics.Outline;
+import com.github.weisj.darklaf.graphics.PaintUtil;
+import com.github.weisj.darklaf.util.Scale;
+import com.github.weisj.darklaf.util.graphics.GraphicsContext;
+import com.github.weisj.darklaf.util.graphics.GraphicsUtil;
+
+/**
+ * Guards against allocation regressions in the paint paths. Java2D itself allocates while rasterizing
+ * shapes, and how much depends on the runtime and the renderer. Hence the {@link PaintUtil} methods are
+ * compared against a reference implementation, which paints the same shapes the way they were painted
+ * before the geometry was reused, i.e. allocating new shapes on every call.
+ *
+ * @author Jannis Weis
+ */
+class PaintAllocationTest implements NonThreadSafeTest {
+
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 200;
+
+    @BeforeAll
+    static void setup() {
+        TestUtils.ensureLafInstalled();
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean,
+                "Thread allocation counting is not available");
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        Assumptions.assumeTrue(allocationBean.isThreadAllocatedMemorySupported(),
+                "Thread allocation counting is not supported");
+        if (!allocationBean.isThreadAllocatedMemoryEnabled()) {
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return allocationBean;
+    }
+
+    private static long measureAllocationPerFrame(final Consumer<Graphics2D> painter) {
+        com.sun.management.ThreadMXBean bean = getAllocationBean();
+        AtomicLong allocated = new AtomicLong();
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            BufferedImage image = new BufferedImage(120, 40, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            try {
+                for (int i = 0; i < WARMUP_FRAMES; i++) {
+                    painter.accept(g);
+                }
+                long threadId = Thread.currentThread().getId();
+                long before = bean.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < MEASURED_FRAMES; i++) {
+                    painter.accept(g);
+                }
+                allocated.set(bean.getThreadAllocatedBytes(threadId) - before);
+            } finally {
+                g.dispose();
+            }
+        });
+        return allocated.get() / MEASURED_FRAMES;
+    }
+
+    @Test
+    void testPaintUtilAllocation() {
+        boolean sliceCacheEnabled = PaintUtil.isNineSliceCacheEnabled();
+        PaintUtil.setNineSliceCacheEnabled(false);
+        try {
+            assertAllocationReduced("paintFocusBorder", g -> PaintUtil.paintFocusBorder(g, 100, 30, 8, 3),
+                    g -> paintFocusBorderAllocating(g, 100, 30, 8, 3));
+            assertAllocationReduced("paintLineBorder", g -> PaintUtil.paintLineBorder(g, 0, 0, 100, 30, 8),
+                    g -> paintLineBorderAllocating(g, 0, 0, 100, 30, 8));
+            assertAllocationReduced("paintFocusOval", g -> PaintUtil.paintFocusOval(g, 2, 2, 16, 16, 3),
+                    g -> paintFocusOvalAllocating(g, 2, 2, 16, 16, 3));
+        } finally {
+            PaintUtil.setNineSliceCacheEnabled(sliceCacheEnabled);
+        }
+    }
+
+    private void assertAllocationReduced(final String name, final Consumer<Graphics2D> painter,
+            final Consumer<Graphics2D> allocatingPainter) {
+        long allocatingPerCall = measureAllocationPerFrame(allocatingPainter);
+        long perCall = measureAllocationPerFrame(painter);
+        Assertions.assertTrue(perCall < allocatingPerCall, () -> name + " allocated " + perCall
+                + " bytes per call, painting with new shapes allocated " + allocatingPerCall + " bytes per call");
+    }
+
+    private static void paintFocusBorderAllocating(final Graphics2D g, final int width, final int height,
+            final float arc, final float bw) {
+        GraphicsContext config = new GraphicsContext(g);
+        g.setComposite(PaintUtil.getGlowComposite());
+        Outline.focus.setGraphicsColor(g, true);
+        fillOutlineAllocating(g, width, height, arc, bw + PaintUtil.getStrokeWidth(g), false);
+        config.restore();
+    }
+
+    private static void paintLineBorderAllocating(final Graphics2D g, final float x, final float y,
+            final float width, final float height, final int arc) {
+        float lw = PaintUtil.getStrokeWidth(g);
+        g.translate(x, y);
+        fillOutlineAllocating(g, width, height, arc, lw, true);
+        g.translate(-x, -y);
+    }
+
+    private static void fillOutlineAllocating(final Graphics2D g, final float width, final float height,
+            final float arc, final float bw, final boolean inside) {
+        GraphicsContext context = GraphicsUtil.setupStrokePainting(g);
+        Shape outerRect;
+        Shape innerRect;
+        if (Scale.equalWithError(arc, 0)) {
+            outerRect = new Rectangle2D.Float(0, 0, width, height);
+            innerRect = new Rectangle2D.Float(bw, bw, width - 2 * bw, height - 2 * bw);
+        } else {
+            float outerArc = inside ? arc : arc + bw;
+            float innerArc = inside ? arc - bw : arc;
+            outerRect = new RoundRectangle2D.Float(0, 0, width, height, outerArc, outerArc);
+            innerRect = new RoundRectangle2D.Float(bw, bw, width - 2 * bw, height - 2 * bw, innerArc, innerArc);
+        }
+        Path2D path = new Path2D.Float(Path2D.WIND_EVEN_ODD);
+        path.append(outerRect, false);
+        path.append(innerRect, false);
+        g.fill(path);
+        context.restore();
+    }
+
+    private static void paintFocusOvalAllocating(final Graphics2D g, final float x, final float y,
+            final float width, final float height, final float bw) {
+        GraphicsContext config = new GraphicsContext(g);
+        g.setComposite(PaintUtil.getGlowComposite());
+        Outline.focus.setGraphicsColor(g, true);
+        Path2D shape = new Path2D.Float(Path2D.WIND_EVEN_ODD);
+        shape.append(new Ellipse2D.Float(x - bw, y - bw, width + bw * 2, height + bw * 2), false);
+        shape.append(new Ellipse2D.Float(x, y, width, height), false);
+        g.fill(shape);
+        config.restore();
+    }
+}
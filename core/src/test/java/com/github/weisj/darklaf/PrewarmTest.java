@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf;
+
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.swing.UIDefaults;
+import javax.swing.UIManager;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.theme.DarculaTheme;
+import com.github.weisj.darklaf.theme.IntelliJTheme;
+import com.github.weisj.darklaf.theme.OneDarkTheme;
+import com.github.weisj.darklaf.theme.Theme;
+
+class PrewarmTest implements NonThreadSafeTest {
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled(new IntelliJTheme());
+    }
+
+    private static Map<Object, Color> getInstalledColors() {
+        Map<Object, Color> colors = new HashMap<>();
+        UIDefaults defaults = UIManager.getDefaults();
+        for (Object key : defaults.keySet()) {
+            Object value = defaults.get(key);
+            if (value instanceof Color) colors.put(key, (Color) value);
+        }
+        return colors;
+    }
+
+    @Test
+    void testPrewarmedThemeMatchesInstalledTheme() {
+        Theme theme = new DarculaTheme();
+        TestUtils.ensureLafInstalled(theme);
+        Map<Object, Color> expected = getInstalledColors();
+        TestUtils.ensureLafInstalled(new IntelliJTheme());
+
+        LafManager.prewarm(theme).join();
+        Assertions.assertTrue(PrewarmedDefaults.isPrewarmed(theme));
+        TestUtils.ensureLafInstalled(theme);
+        Assertions.assertFalse(PrewarmedDefaults.isPrewarmed(theme), "Prewarmed defaults weren't taken");
+        Assertions.assertEquals(theme, LafManager.getInstalledTheme());
+        Assertions.assertEquals(expected, getInstalledColors());
+    }
+
+    @Test
+    void testOnlyLatestPrewarmedThemeIsKept() {
+        Theme first = new DarculaTheme();
+        Theme second = new OneDarkTheme();
+        LafManager.prewarm(first).join();
+        LafManager.prewarm(second).join();
+        Assertions.assertFalse(PrewarmedDefaults.isPrewarmed(first));
+        Assertions.assertTrue(PrewarmedDefaults.isPrewarmed(second));
+
+        TestUtils.ensureLafInstalled(first);
+        Assertions.assertTrue(PrewarmedDefaults.isPrewarmed(second), "Unrelated prewarmed theme was discarded");
+        TestUtils.ensureLafInstalled(second);
+        Assertions.assertFalse(PrewarmedDefaults.isPrewarmed(second));
+    }
+}
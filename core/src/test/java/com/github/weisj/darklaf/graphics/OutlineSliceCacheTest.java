@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class OutlineSliceCacheTest {
+
+    private static final int WIDTH = 60;
+    private static final int HEIGHT = 24;
+
+    @AfterEach
+    void cleanup() {
+        OutlineSliceCache.clear();
+    }
+
+    @Test
+    void testSlicesMatchOutline() {
+        float[] arcs = {0, 4, 8, 10.5f};
+        float[] borderWidths = {1, 2, 3.5f};
+        double[] scales = {1, 1.5, 2};
+        Color[] colors = {new Color(0x3592C4), new Color(0x803592C4, true)};
+        for (float arc : arcs) {
+            for (float bw : borderWidths) {
+                for (double scale : scales) {
+                    for (Color color : colors) {
+                        assertSlicesMatch(arc, bw, true, scale, color);
+                        assertSlicesMatch(arc, bw, false, scale, color);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRejectsUnalignedOutlines() {
+        BufferedImage image = createImage(2);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.translate(0.5, 0);
+        Assertions.assertFalse(OutlineSliceCache.paint(g, WIDTH, HEIGHT, 8, 2, false));
+        g.dispose();
+
+        g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.RED, WIDTH, 0, Color.BLUE));
+        Assertions.assertFalse(OutlineSliceCache.paint(g, WIDTH, HEIGHT, 8, 2, false));
+        g.dispose();
+
+        g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.rotate(0.1);
+        Assertions.assertFalse(OutlineSliceCache.paint(g, WIDTH, HEIGHT, 8, 2, false));
+        g.dispose();
+    }
+
+    private static void assertSlicesMatch(final float arc, final float bw, final boolean inside,
+            final double scale, final Color color) {
+        String description = "arc=" + arc + ", bw=" + bw + ", inside=" + inside + ", scale=" + scale
+                + ", color=" + Integer.toHexString(color.getRGB());
+
+        BufferedImage expected = createImage(scale);
+        Graphics2D g = createGraphics(expected, scale, color);
+        PaintUtil.fillOutline(g, WIDTH, HEIGHT, arc, bw, inside);
+        g.dispose();
+
+        BufferedImage actual = createImage(scale);
+        g = createGraphics(actual, scale, color);
+        Assertions.assertTrue(OutlineSliceCache.paint(g, WIDTH, HEIGHT, arc, bw, inside), description);
+        g.dispose();
+
+        int[] expectedPixels = ((DataBufferInt) expected.getRaster().getDataBuffer()).getData();
+        int[] actualPixels = ((DataBufferInt) actual.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < expectedPixels.length; i++) {
+            if (expectedPixels[i] != actualPixels[i]) {
+                int x = i % expected.getWidth();
+                int y = i / expected.getWidth();
+                Assertions.fail("Pixel (" + x + "," + y + ") differs for " + description + ": expected "
+                        + Integer.toHexString(expectedPixels[i]) + " but was " + Integer.toHexString(actualPixels[i]));
+            }
+        }
+    }
+
+    private static BufferedImage createImage(final double scale) {
+        return new BufferedImage((int) Math.ceil((WIDTH + 4) * scale), (int) Math.ceil((HEIGHT + 4) * scale),
+                BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    private static Graphics2D createGraphics(final BufferedImage image, final double scale, final Color color) {
+        Graphics2D g = image.createGraphics();
+        g.scale(scale, scale);
+        g.translate(2, 2);
+        g.setColor(color);
+        return g;
+    }
+}
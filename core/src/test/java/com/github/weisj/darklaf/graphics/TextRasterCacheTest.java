@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.NumericShaper;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TextRasterCacheTest {
+
+    private static final Font FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+    private static final FontRenderContext FRC = new FontRenderContext(new AffineTransform(), true, true);
+
+    @AfterEach
+    void cleanup() {
+        TextRasterCache.clear();
+    }
+
+    private static TextRasterCache.Key createKey() {
+        return new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.WHITE, 40, 16, 1, 1, FRC,
+                RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null);
+    }
+
+    @Test
+    void testKeyCoversRenderingInputs() {
+        TextRasterCache.Key key = createKey();
+        Assertions.assertEquals(key, createKey());
+        Assertions.assertEquals(key.hashCode(), createKey().hashCode());
+
+        List<TextRasterCache.Key> variants = Arrays.asList(
+                new TextRasterCache.Key("Texts", -1, FONT, Color.BLACK, Color.WHITE, 40, 16, 1, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", 0, FONT, Color.BLACK, Color.WHITE, 40, 16, 1, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT.deriveFont(Font.BOLD), Color.BLACK, Color.WHITE, 40, 16, 1,
+                        1, FRC, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLUE, Color.WHITE, 40, 16, 1, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.GRAY, 40, 16, 1, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.WHITE, 41, 16, 1, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.WHITE, 40, 17, 1, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.WHITE, 40, 16, 1.25, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.WHITE, 40, 16, 1, 1.25, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.WHITE, 40, 16, 1, 1,
+                        new FontRenderContext(new AffineTransform(), false, true),
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.WHITE, 40, 16, 1, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_ON, 140, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.WHITE, 40, 16, 1, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 100, null),
+                new TextRasterCache.Key("Text", -1, FONT, Color.BLACK, Color.WHITE, 40, 16, 1, 1, FRC,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, 140,
+                        NumericShaper.getShaper(NumericShaper.ARABIC)));
+        for (int i = 0; i < variants.size(); i++) {
+            Assertions.assertNotEquals(key, variants.get(i), "Variant " + i + " is equal to the key");
+        }
+    }
+
+    @Test
+    void testRasterIsShared() {
+        AtomicInteger rendered = new AtomicInteger();
+        BufferedImage raster = TextRasterCache.getRaster(createKey(), () -> render(rendered, 40, 16));
+        Assertions.assertSame(raster, TextRasterCache.getRaster(createKey(), () -> render(rendered, 40, 16)));
+        Assertions.assertEquals(1, rendered.get());
+
+        TextRasterCache.clear();
+        Assertions.assertNotSame(raster, TextRasterCache.getRaster(createKey(), () -> render(rendered, 40, 16)));
+        Assertions.assertEquals(2, rendered.get());
+    }
+
+    @Test
+    void testLargeRasterIsNotCached() {
+        AtomicInteger rendered = new AtomicInteger();
+        TextRasterCache.getRaster(createKey(), () -> render(rendered, 400, 400));
+        TextRasterCache.getRaster(createKey(), () -> render(rendered, 400, 400));
+        Assertions.assertEquals(2, rendered.get());
+    }
+
+    private static BufferedImage render(final AtomicInteger rendered, final int width, final int height) {
+        rendered.incrementAndGet();
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+}
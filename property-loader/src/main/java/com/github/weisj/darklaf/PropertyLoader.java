@@ -35,7 +35,11 @@ import com.github.weisj.darklaf.icons.IconLoader;
 import com.github.weisj.darklaf.parser.ParseResult;
 import com.github.weisj.darklaf.parser.Parser;
 import com.github.weisj.darklaf.parser.ParserContext;
+import com.github.weisj.darklaf.parser.ReferenceGraph;
+import com.github.weisj.darklaf.parser.ValueInterner;
 import com.github.weisj.darklaf.util.*;
+import com.github.weisj.darklaf.util.timing.Timing;
+import com.github.weisj.darklaf.util.timing.TimingRecorder;
 
 /**
  * @author Konstantin Bulenkov
@@ -46,15 +50,18 @@ public final class PropertyLoader {
     private static final IconLoader ICON_LOADER = IconLoader.get(IconLoader.class);
 
     private static final char REFERENCE_PREFIX = '%';
+    private static final ThreadLocal<Map<Object, Object>> recordedDeclarations = new ThreadLocal<>();
 
     public static Properties loadProperties(final Class<?> clazz, final String name, final String path) {
-        final Properties properties = new Properties();
         String p = path + name + ".properties";
+        final Properties properties = new PropertyFile(p);
+        TimingRecorder.Measurement measurement = TimingRecorder.start(Timing.Kind.PROPERTY_FILE, p);
         try (InputStream stream = clazz.getResourceAsStream(p)) {
             properties.load(stream);
         } catch (IOException | NullPointerException e) {
             LOGGER.log(Level.SEVERE, "Could not load " + p + " " + e.getMessage(), e.getStackTrace());
         }
+        measurement.setKeyCount(properties.size()).end();
         return properties;
     }
 
@@ -77,25 +84,143 @@ public final class PropertyLoader {
         putProperties(properties, properties.stringPropertyNames(), defaults, defaults, iconLoader);
     }
 
+    /**
+     * Parses the given properties and puts the results into the accumulator. Properties are resolved
+     * in the order given by their {@link ReferenceGraph} hence they may reference each other
+     * regardless of the order of the keys.
+     *
+     * @param properties the property declarations.
+     * @param keys the keys of the properties to parse.
+     * @param accumulator the map to put the parsed values into.
+     * @param currentDefaults the current defaults used to resolve references.
+     * @param iconLoader the icon loader used for parsing icons.
+     */
     public static void putProperties(final Map<Object, Object> properties, final Set<String> keys,
             final Map<Object, Object> accumulator, final UIDefaults currentDefaults, final IconLoader iconLoader) {
+        putProperties(properties, keys, accumulator, currentDefaults, iconLoader, Collections.emptyMap());
+    }
+
+    /**
+     * Same as {@link #putProperties(Map, Set, Map, UIDefaults, IconLoader)} but uses the given
+     * results for values which have already been parsed.
+     *
+     * @param properties the property declarations.
+     * @param keys the keys of the properties to parse.
+     * @param accumulator the map to put the parsed values into.
+     * @param currentDefaults the current defaults used to resolve references.
+     * @param iconLoader the icon loader used for parsing icons.
+     * @param parsedValues the already parsed values.
+     * @see #parseIndependentProperties(Map)
+     */
+    public static void putProperties(final Map<Object, Object> properties, final Set<String> keys,
+            final Map<Object, Object> accumulator, final UIDefaults currentDefaults, final IconLoader iconLoader,
+            final Map<String, ParseResult> parsedValues) {
+        ReferenceGraph graph = ReferenceGraph.create(properties, keys);
+        putProperties(properties, graph.getResolutionOrder(), accumulator, currentDefaults, iconLoader,
+                parsedValues);
+    }
+
+    /**
+     * Parses all properties whose value doesn't depend on other properties, the defaults or icons.
+     * This doesn't modify any shared state and may be called on any thread. The results can be
+     * passed to {@link #putProperties(Map, Set, Map, UIDefaults, IconLoader, Map)}.
+     *
+     * @param properties the property declarations.
+     * @return the parse results of the independent properties.
+     * @see Parser#isContextIndependent(String, String)
+     */
+    public static Map<String, ParseResult> parseIndependentProperties(final Map<Object, Object> properties) {
+        ParserContext context = new ParserContext(Collections.emptyMap(), Collections.emptyMap(), ICON_LOADER);
+        Map<String, ParseResult> parsedValues = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+            if (!(entry.getKey() instanceof String)) continue;
+            String key = (String) entry.getKey();
+            String value = entry.getValue().toString();
+            if (Parser.isContextIndependent(key, value)) {
+                parsedValues.put(key, Parser.parse(Parser.createParseResult(key, value), context));
+            }
+        }
+        return parsedValues;
+    }
+
+    /**
+     * Parses only the properties which directly or indirectly reference one of the changed keys. This
+     * can be used to update the properties after some of the values they depend on have changed
+     * without resolving all properties again.
+     *
+     * @param properties the property declarations.
+     * @param keys the keys of the properties which may be affected.
+     * @param changedKeys the keys of the values which have changed.
+     * @param accumulator the map to put the parsed values into.
+     * @param currentDefaults the current defaults used to resolve references.
+     * @param iconLoader the icon loader used for parsing icons.
+     */
+    public static void putAffectedProperties(final Map<Object, Object> properties, final Set<String> keys,
+            final Collection<String> changedKeys, final Map<Object, Object> accumulator,
+            final UIDefaults currentDefaults, final IconLoader iconLoader) {
+        ReferenceGraph graph = ReferenceGraph.create(properties, keys);
+        putProperties(properties, graph.getAffectedKeys(changedKeys), accumulator, currentDefaults, iconLoader,
+                Collections.emptyMap());
+    }
+
+    private static void putProperties(final Map<Object, Object> properties, final List<String> orderedKeys,
+            final Map<Object, Object> accumulator, final UIDefaults currentDefaults, final IconLoader iconLoader,
+            final Map<String, ParseResult> parsedValues) {
+        TimingRecorder.Measurement measurement = TimingRecorder.start(Timing.Kind.PROPERTY_PARSING,
+                properties instanceof PropertyFile ? ((PropertyFile) properties).path : "properties");
+        int warningCount = Parser.getWarningCount();
         ParserContext context = new ParserContext(accumulator, currentDefaults, iconLoader);
-        for (final String key : keys) {
-            final String value = properties.get(key).toString();
-            ParseResult parseResult = Parser.parse(Parser.createParseResult(key, value), context);
+        Map<Object, Object> declarations = recordedDeclarations.get();
+        for (final String key : orderedKeys) {
+            if (declarations != null) declarations.put(key, properties.get(key));
+            ParseResult parseResult = parsedValues.get(key);
+            if (parseResult == null) {
+                final String value = properties.get(key).toString();
+                parseResult = Parser.parse(Parser.createParseResult(key, value), context);
+            }
             if (parseResult.finished) {
                 Object result = parseResult.result;
                 if (result != null) {
                     if (Parser.isDebugMode()) {
                         accumulator.put(parseResult.key, parseResult);
                     } else {
-                        accumulator.put(parseResult.key, result);
+                        accumulator.put(parseResult.key, ValueInterner.intern(result));
                     }
                 } else {
                     currentDefaults.remove(parseResult.key);
                 }
             }
         }
+        measurement.setKeyCount(orderedKeys.size())
+                .setWarningCount(Parser.getWarningCount() - warningCount)
+                .end();
+    }
+
+    /**
+     * Records the declarations of all properties put on the current thread until
+     * {@link #stopRecording(Map)} is called. If a property is declared multiple times only the last
+     * declaration is kept.
+     *
+     * @return the previously recorded declarations which have to be passed to
+     *         {@link #stopRecording(Map)}.
+     */
+    public static Map<Object, Object> startRecording() {
+        Map<Object, Object> previous = recordedDeclarations.get();
+        recordedDeclarations.set(new LinkedHashMap<>());
+        return previous;
+    }
+
+    /**
+     * Stop recording the declarations of the properties.
+     *
+     * @param previous the declarations returned by {@link #startRecording()}.
+     * @return the declarations recorded since recording was started.
+     */
+    public static Map<Object, Object> stopRecording(final Map<Object, Object> previous) {
+        Map<Object, Object> declarations = recordedDeclarations.get();
+        if (previous != null) previous.putAll(declarations);
+        recordedDeclarations.set(previous);
+        return declarations;
     }
 
     public static void replaceProperties(final Map<Object, Object> properties,
@@ -125,4 +250,17 @@ public final class PropertyLoader {
     public static String getReferencePrefix() {
         return String.valueOf(REFERENCE_PREFIX);
     }
+
+    /*
+     * Remembers the file the properties were loaded from, such that parsing them can be attributed to
+     * the file.
+     */
+    private static final class PropertyFile extends Properties {
+
+        private final String path;
+
+        private PropertyFile(final String path) {
+            this.path = path;
+        }
+    }
 }
@@ -50,8 +50,6 @@ public abstract class AbstractLazyIconSupplier<T extends Icon> implements IconSu
             if (icon == null) {
                 throw new IllegalStateException("Could not load icon '" + path + "'");
             }
-            key.w = icon.getIconWidth();
-            key.h = icon.getIconHeight();
         }
     }
 
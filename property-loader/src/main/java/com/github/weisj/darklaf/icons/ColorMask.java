@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.function.Function;
+
+/**
+ * Decomposes the rasterized image of an svg document into the contribution of each of its
+ * colors. This allows recoloring the image for a new set of colors by a single pass over the pixels
+ * instead of painting the document again.
+ *
+ * <p>
+ * Compositing the shapes of a document is linear in their (premultiplied) colors as long as the
+ * alpha values of the colors stay the same. Hence every pixel can be expressed as
+ * {@code base + sum(weight[i] * color[i])}, where the base is the contribution of the colors which
+ * are part of the document itself. A mask can only be used for colors with the same alpha values as
+ * the colors it has been created with.
+ *
+ * @author Jannis Weis
+ */
+final class ColorMask {
+
+    private final int width;
+    private final int height;
+    private final int[] base;
+    private final byte[][] weights;
+    private final int[] alphas;
+
+    private ColorMask(final int width, final int height, final int[] base, final byte[][] weights,
+            final int[] alphas) {
+        this.width = width;
+        this.height = height;
+        this.base = base;
+        this.weights = weights;
+        this.alphas = alphas;
+    }
+
+    /**
+     * Creates a new mask.
+     *
+     * @param colors the colors the mask is created for. Only their alpha values are relevant.
+     * @param rasterizer rasterizes the document with the given colors into an image of type
+     *        {@link BufferedImage#TYPE_INT_ARGB_PRE}.
+     * @return the mask.
+     */
+    static ColorMask create(final Color[] colors, final Function<Color[], BufferedImage> rasterizer) {
+        int[] alphas = new int[colors.length];
+        Color[] maskColors = new Color[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            alphas[i] = colors[i].getAlpha();
+            maskColors[i] = new Color(0, 0, 0, alphas[i]);
+        }
+        BufferedImage baseImage = rasterizer.apply(maskColors);
+        int width = baseImage.getWidth();
+        int height = baseImage.getHeight();
+        int[] base = getPixels(baseImage);
+
+        byte[][] weights = new byte[colors.length][];
+        for (int i = 0; i < colors.length; i++) {
+            if (alphas[i] == 0) continue;
+            maskColors[i] = new Color(255, 255, 255, alphas[i]);
+            int[] pixels = getPixels(rasterizer.apply(maskColors));
+            maskColors[i] = new Color(0, 0, 0, alphas[i]);
+            // The red channel only differs from the base image where the color contributes.
+            byte[] weight = new byte[pixels.length];
+            boolean contributes = false;
+            for (int p = 0; p < pixels.length; p++) {
+                int w = ((pixels[p] >> 16) & 0xFF) - ((base[p] >> 16) & 0xFF);
+                if (w > 0) {
+                    weight[p] = (byte) w;
+                    contributes = true;
+                }
+            }
+            if (contributes) weights[i] = weight;
+        }
+        return new ColorMask(width, height, base, weights, alphas);
+    }
+
+    private static int[] getPixels(final BufferedImage image) {
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Returns whether the mask can be used to create an image of the given size and colors.
+     *
+     * @param size the size of the image.
+     * @param colors the colors.
+     * @return true if the mask is applicable.
+     */
+    boolean isApplicable(final Dimension size, final Color[] colors) {
+        if (size.width != width || size.height != height || colors.length != alphas.length) return false;
+        for (int i = 0; i < colors.length; i++) {
+            if (colors[i].getAlpha() != alphas[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates the image for the given colors.
+     *
+     * @param colors the colors. Their alpha values have to match the ones of the mask.
+     * @return the image of type {@link BufferedImage#TYPE_INT_ARGB_PRE}.
+     */
+    BufferedImage createImage(final Color[] colors) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        int[] pixels = getPixels(image);
+        System.arraycopy(base, 0, pixels, 0, base.length);
+        for (int i = 0; i < weights.length; i++) {
+            byte[] weight = weights[i];
+            if (weight == null) continue;
+            int r = colors[i].getRed();
+            int g = colors[i].getGreen();
+            int b = colors[i].getBlue();
+            for (int p = 0; p < pixels.length; p++) {
+                int w = weight[p] & 0xFF;
+                if (w == 0) continue;
+                int pixel = pixels[p];
+                int a = pixel >>> 24;
+                int pr = Math.min(a, ((pixel >> 16) & 0xFF) + (w * r + 127) / 255);
+                int pg = Math.min(a, ((pixel >> 8) & 0xFF) + (w * g + 127) / 255);
+                int pb = Math.min(a, (pixel & 0xFF) + (w * b + 127) / 255);
+                pixels[p] = (a << 24) | (pr << 16) | (pg << 8) | pb;
+            }
+        }
+        return image;
+    }
+}
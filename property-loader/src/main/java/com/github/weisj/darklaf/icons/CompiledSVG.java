@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+
+/**
+ * An svg document which has been compiled into Java2D drawing calls at build time. Instances are
+ * created by a {@link CompiledSVGProvider} and are used by {@link DarkSVGIcon} instead of parsing
+ * the document at runtime.
+ *
+ * <p>
+ * Colors which are defined as gradients in the document are not part of the compiled drawing
+ * calls. Instead they are described by {@link ColorDefinition}s and resolved by the icon when it is
+ * painted. This way themed icons only need to resolve their colors again if the theme changes.
+ *
+ * @author Jannis Weis
+ */
+public abstract class CompiledSVG {
+
+    private final String resourcePath;
+    private final long checksum;
+    private final int width;
+    private final int height;
+    private final ColorDefinition[] colors;
+    private final Insets visualPadding;
+
+    /**
+     * Creates a new compiled svg.
+     *
+     * @param resourcePath the path of the svg document relative to the resource root.
+     * @param checksum the crc32 checksum of the svg document it has been compiled from.
+     * @param width the width of the document.
+     * @param height the height of the document.
+     * @param colors the colors used by the document.
+     * @param visualPadding the visual padding of the document or null if it doesn't define any.
+     */
+    protected CompiledSVG(final String resourcePath, final long checksum, final int width, final int height,
+            final ColorDefinition[] colors, final Insets visualPadding) {
+        this.resourcePath = resourcePath;
+        this.checksum = checksum;
+        this.width = width;
+        this.height = height;
+        this.colors = colors;
+        this.visualPadding = visualPadding;
+    }
+
+    public String getResourcePath() {
+        return resourcePath;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getColorCount() {
+        return colors.length;
+    }
+
+    public ColorDefinition getColorDefinition(final int index) {
+        return colors[index];
+    }
+
+    public Insets getVisualPadding() {
+        return visualPadding != null ? (Insets) visualPadding.clone() : new Insets(0, 0, 0, 0);
+    }
+
+    /**
+     * Paints the document at its original size.
+     *
+     * @param g the graphics object.
+     * @param colors the resolved colors, where the color at index i corresponds to the color definition
+     *        at index i.
+     */
+    public final void paint(final Graphics2D g, final Color[] colors) {
+        AffineTransform transform = g.getTransform();
+        Paint paint = g.getPaint();
+        Stroke stroke = g.getStroke();
+        paintShapes(g, colors);
+        g.setTransform(transform);
+        g.setPaint(paint);
+        g.setStroke(stroke);
+    }
+
+    protected abstract void paintShapes(final Graphics2D g, final Color[] colors);
+
+    protected static void fill(final Graphics2D g, final Shape shape, final Color color, final float alpha) {
+        g.setColor(withAlpha(color, alpha));
+        g.fill(shape);
+    }
+
+    protected static void draw(final Graphics2D g, final Shape shape, final Stroke stroke,
+            final AffineTransform transform, final Color color, final float alpha) {
+        AffineTransform at = g.getTransform();
+        g.transform(transform);
+        g.setColor(withAlpha(color, alpha));
+        g.setStroke(stroke);
+        g.draw(shape);
+        g.setTransform(at);
+    }
+
+    private static Color withAlpha(final Color color, final float alpha) {
+        if (alpha >= 1) return color;
+        return new Color(color.getRed(), color.getGreen(), color.getBlue(),
+                Math.round(color.getAlpha() * Math.max(0, alpha)));
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledSVG{" +
+                "resourcePath='" + resourcePath + '\'' +
+                ", width=" + width +
+                ", height=" + height +
+                '}';
+    }
+
+    /**
+     * Describes a color of a compiled svg document. Themed colors correspond to the gradients defined
+     * in the {@code colors} definitions of the document and are resolved in the same way
+     * {@link IconColorMapper} patches them.
+     */
+    public static final class ColorDefinition {
+
+        private final String key;
+        private final String[] fallbacks;
+        private final String opacityKey;
+        private final String[] opacityFallbacks;
+        private final Color defaultColor;
+        private final float stopOpacity;
+        private final boolean themed;
+
+        /**
+         * Creates a new color definition.
+         *
+         * @param key the id of the gradient.
+         * @param fallbacks the fallback keys of the color.
+         * @param opacityKey the key of the opacity or null.
+         * @param opacityFallbacks the fallback keys of the opacity.
+         * @param defaultRGB the color of the gradient stops as defined in the document.
+         * @param stopOpacity the opacity of the gradient stops or -1 if not specified.
+         * @param themed whether the color is part of the themed color definitions.
+         */
+        public ColorDefinition(final String key, final String[] fallbacks, final String opacityKey,
+                final String[] opacityFallbacks, final int defaultRGB, final float stopOpacity,
+                final boolean themed) {
+            this.key = key;
+            this.fallbacks = fallbacks;
+            this.opacityKey = opacityKey;
+            this.opacityFallbacks = opacityFallbacks;
+            this.defaultColor = new Color(defaultRGB);
+            this.stopOpacity = stopOpacity;
+            this.themed = themed;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        String[] getFallbacks() {
+            return fallbacks;
+        }
+
+        public String getOpacityKey() {
+            return opacityKey;
+        }
+
+        String[] getOpacityFallbacks() {
+            return opacityFallbacks;
+        }
+
+        /**
+         * The color of the gradient stops without the stop opacity applied.
+         *
+         * @return the default color.
+         */
+        public Color getDefaultColor() {
+            return defaultColor;
+        }
+
+        public float getStopOpacity() {
+            return stopOpacity;
+        }
+
+        public boolean isThemed() {
+            return themed;
+        }
+    }
+}
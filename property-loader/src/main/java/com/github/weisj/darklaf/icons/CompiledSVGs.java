@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.PropertyUtil;
+
+/**
+ * Looks up the compiled versions of svg documents.
+ *
+ * @author Jannis Weis
+ */
+final class CompiledSVGs {
+
+    private static final Logger LOGGER = LogUtil.getLogger(CompiledSVGs.class);
+    private static final String JAR_SEPARATOR = "!/";
+
+    private static final Map<URI, Optional<CompiledSVG>> documents = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = PropertyUtil.getSystemFlag(IconLoader.COMPILED_ICONS_PROPERTY, false);
+    private static volatile List<CompiledSVGProvider> providers;
+
+    private CompiledSVGs() {}
+
+    static void setEnabled(final boolean enabled) {
+        CompiledSVGs.enabled = enabled;
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the compiled document for the given uri. A compiled document is only returned if the
+     * content of the uri is the same as the one of the document it has been compiled from.
+     *
+     * @param uri the uri of the svg document.
+     * @return the compiled document or null if there is none.
+     */
+    static CompiledSVG get(final URI uri) {
+        if (!enabled || uri == null) return null;
+        return documents.computeIfAbsent(uri, u -> Optional.ofNullable(lookup(u))).orElse(null);
+    }
+
+    private static CompiledSVG lookup(final URI uri) {
+        String path = uri.toString();
+        int separator = path.lastIndexOf(JAR_SEPARATOR);
+        if (separator >= 0) {
+            return verify(uri, find(path.substring(separator + JAR_SEPARATOR.length())));
+        }
+        path = uri.getPath();
+        if (path == null) return null;
+        for (int i = path.indexOf('/'); i >= 0; i = path.indexOf('/', i + 1)) {
+            CompiledSVG svg = find(path.substring(i + 1));
+            if (svg != null) return verify(uri, svg);
+        }
+        return null;
+    }
+
+    private static CompiledSVG find(final String resourcePath) {
+        if (resourcePath.isEmpty()) return null;
+        for (CompiledSVGProvider provider : getProviders()) {
+            CompiledSVG svg = provider.get(resourcePath);
+            if (svg != null) return svg;
+        }
+        return null;
+    }
+
+    /*
+     * The resource may have been replaced by a different document with the same path.
+     */
+    private static CompiledSVG verify(final URI uri, final CompiledSVG svg) {
+        if (svg == null) return null;
+        try (InputStream stream = uri.toURL().openStream()) {
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+            if (crc.getValue() == svg.getChecksum()) return svg;
+            LOGGER.fine(() -> "Content of '" + uri + "' differs from the compiled document. Loading it at runtime.");
+        } catch (final IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.FINE, "Could not read '" + uri + "'", e);
+        }
+        return null;
+    }
+
+    private static List<CompiledSVGProvider> getProviders() {
+        List<CompiledSVGProvider> list = providers;
+        if (list == null) {
+            synchronized (CompiledSVGs.class) {
+                list = providers;
+                if (list == null) {
+                    list = new ArrayList<>();
+                    for (CompiledSVGProvider provider : ServiceLoader.load(CompiledSVGProvider.class)) {
+                        list.add(provider);
+                    }
+                    providers = list;
+                }
+            }
+        }
+        return list;
+    }
+}
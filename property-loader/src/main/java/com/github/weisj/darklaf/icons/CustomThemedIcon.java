@@ -21,6 +21,7 @@
  */
 package com.github.weisj.darklaf.icons;
 
+import java.awt.*;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +37,10 @@ public class CustomThemedIcon extends ThemedSVGIcon implements MutableThemedIcon
     private Map<Object, Object> defaults;
     private Map<Object, Object> contextDefaults;
     private boolean derived;
+    /*
+     * Shared by all derived icons until the properties of one of them are changed.
+     */
+    private Object rasterContentKey = new Object();
 
     public CustomThemedIcon(final Supplier<URI> uriSupplier, final int displayWidth, final int displayHeight) {
         this(uriSupplier, displayWidth, displayHeight, null);
@@ -62,7 +67,10 @@ public class CustomThemedIcon extends ThemedSVGIcon implements MutableThemedIcon
         super(icon.getUri(), icon.getIconWidth(), icon.getIconHeight());
         setContextProperties(contextDefaults);
         ensureLoaded(false);
-        defaults = IconColorMapper.getProperties(getSVGIcon());
+        CompiledSVG compiled = getCompiledSVG();
+        defaults = compiled != null
+                ? IconColorMapper.getProperties(compiled)
+                : IconColorMapper.getProperties(getSVGIcon());
         mergeProperties(mergeMode, icon);
     }
 
@@ -98,6 +106,7 @@ public class CustomThemedIcon extends ThemedSVGIcon implements MutableThemedIcon
         super(width, height, icon);
         this.defaults = icon.defaults;
         this.derived = true;
+        this.rasterContentKey = icon.rasterContentKey;
     }
 
     @Override
@@ -124,6 +133,17 @@ public class CustomThemedIcon extends ThemedSVGIcon implements MutableThemedIcon
         return new CustomThemedIcon(width, height, this);
     }
 
+    @Override
+    protected void invalidate() {
+        super.invalidate();
+        rasterContentKey = new Object();
+    }
+
+    @Override
+    Object getRasterContentKey() {
+        return rasterContentKey;
+    }
+
     @Override
     protected SVGIcon createSVGIcon() {
         SVGIcon icon = new SVGIcon();
@@ -142,6 +162,11 @@ public class CustomThemedIcon extends ThemedSVGIcon implements MutableThemedIcon
         invalidate();
     }
 
+    @Override
+    Color[] resolveCompiledColors(final CompiledSVG svg) {
+        return IconColorMapper.resolveColors(svg, getProperties(), getContextProperties());
+    }
+
     @Override
     protected void patchColors() {
         IconColorMapper.patchColors(getSVGIcon(), getProperties(), getContextProperties());
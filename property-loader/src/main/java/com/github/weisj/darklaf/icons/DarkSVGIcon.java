@@ -23,11 +23,18 @@ package com.github.weisj.darklaf.icons;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.io.Serializable;
 import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.swing.UIManager;
@@ -63,19 +70,21 @@ public class DarkSVGIcon
     private static final double extraScale = 2.0;
 
     private final AtomicBoolean loaded;
+    private final AtomicBoolean rasterizing = new AtomicBoolean();
     private final Dimension iconSize;
     private final SVGIcon icon;
 
     private Supplier<URI> uriSupplier;
-    private URI uri;
-
-    private IconLoader.IconKey iconKey;
+    private volatile URI uri;
 
     private boolean directRendering;
-    private boolean loadedWithExtraScale;
-    private double scaleX;
-    private double scaleY;
-    private Image image;
+    private volatile Raster raster;
+    private volatile Optional<CompiledSVG> compiledSVG;
+    private volatile Color[] compiledColors;
+    private volatile Dimension lastRasterSize;
+    private volatile Color[] lastRasterColors;
+    private volatile ColorMask colorMask;
+    private volatile IconAtlas iconAtlas;
 
     /**
      * Method to fetch the SVG icon from a url.
@@ -117,10 +126,7 @@ public class DarkSVGIcon
         this.uri = parent.uri;
         this.uriSupplier = parent.uriSupplier;
         this.loaded = parent.loaded;
-    }
-
-    void setIconKey(final IconLoader.IconKey iconKey) {
-        this.iconKey = iconKey;
+        this.compiledSVG = parent.compiledSVG;
     }
 
     @Override
@@ -135,10 +141,6 @@ public class DarkSVGIcon
     }
 
     public void setDisplaySize(final int width, final int height) {
-        if (iconKey != null) {
-            iconKey.w = width;
-            iconKey.h = height;
-        }
         iconSize.setSize(width, height);
     }
 
@@ -148,6 +150,7 @@ public class DarkSVGIcon
     }
 
     protected boolean ensureLoaded(final boolean painting) {
+        if (getCompiledSVG() != null) return false;
         return ensureSVGLoaded();
     }
 
@@ -156,12 +159,23 @@ public class DarkSVGIcon
         return uri;
     }
 
+    /*
+     * All icons load their documents into the same svg universe, which isn't thread safe. Hence
+     * loading, patching and rendering of svg documents has to be guarded by the universe.
+     */
+    final Object getSVGLock() {
+        return icon.getSvgUniverse();
+    }
+
     private boolean ensureSVGLoaded() {
         if (!isSVGLoaded()) {
-            URI iconUri = getUri();
-            LOGGER.finer(() -> "Loading icon '" + iconUri.toASCIIString() + "'.");
-            icon.setSvgURI(iconUri);
-            loaded.set(true);
+            synchronized (getSVGLock()) {
+                if (isSVGLoaded()) return false;
+                URI iconUri = getUri();
+                LOGGER.finer(() -> "Loading icon '" + iconUri.toASCIIString() + "'.");
+                icon.setSvgURI(iconUri);
+                loaded.set(true);
+            }
             return true;
         }
         return false;
@@ -171,10 +185,119 @@ public class DarkSVGIcon
         return loaded.get();
     }
 
+    /*
+     * The version of the svg document compiled at build time or null if the document has to be parsed.
+     */
+    CompiledSVG getCompiledSVG() {
+        Optional<CompiledSVG> svg = compiledSVG;
+        if (svg == null) {
+            svg = Optional.ofNullable(supportsCompiledSVG() ? CompiledSVGs.get(getUri()) : null);
+            compiledSVG = svg;
+        }
+        return svg.orElse(null);
+    }
+
+    /*
+     * Subclasses may customize how the svg document is loaded and patched. Hence only the known icon
+     * classes use compiled documents.
+     */
+    private boolean supportsCompiledSVG() {
+        Class<?> type = getClass();
+        return type == DarkSVGIcon.class || type == ThemedSVGIcon.class || type == CustomThemedIcon.class;
+    }
+
+    /*
+     * Resolves the colors the compiled document is painted with.
+     */
+    Color[] resolveCompiledColors(final CompiledSVG svg) {
+        return IconColorMapper.getDefaultColors(svg);
+    }
+
+    /*
+     * Marks the resolved colors of the compiled document as out of date.
+     */
+    void invalidateCompiledColors() {
+        compiledColors = null;
+    }
+
+    private Color[] getCompiledColors(final CompiledSVG svg) {
+        Color[] colors = compiledColors;
+        if (colors == null) {
+            colors = resolveCompiledColors(svg);
+            compiledColors = colors;
+        }
+        return colors;
+    }
+
+    /*
+     * Whether the colors of the icon may change after it has been rasterized.
+     */
+    boolean isRecolorable() {
+        return false;
+    }
+
+    private Image rasterizeCompiledSVG(final CompiledSVG svg, final Dimension size) {
+        Color[] colors = getCompiledColors(svg);
+        if (!isRecolorable() || colors.length == 0) {
+            return rasterizeCompiledSVG(svg, colors, size, BufferedImage.TYPE_INT_ARGB);
+        }
+        return rasterizeRecolorable(colors, size, (c, imageType) -> rasterizeCompiledSVG(svg, c, size, imageType));
+    }
+
+    /*
+     * Rasterizes a document whose colors may change. Once the colors have changed for a size a mask is
+     * created, from which images for further colors are created without painting the document again.
+     */
+    private Image rasterizeRecolorable(final Color[] colors, final Dimension size, final Rasterizer rasterizer) {
+        ColorMask mask = colorMask;
+        if (mask != null && mask.isApplicable(size, colors)) return mask.createImage(colors);
+        boolean sameSize = size.equals(lastRasterSize);
+        Color[] lastColors = lastRasterColors;
+        lastRasterColors = colors;
+        if (sameSize && lastColors != null && !Arrays.equals(colors, lastColors)) {
+            // The colors have changed since the icon has been rasterized at this size.
+            // Further color changes only need to recolor the mask.
+            mask = ColorMask.create(colors, c -> rasterizer.rasterize(c, BufferedImage.TYPE_INT_ARGB_PRE));
+            colorMask = mask;
+            return mask.createImage(colors);
+        }
+        if (!sameSize) {
+            colorMask = null;
+            lastRasterSize = new Dimension(size);
+        }
+        return rasterizer.rasterize(colors, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private BufferedImage rasterizeCompiledSVG(final CompiledSVG svg, final Color[] colors, final Dimension size,
+            final int imageType) {
+        BufferedImage bi = new BufferedImage(size.width, size.height, imageType);
+        Graphics2D g = (Graphics2D) bi.getGraphics();
+        g.setRenderingHint(
+                RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
+        paintCompiledSVG(g, svg, colors, size);
+        g.dispose();
+        return bi;
+    }
+
+    private void paintCompiledSVG(final Graphics2D g, final CompiledSVG svg, final Color[] colors,
+            final Dimension size) {
+        Object aaHint = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        AffineTransform transform = g.getTransform();
+        g.scale(size.width / (double) svg.getWidth(), size.height / (double) svg.getHeight());
+        svg.paint(g, colors);
+        g.setTransform(transform);
+        if (aaHint != null) g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, aaHint);
+    }
+
     private void ensureURILoaded() {
-        if (uri == null && uriSupplier != null) {
-            uri = uriSupplier.get();
-            uriSupplier = null;
+        if (uri == null) {
+            synchronized (this) {
+                if (uri == null && uriSupplier != null) {
+                    uri = uriSupplier.get();
+                    uriSupplier = null;
+                }
+            }
         }
         if (uri == null) {
             throw new IllegalStateException("Uri is null.");
@@ -183,49 +306,110 @@ public class DarkSVGIcon
 
     protected void updateCache(final boolean update, final Component c) {
         GraphicsConfiguration gc = c != null ? c.getGraphicsConfiguration() : null;
-        double sx = Scale.getScaleX(gc);
-        double sy = Scale.getScaleY(gc);
-        if (!update && Scale.equalWithError(scaleX, sx) && Scale.equalWithError(scaleY, sy) && image != null) return;
-        scaleX = sx;
-        scaleY = sy;
-        double effectiveScaleX = loadedWithExtraScale ? scaleX * extraScale : scaleX;
-        double effectiveScaleY = loadedWithExtraScale ? scaleY * extraScale : scaleY;
-        LOGGER.finer(() -> String.format("Creating Image with size (w=%s, h=%s, scaleW=%s, scaleH=%s) for icon '%s'",
-                getSize().width, getSize().height, effectiveScaleX, effectiveScaleX, getName(getUri())));
-        image = createImage(Scale.scale(effectiveScaleX, effectiveScaleY, getSize()));
+        Raster current = raster;
+        updateCache(update, Scale.getScaleX(gc), Scale.getScaleY(gc), current != null && current.withExtraScale);
+    }
+
+    private void updateCache(final boolean update, final double sx, final double sy, final boolean withExtraScale) {
+        Raster current = raster;
+        if (!update && current != null && current.matches(sx, sy, withExtraScale)) return;
+        raster = new Raster(rasterize(sx, sy, withExtraScale), sx, sy, withExtraScale);
+    }
+
+    /*
+     * Returns the image of the icon for the given scale from the shared raster cache. This doesn't
+     * change the image the icon is painted with.
+     */
+    private Image rasterize(final double sx, final double sy, final boolean withExtraScale) {
+        double effectiveScaleX = withExtraScale ? sx * extraScale : sx;
+        double effectiveScaleY = withExtraScale ? sy * extraScale : sy;
+        RasterCache.Key key = new RasterCache.Key(getRasterContentKey(), getRasterThemeKey(), getSize(),
+                sx, sy, withExtraScale);
+        return RasterCache.get(key, () -> {
+            LOGGER.finer(() -> String.format(
+                    "Creating Image with size (w=%s, h=%s, scaleW=%s, scaleH=%s) for icon '%s'",
+                    getSize().width, getSize().height, effectiveScaleX, effectiveScaleY, getName(getUri())));
+            return createImage(Scale.scale(effectiveScaleX, effectiveScaleY, getSize()));
+        });
+    }
+
+    /*
+     * The image currently used for painting or null if the icon hasn't been painted yet.
+     */
+    Image getCachedImage() {
+        Raster current = raster;
+        return current != null ? current.image : null;
+    }
+
+    /*
+     * Identifies the svg document and colors of the icon. Icons with equal keys share their rasterized
+     * images. Instances of unknown subclasses may paint differently hence they only share with
+     * themselves.
+     */
+    Object getRasterContentKey() {
+        Class<?> type = getClass();
+        return type == DarkSVGIcon.class || type == ThemedSVGIcon.class ? getUri() : this;
+    }
+
+    /*
+     * The theme the colors of the icon have been patched for.
+     */
+    Object getRasterThemeKey() {
+        return null;
     }
 
     @Override
     public Image createImage(final Dimension size) {
         ensureLoaded(false);
-        icon.setPreferredSize(size);
-        try {
-            BufferedImage bi = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g = (Graphics2D) bi.getGraphics();
-            g.setRenderingHint(
-                    RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g.setRenderingHint(
-                    RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
-            Object aaHint = UIManager.get(RenderingHints.KEY_TEXT_ANTIALIASING);
-            if (aaHint != null) g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, aaHint);
-            icon.paintIcon(null, g, 0, 0);
-            g.dispose();
-            return bi;
-        } catch (final RuntimeException e) {
-            if (!(this instanceof ThemedSVGIcon)) {
-                IconColorMapper.patchColors(icon);
-                Image img = icon.getImage();
-                /*
-                 * If we get to here the issue was that the icon hasn't been patched because it isn't loaded as a
-                 * themed svg icon.
-                 */
-                LOGGER.severe("Icon '" + getName(uri) + "' that defines custom colors isn't loaded as themed icon.");
-                return img;
+        CompiledSVG compiled = getCompiledSVG();
+        if (compiled != null) return rasterizeCompiledSVG(compiled, size);
+        // The svg document may be rendered by other icons on other threads.
+        synchronized (getSVGLock()) {
+            icon.setPreferredSize(size);
+            try {
+                Color[] colors = isRecolorable() ? IconColorMapper.getColors(icon) : null;
+                if (colors == null || colors.length == 0) return rasterizeSVG(size, BufferedImage.TYPE_INT_ARGB);
+                return rasterizeRecolorable(colors, size, (c, imageType) -> {
+                    if (c == colors) return rasterizeSVG(size, imageType);
+                    // The colors of the mask are only patched into the document while it is rendered.
+                    IconColorMapper.setColors(icon, c);
+                    try {
+                        return rasterizeSVG(size, imageType);
+                    } finally {
+                        IconColorMapper.setColors(icon, colors);
+                    }
+                });
+            } catch (final RuntimeException e) {
+                if (!(this instanceof ThemedSVGIcon)) {
+                    IconColorMapper.patchColors(icon);
+                    Image img = icon.getImage();
+                    /*
+                     * If we get to here the issue was that the icon hasn't been patched because it isn't loaded as
+                     * a themed svg icon.
+                     */
+                    LOGGER.severe(
+                            "Icon '" + getName(uri) + "' that defines custom colors isn't loaded as themed icon.");
+                    return img;
+                }
+                throw new RuntimeException("Exception while painting '" + uri.toASCIIString() + "'.", e);
             }
-            throw new RuntimeException("Exception while painting '" + uri.toASCIIString() + "'.", e);
         }
     }
 
+    private BufferedImage rasterizeSVG(final Dimension size, final int imageType) {
+        BufferedImage bi = new BufferedImage(size.width, size.height, imageType);
+        Graphics2D g = (Graphics2D) bi.getGraphics();
+        g.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(
+                RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
+        Object aaHint = UIManager.get(RenderingHints.KEY_TEXT_ANTIALIASING);
+        if (aaHint != null) g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, aaHint);
+        icon.paintIcon(null, g, 0, 0);
+        g.dispose();
+        return bi;
+    }
+
     protected String getName(final URI uri) {
         String name = uri.toASCIIString();
         name = name.substring(Math.min(name.length() - 1, name.lastIndexOf('/') + 1));
@@ -233,8 +417,47 @@ public class DarkSVGIcon
     }
 
     protected void ensureImageLoaded(final Component c, final double rotation) {
-        loadedWithExtraScale = !isExactRotation(rotation);
-        updateCache(ensureLoaded(true) || loadedWithExtraScale, c);
+        GraphicsConfiguration gc = c != null ? c.getGraphicsConfiguration() : null;
+        updateCache(ensureLoaded(true), Scale.getScaleX(gc), Scale.getScaleY(gc), !isExactRotation(rotation));
+    }
+
+    /*
+     * Schedules loading and rasterizing the icon on a background thread if the current image is out of
+     * date. The component is repainted once the new image is available.
+     *
+     * Returns true if the current image is up to date.
+     */
+    private boolean ensureImageLoadedAsync(final Component c, final double rotation) {
+        if (rasterizing.get()) return false;
+        boolean extraScaleNeeded = !isExactRotation(rotation);
+        GraphicsConfiguration gc = c.getGraphicsConfiguration();
+        double sx = Scale.getScaleX(gc);
+        double sy = Scale.getScaleY(gc);
+        Raster current = raster;
+        if (current != null && !needsReload() && current.matches(sx, sy, extraScaleNeeded)) {
+            return true;
+        }
+        if (rasterizing.compareAndSet(false, true)) {
+            AsyncLoaderHolder.EXECUTOR.execute(() -> {
+                try {
+                    ensureLoaded(true);
+                    updateCache(true, sx, sy, extraScaleNeeded);
+                } catch (final RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Could not load icon " + this, e);
+                } finally {
+                    rasterizing.set(false);
+                    c.repaint();
+                }
+            });
+        }
+        return false;
+    }
+
+    /*
+     * Whether the svg document needs to be loaded or updated before the icon can be rasterized.
+     */
+    boolean needsReload() {
+        return !isSVGLoaded() && getCompiledSVG() == null;
     }
 
     private boolean isExactRotation(final double rotation) {
@@ -251,23 +474,44 @@ public class DarkSVGIcon
         return new SVGIcon();
     }
 
+    /*
+     * Loads the icon and puts its images for each of the given scales into the raster cache. The image
+     * the icon is painted with isn't changed.
+     */
+    void preload(final Collection<Point2D> scales) {
+        ensureLoaded(false);
+        for (Point2D scale : scales) {
+            rasterize(scale.getX(), scale.getY(), false);
+        }
+    }
+
+    void setIconAtlas(final IconAtlas iconAtlas) {
+        this.iconAtlas = iconAtlas;
+    }
+
     @Override
     public void paintIcon(final Component c, final Graphics g, final int x, final int y, final double rotation) {
         boolean dr = isDirectRenderingMode();
+        IconAtlas atlas = iconAtlas;
+        if (atlas != null && !dr && rotation == 0 && atlas.paintIcon(this, c, g, x, y)) return;
+        CompiledSVG compiled = dr ? getCompiledSVG() : null;
         if (dr) {
             ensureLoaded(true);
-            icon.setPreferredSize(getSize());
+        } else if (c != null && IconLoader.isAsyncLoadingEnabled()) {
+            // Until the image is ready the previous image is used as a placeholder if there is one.
+            if (!ensureImageLoadedAsync(c, rotation) && raster == null) return;
         } else {
             ensureImageLoaded(c, rotation);
         }
+        Image img = getCachedImage();
 
         Graphics2D g2 = (Graphics2D) g;
         AffineTransform transform = g2.getTransform();
         g2.translate(x, y);
 
         Dimension size = getSize();
-        double imageWidth = dr ? size.width : image.getWidth(null);
-        double imageHeight = dr ? size.height : image.getHeight(null);
+        double imageWidth = dr ? size.width : img.getWidth(null);
+        double imageHeight = dr ? size.height : img.getHeight(null);
         double sx = size.width / imageWidth;
         double sy = size.height / imageHeight;
         g2.scale(sx, sy);
@@ -275,10 +519,16 @@ public class DarkSVGIcon
             g2.rotate(rotation, imageWidth / 2.0, imageHeight / 2.0);
         }
 
-        if (dr) {
-            getSVGIcon().paintIcon(c, g, 0, 0);
+        if (compiled != null) {
+            paintCompiledSVG(g2, compiled, getCompiledColors(compiled), size);
+        } else if (dr) {
+            SVGIcon svg = getSVGIcon();
+            synchronized (getSVGLock()) {
+                svg.setPreferredSize(size);
+                svg.paintIcon(c, g, 0, 0);
+            }
         } else {
-            g2.drawImage(image, 0, 0, c);
+            g2.drawImage(img, 0, 0, c);
         }
         g2.scale(1 / sx, 1 / sy);
         g2.translate(-x, -y);
@@ -311,12 +561,9 @@ public class DarkSVGIcon
 
     private void ensureSizeLoaded() {
         if (iconSize.width < 0 || iconSize.height < 0) {
-            SVGIcon svg = getSVGIcon();
-            int autoSizeMode = svg.getAutosize();
-            svg.setAutosize(SVGIcon.AUTOSIZE_NONE);
-            int width = svg.getIconWidthIgnoreAutosize();
-            int height = svg.getIconHeightIgnoreAutosize();
-            svg.setAutosize(autoSizeMode);
+            Dimension documentSize = getDocumentSize();
+            int width = documentSize.width;
+            int height = documentSize.height;
 
             if (iconSize.height < 0 && iconSize.width >= 0) {
                 height = (int) ((iconSize.width * height) / (double) width);
@@ -343,6 +590,28 @@ public class DarkSVGIcon
         }
     }
 
+    /*
+     * The size declared by the svg document. If possible it is read from the header of the document
+     * to avoid parsing the whole document only to lay out the icon.
+     */
+    private Dimension getDocumentSize() {
+        CompiledSVG compiled = getCompiledSVG();
+        if (compiled != null) return new Dimension(compiled.getWidth(), compiled.getHeight());
+        if (!isSVGLoaded()) {
+            Dimension size = SVGHeader.readSize(getUri());
+            if (size != null) return size;
+        }
+        SVGIcon svg = getSVGIcon();
+        synchronized (getSVGLock()) {
+            int autoSizeMode = svg.getAutosize();
+            svg.setAutosize(SVGIcon.AUTOSIZE_NONE);
+            int width = svg.getIconWidthIgnoreAutosize();
+            int height = svg.getIconHeightIgnoreAutosize();
+            svg.setAutosize(autoSizeMode);
+            return new Dimension(width, height);
+        }
+    }
+
     public SVGIcon getSVGIcon() {
         ensureSVGLoaded();
         return icon;
@@ -356,29 +625,75 @@ public class DarkSVGIcon
                 ", icon=" + icon +
                 ", uriSupplier=" + uriSupplier +
                 ", uri=" + uri +
-                ", iconKey=" + iconKey +
                 ", directRendering=" + directRendering +
-                ", loadedWithExtraScale=" + loadedWithExtraScale +
-                ", scaleX=" + scaleX +
-                ", scaleY=" + scaleY +
-                ", image=" + image +
+                ", raster=" + raster +
                 '}';
     }
 
     @Override
     public @NotNull Insets getVisualPaddings(@NotNull Component component) {
+        CompiledSVG compiled = getCompiledSVG();
+        if (compiled != null) return compiled.getVisualPadding();
         SVGIcon icon = getSVGIcon();
-        SVGRoot root = icon.getSvgUniverse().getDiagram(icon.getSvgURI()).getRoot();
-        StyleAttribute attr = new StyleAttribute("visualPadding");
-        try {
-            if (root.getStyle(attr, false)) {
-                int[] paddings = attr.getIntList();
-                if (paddings.length == 4) {
-                    return new Insets(paddings[0], paddings[1], paddings[2], paddings[3]);
+        synchronized (getSVGLock()) {
+            SVGRoot root = icon.getSvgUniverse().getDiagram(icon.getSvgURI()).getRoot();
+            StyleAttribute attr = new StyleAttribute("visualPadding");
+            try {
+                if (root.getStyle(attr, false)) {
+                    int[] paddings = attr.getIntList();
+                    if (paddings.length == 4) {
+                        return new Insets(paddings[0], paddings[1], paddings[2], paddings[3]);
+                    }
                 }
+            } catch (SVGException ignore) {
             }
-        } catch (SVGException ignore) {
         }
         return new Insets(0, 0, 0, 0);
     }
+
+    private interface Rasterizer {
+        BufferedImage rasterize(Color[] colors, int imageType);
+    }
+
+    /*
+     * The image the icon is painted with and the scale it has been rasterized for. The values are
+     * published together as the icon may be rasterized on a background thread.
+     */
+    private static final class Raster {
+        private final Image image;
+        private final double scaleX;
+        private final double scaleY;
+        private final boolean withExtraScale;
+
+        private Raster(final Image image, final double scaleX, final double scaleY, final boolean withExtraScale) {
+            this.image = image;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.withExtraScale = withExtraScale;
+        }
+
+        private boolean matches(final double sx, final double sy, final boolean extraScaleNeeded) {
+            return image != null && withExtraScale == extraScaleNeeded
+                    && Scale.equalWithError(scaleX, sx) && Scale.equalWithError(scaleY, sy);
+        }
+
+        @Override
+        public String toString() {
+            return "Raster{" +
+                    "scaleX=" + scaleX +
+                    ", scaleY=" + scaleY +
+                    ", withExtraScale=" + withExtraScale +
+                    ", image=" + image +
+                    '}';
+        }
+    }
+
+    private static final class AsyncLoaderHolder {
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), r -> {
+                    final Thread thread = new Thread(r, "Darklaf Icon Loader Thread");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
 }
@@ -111,6 +111,14 @@ public class DarkUIAwareIcon implements UIAwareIcon, UIResource, Serializable {
         loaded = true;
     }
 
+    /*
+     * The icon which is loaded for the current aware style. Doesn't change the state of this icon.
+     */
+    Icon getCurrentStyleIcon() {
+        String key = IconLoader.getAwareStyle() == AwareIconStyle.DARK ? darkKey : lightKey;
+        return IconLoader.get(parentClass).getIcon(key, w, h);
+    }
+
     @Override
     public void paintIcon(final Component c, final Graphics g, final int x, final int y) {
         ensureLoaded();
@@ -44,6 +44,7 @@ public class DerivableImageIcon implements DerivableIcon<DerivableImageIcon>, Im
     private int height;
 
     private final LazyValue<Image> original;
+    private final LazyValue<MipMap> mipMap;
     private final LazyImageValue image;
     private String description;
     private AccessibleContext accessibleContext;
@@ -130,6 +131,7 @@ public class DerivableImageIcon implements DerivableIcon<DerivableImageIcon>, Im
         this.height = height;
         this.scalingMode = scalingMode;
         this.original = new LazyValue<>(imageSupplier);
+        this.mipMap = createMipMapValue(original);
         this.image = new LazyImageValue(this);
     }
 
@@ -230,6 +232,7 @@ public class DerivableImageIcon implements DerivableIcon<DerivableImageIcon>, Im
         this.height = height;
         this.scalingMode = scalingMode;
         this.original = new LazyValue<>(img);
+        this.mipMap = createMipMapValue(original);
         this.image = new LazyImageValue(this);
     }
 
@@ -238,6 +241,7 @@ public class DerivableImageIcon implements DerivableIcon<DerivableImageIcon>, Im
         this.height = height;
         this.scalingMode = parent.scalingMode;
         this.original = parent.original;
+        this.mipMap = parent.mipMap;
         this.description = parent.description;
         this.image = parent.image.derive(this);
     }
@@ -263,7 +267,11 @@ public class DerivableImageIcon implements DerivableIcon<DerivableImageIcon>, Im
         }
     }
 
-    private boolean ensureImageLoaded(final Image img) {
+    private static LazyValue<MipMap> createMipMapValue(final LazyValue<Image> original) {
+        return new LazyValue<>(() -> MipMap.create(original.get()));
+    }
+
+    static boolean ensureImageLoaded(final Image img) {
         MediaTracker tracker = new MediaTracker(new Component() {});
         tracker.addImage(img, 0);
         try {
@@ -293,6 +301,13 @@ public class DerivableImageIcon implements DerivableIcon<DerivableImageIcon>, Im
         return image.get(observer);
     }
 
+    /*
+     * The scaled image or null if it hasn't been created yet.
+     */
+    Image getCachedImage() {
+        return image.peek();
+    }
+
     protected Image getOriginal() {
         Image img = original.get();
         calculateSize();
@@ -351,7 +366,19 @@ public class DerivableImageIcon implements DerivableIcon<DerivableImageIcon>, Im
 
     @Override
     public Image createImage(final Dimension size) {
-        return getOriginal().getScaledInstance(size.width, size.height, scalingMode);
+        return createScaledImage(size.width, size.height);
+    }
+
+    /*
+     * Smooth scaling modes use the mip map shared by all icons derived from the same image. Fast
+     * scaling modes are honored by scaling the original image directly.
+     */
+    private Image createScaledImage(final int width, final int height) {
+        if (scalingMode != Image.SCALE_FAST && scalingMode != Image.SCALE_REPLICATE) {
+            MipMap map = mipMap.get();
+            if (map != null) return map.getScaledImage(width, height);
+        }
+        return getOriginal().getScaledInstance(width, height, scalingMode);
     }
 
     protected static class AccessibleDerivableImageIcon extends AccessibleContext implements AccessibleIcon {
@@ -435,6 +462,10 @@ public class DerivableImageIcon implements DerivableIcon<DerivableImageIcon>, Im
             return value;
         }
 
+        Image peek() {
+            return value;
+        }
+
         @Override
         public Image get() {
             return get(null);
@@ -446,7 +477,7 @@ public class DerivableImageIcon implements DerivableIcon<DerivableImageIcon>, Im
             int height = icon.getIconHeight();
             if (originalImage != null && width > 0 && height > 0) {
                 if (originalImage.getWidth(observer) != width || originalImage.getHeight(observer) != height) {
-                    return originalImage.getScaledInstance(width, height, icon.scalingMode);
+                    return icon.createScaledImage(width, height);
                 } else {
                     return originalImage;
                 }
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.Scale;
+
+/**
+ * Packs the rasterized images of frequently painted svg icons into a single image. Icons which are
+ * part of the atlas paint a region of the shared image instead of their own image.
+ *
+ * <p>
+ * The atlas is created for the theme which is current when it is installed. The images are only
+ * rasterized when one of the icons is painted for the first time, as the colors of themed icons are
+ * resolved from the defaults of the installed look and feel. An image is created for every scale
+ * the icons are painted at.
+ *
+ * @author Jannis Weis
+ */
+final class IconAtlas {
+
+    private static final Logger LOGGER = LogUtil.getLogger(IconAtlas.class);
+    private static final int PADDING = 1;
+    private static final Object LOCK = new Object();
+    private static IconAtlas current;
+
+    private final List<DarkSVGIcon> icons;
+    private final Object themeStatus;
+    private final Map<Point2D, Sheet> sheets = new ConcurrentHashMap<>();
+
+    private IconAtlas(final List<DarkSVGIcon> icons, final Object themeStatus) {
+        this.icons = icons;
+        this.themeStatus = themeStatus;
+    }
+
+    /**
+     * Installs a new atlas for the given icons and removes the current one. Icons which can't be part
+     * of an atlas are ignored.
+     *
+     * @param icons the icons.
+     * @return the number of icons in the atlas.
+     */
+    static int install(final Collection<? extends Icon> icons) {
+        Set<DarkSVGIcon> svgIcons = new LinkedHashSet<>();
+        for (Icon icon : icons) {
+            collect(icon, svgIcons);
+        }
+        IconAtlas atlas = new IconAtlas(new ArrayList<>(svgIcons), IconLoader.getThemeStatus());
+        synchronized (LOCK) {
+            uninstall();
+            for (DarkSVGIcon icon : atlas.icons) {
+                icon.setIconAtlas(atlas);
+            }
+            current = atlas;
+        }
+        return atlas.icons.size();
+    }
+
+    static void uninstall() {
+        synchronized (LOCK) {
+            if (current == null) return;
+            for (DarkSVGIcon icon : current.icons) {
+                icon.setIconAtlas(null);
+            }
+            current = null;
+        }
+    }
+
+    private static void collect(final Icon icon, final Set<DarkSVGIcon> icons) {
+        if (icon instanceof StateIcon) {
+            for (Icon state : ((StateIcon) icon).getStateIcons()) {
+                collect(state, icons);
+            }
+        } else if (icon instanceof DarkSVGIcon) {
+            Class<?> type = icon.getClass();
+            // The colors of other icons may change without the theme changing.
+            if (type == DarkSVGIcon.class || type == ThemedSVGIcon.class) {
+                icons.add((DarkSVGIcon) icon);
+            }
+        }
+    }
+
+    /**
+     * Paints the icon from the atlas.
+     *
+     * @return false if the icon can't be painted from the atlas.
+     */
+    boolean paintIcon(final DarkSVGIcon icon, final Component c, final Graphics g, final int x, final int y) {
+        if (themeStatus != IconLoader.getThemeStatus()) return false;
+        GraphicsConfiguration gc = c != null ? c.getGraphicsConfiguration() : null;
+        double sx = Scale.getScaleX(gc);
+        double sy = Scale.getScaleY(gc);
+        Sheet sheet = sheets.computeIfAbsent(new Point2D.Double(sx, sy), s -> createSheet(sx, sy, gc));
+        Rectangle region = sheet.regions.get(icon);
+        if (region == null) return false;
+        Dimension size = icon.getSize();
+        g.drawImage(sheet.image, x, y, x + size.width, y + size.height,
+                region.x, region.y, region.x + region.width, region.y + region.height, c);
+        return true;
+    }
+
+    private Sheet createSheet(final double sx, final double sy, final GraphicsConfiguration gc) {
+        List<DarkSVGIcon> packedIcons = new ArrayList<>(icons.size());
+        List<Image> images = new ArrayList<>(icons.size());
+        long area = 0;
+        int maxWidth = 0;
+        for (DarkSVGIcon icon : icons) {
+            Dimension size = Scale.scale(sx, sy, icon.getSize());
+            if (size.width <= 0 || size.height <= 0) continue;
+            Image image = icon.createImage(size);
+            packedIcons.add(icon);
+            images.add(image);
+            int w = image.getWidth(null) + PADDING;
+            int h = image.getHeight(null) + PADDING;
+            area += (long) w * h;
+            maxWidth = Math.max(maxWidth, w);
+        }
+
+        // Pack the images into rows ordered by height.
+        List<Integer> order = new ArrayList<>(images.size());
+        for (int i = 0; i < images.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingInt((Integer i) -> images.get(i).getHeight(null)).reversed());
+        int rowLimit = Math.max(maxWidth, (int) Math.ceil(Math.sqrt(area)));
+        Rectangle[] regions = new Rectangle[images.size()];
+        int rowX = 0;
+        int rowY = 0;
+        int rowHeight = 0;
+        int width = 0;
+        for (int i : order) {
+            Image image = images.get(i);
+            int w = image.getWidth(null);
+            int h = image.getHeight(null);
+            if (rowX > 0 && rowX + w > rowLimit) {
+                rowY += rowHeight + PADDING;
+                rowX = 0;
+                rowHeight = 0;
+            }
+            regions[i] = new Rectangle(rowX, rowY, w, h);
+            rowX += w + PADDING;
+            rowHeight = Math.max(rowHeight, h);
+            width = Math.max(width, rowX);
+        }
+        int height = rowY + rowHeight;
+
+        BufferedImage atlasImage = gc != null
+                ? gc.createCompatibleImage(Math.max(1, width), Math.max(1, height), Transparency.TRANSLUCENT)
+                : new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = atlasImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        Map<DarkSVGIcon, Rectangle> regionMap = new IdentityHashMap<>(images.size());
+        for (int i = 0; i < images.size(); i++) {
+            g.drawImage(images.get(i), regions[i].x, regions[i].y, null);
+            regionMap.put(packedIcons.get(i), regions[i]);
+        }
+        g.dispose();
+        LOGGER.fine(() -> "Created icon atlas of size " + atlasImage.getWidth() + "x" + atlasImage.getHeight()
+                + " for " + regionMap.size() + " icons at scale (" + sx + ", " + sy + ")");
+        return new Sheet(atlasImage, regionMap);
+    }
+
+    private static final class Sheet {
+        private final Image image;
+        private final Map<DarkSVGIcon, Rectangle> regions;
+
+        private Sheet(final Image image, final Map<DarkSVGIcon, Rectangle> regions) {
+            this.image = image;
+            this.regions = regions;
+        }
+    }
+}
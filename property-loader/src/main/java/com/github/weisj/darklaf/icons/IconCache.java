@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.*;
+
+/**
+ * Bounded cache of icons which evicts the least recently used icons. All access is synchronized
+ * hence the cache may be used from any thread.
+ *
+ * @author Jannis Weis
+ */
+final class IconCache<T extends Icon> {
+
+    private final Map<IconLoader.IconKey, T> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /*
+     * The most recently cached key of each path. Used to find an icon which can be derived if there is
+     * no icon of the requested size.
+     */
+    private final Map<String, IconLoader.IconKey> variants = new HashMap<>();
+    private int maxSize;
+    private long evictions;
+
+    IconCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    synchronized T get(final IconLoader.IconKey key) {
+        return entries.get(key);
+    }
+
+    synchronized T getVariant(final String path) {
+        IconLoader.IconKey key = variants.get(path);
+        return key != null ? entries.get(key) : null;
+    }
+
+    /**
+     * Puts the icon into the cache if no icon is cached for the key.
+     *
+     * @param key the key.
+     * @param icon the icon.
+     * @return the cached icon for the key.
+     */
+    synchronized T putIfAbsent(final IconLoader.IconKey key, final T icon) {
+        T existing = entries.get(key);
+        if (existing != null) return existing;
+        entries.put(key, icon);
+        variants.put(key.path, key);
+        trim();
+        return icon;
+    }
+
+    synchronized void setMaxSize(final int maxSize) {
+        this.maxSize = maxSize;
+        trim();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        variants.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    synchronized long getRetainedRasterBytes() {
+        long bytes = 0;
+        for (T icon : entries.values()) {
+            bytes += getRasterBytes(icon);
+        }
+        return bytes;
+    }
+
+    private void trim() {
+        Iterator<IconLoader.IconKey> iterator = entries.keySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            IconLoader.IconKey key = iterator.next();
+            iterator.remove();
+            variants.remove(key.path, key);
+            evictions++;
+        }
+    }
+
+    private static long getRasterBytes(final Icon icon) {
+        if (icon instanceof DarkSVGIcon) return getRasterBytes(((DarkSVGIcon) icon).getCachedImage());
+        if (icon instanceof DerivableImageIcon) return getRasterBytes(((DerivableImageIcon) icon).getCachedImage());
+        return 0;
+    }
+
+    static long getRasterBytes(final Image image) {
+        if (image instanceof BufferedImage) {
+            DataBuffer buffer = ((BufferedImage) image).getRaster().getDataBuffer();
+            return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType())
+                    / Byte.SIZE;
+        }
+        if (image == null) return 0;
+        int width = image.getWidth(null);
+        int height = image.getHeight(null);
+        return width > 0 && height > 0 ? 4L * width * height : 0;
+    }
+}
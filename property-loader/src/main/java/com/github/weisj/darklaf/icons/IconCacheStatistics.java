@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+/**
+ * Statistics of an icon cache.
+ *
+ * @author Jannis Weis
+ * @see IconLoader#getCacheStatistics()
+ * @see IconLoader#getRasterCacheStatistics()
+ */
+public final class IconCacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+    private final long retainedRasterBytes;
+
+    IconCacheStatistics(final long hitCount, final long missCount, final long evictionCount, final int size,
+            final long retainedRasterBytes) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.retainedRasterBytes = retainedRasterBytes;
+    }
+
+    /**
+     * The number of requests which have been served from the cache.
+     *
+     * @return the number of hits.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * The number of requests which required creating a new icon or image.
+     *
+     * @return the number of misses.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * The number of entries which have been evicted because the cache exceeded its maximum size.
+     *
+     * @return the number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * The number of currently cached entries.
+     *
+     * @return the number of entries.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The estimated number of bytes used by the rasterized images of the cached entries.
+     *
+     * @return the number of bytes.
+     */
+    public long getRetainedRasterBytes() {
+        return retainedRasterBytes;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : hitCount / (double) requests;
+    }
+
+    @Override
+    public String toString() {
+        return "IconCacheStatistics{" +
+                "hits=" + hitCount +
+                ", misses=" + missCount +
+                ", evictions=" + evictionCount +
+                ", size=" + size +
+                ", retainedRasterBytes=" + retainedRasterBytes +
+                '}';
+    }
+}
@@ -59,19 +59,21 @@ public final class IconColorMapper {
     public static void patchColors(final SVGIcon svgIcon, final Map<Object, Object> defaults,
             final Map<Object, Object> contextDefaults) {
         SVGUniverse universe = svgIcon.getSvgUniverse();
-        SVGDiagram diagram = universe.getDiagram(svgIcon.getSvgURI());
-        LOGGER.finer(() -> "Patching colors of icon " + svgIcon.getSvgURI());
-        try {
-            loadColors(diagram, defaults, contextDefaults);
-        } catch (final SVGElementException e) {
-            LOGGER.log(Level.SEVERE, "Failed patching colors. " + e.getMessage(), e.getStackTrace());
+        // The universe is shared by all icons and isn't thread safe.
+        synchronized (universe) {
+            SVGDiagram diagram = universe.getDiagram(svgIcon.getSvgURI());
+            LOGGER.finer(() -> "Patching colors of icon " + svgIcon.getSvgURI());
+            try {
+                loadColors(diagram, defaults, contextDefaults);
+            } catch (final SVGElementException e) {
+                LOGGER.log(Level.SEVERE, "Failed patching colors. " + e.getMessage(), e.getStackTrace());
+            }
         }
     }
 
     private static void loadColors(final SVGDiagram diagram, final Map<Object, Object> defaults,
             final Map<Object, Object> contextDefaults)
             throws SVGElementException {
-        SVGRoot root = diagram.getRoot();
         SVGElement defs = diagram.getElement("colors");
         if (defs == null) {
             LOGGER.info(() -> {
@@ -82,54 +84,180 @@ public final class IconColorMapper {
             });
             return;
         }
-        List<SVGElement> children = defs.getChildren(null);
+        List<LinearGradient> gradients = getGradients(defs);
+        int count = gradients.size();
+        Color[] colors = new Color[count];
+        float[] startOpacities = new float[count];
+        float[] endOpacities = new float[count];
+        for (int i = 0; i < count; i++) {
+            LinearGradient grad = gradients.get(i);
+            String id = grad.getId();
+            StyleAttribute colorFallbacks = getAttribute("fallback", grad);
+            StyleAttribute opacityFallbacks = getAttribute("opacity-fallback", grad);
+            String opacityKey = getOpacityKey(grad);
+
+            float opacity = getOpacity(opacityKey, getFallbacks(opacityFallbacks), defaults, contextDefaults);
+            float opacity1 = opacity;
+            float opacity2 = opacity;
+            if (opacity < 0) {
+                opacity = 1;
+                int childCount = grad.getNumChildren();
+                if (childCount > 0) {
+                    SVGElement elem = grad.getChild(0);
+                    if (elem instanceof Stop) {
+                        opacity1 = getStopOpacity((Stop) elem);
+                    }
+                }
+                if (childCount > 1) {
+                    SVGElement elem = grad.getChild(1);
+                    if (elem instanceof Stop) {
+                        opacity2 = getStopOpacity((Stop) elem);
+                    }
+                }
+
+                if (opacity1 < 0) opacity1 = opacity;
+                if (opacity2 < 0) opacity2 = opacity;
+            }
+
+            colors[i] = resolveColor(id, getFallbacks(colorFallbacks), FALLBACK_COLOR, defaults, contextDefaults);
+            startOpacities[i] = opacity1;
+            endOpacities[i] = opacity2;
+        }
+        replaceColors(diagram.getRoot(), defs, gradients, colors, startOpacities, endOpacities);
+    }
+
+    /*
+     * Replaces the color definitions of the document with the given colors. The alpha values of the
+     * colors are used as the opacity of the definitions. Used to rasterize color masks of themed icons.
+     */
+    static void setColors(final SVGIcon svgIcon, final Color[] colors) {
+        SVGUniverse universe = svgIcon.getSvgUniverse();
+        synchronized (universe) {
+            SVGDiagram diagram = universe.getDiagram(svgIcon.getSvgURI());
+            SVGElement defs = diagram.getElement("colors");
+            if (defs == null) return;
+            List<LinearGradient> gradients = getGradients(defs);
+            if (gradients.size() != colors.length) {
+                throw new IllegalArgumentException("Expected " + gradients.size() + " colors but got " + colors.length);
+            }
+            float[] opacities = new float[colors.length];
+            for (int i = 0; i < colors.length; i++) {
+                opacities[i] = colors[i].getAlpha() / 255f;
+            }
+            try {
+                replaceColors(diagram.getRoot(), defs, gradients, colors, opacities, opacities);
+            } catch (final SVGElementException e) {
+                LOGGER.log(Level.SEVERE, "Failed setting colors. " + e.getMessage(), e.getStackTrace());
+            }
+        }
+    }
+
+    /*
+     * The colors of the color definitions of the document in the order they are declared. Returns null if
+     * the color or opacity of a definition isn't uniform as such a definition can't be expressed as a
+     * single color.
+     */
+    static Color[] getColors(final SVGIcon svgIcon) {
+        SVGUniverse universe = svgIcon.getSvgUniverse();
+        synchronized (universe) {
+            SVGElement defs = universe.getDiagram(svgIcon.getSvgURI()).getElement("colors");
+            if (defs == null) return new Color[0];
+            List<LinearGradient> gradients = getGradients(defs);
+            Color[] colors = new Color[gradients.size()];
+            for (int i = 0; i < colors.length; i++) {
+                Color color = null;
+                for (SVGElement child : gradients.get(i).getChildren(null)) {
+                    if (!(child instanceof Stop)) continue;
+                    StyleAttribute colorAttr = getAttribute("stop-color", child);
+                    Color c = colorAttr != null ? colorAttr.getColorValue() : null;
+                    if (c == null) c = Color.BLACK;
+                    float opacity = getStopOpacity((Stop) child);
+                    int alpha = opacity >= 0 ? Math.round(255 * opacity) : 255;
+                    c = new Color(c.getRed(), c.getGreen(), c.getBlue(), alpha);
+                    if (color != null && !color.equals(c)) return null;
+                    color = c;
+                }
+                if (color == null) return null;
+                colors[i] = color;
+            }
+            return colors;
+        }
+    }
+
+    private static List<LinearGradient> getGradients(final SVGElement defs) {
+        List<LinearGradient> gradients = new ArrayList<>();
+        for (SVGElement child : defs.getChildren(null)) {
+            if (child instanceof LinearGradient) {
+                gradients.add((LinearGradient) child);
+            }
+        }
+        return gradients;
+    }
+
+    private static void replaceColors(final SVGRoot root, final SVGElement defs, final List<LinearGradient> gradients,
+            final Color[] colors, final float[] startOpacities, final float[] endOpacities)
+            throws SVGElementException {
         root.removeChild(defs);
 
         Defs themedDefs = new Defs();
         themedDefs.addAttribute("id", AnimationElement.AT_XML, "colors");
         root.loaderAddChild(null, themedDefs);
 
-        for (SVGElement child : children) {
-            if (child instanceof LinearGradient) {
-                LinearGradient grad = (LinearGradient) child;
-                String id = grad.getId();
-                StyleAttribute colorFallbacks = getAttribute("fallback", grad);
-                StyleAttribute opacityFallbacks = getAttribute("opacity-fallback", grad);
-                String opacityKey = getOpacityKey(grad);
-
-                float opacity = getOpacity(opacityKey, getFallbacks(opacityFallbacks), defaults, contextDefaults);
-                float opacity1 = opacity;
-                float opacity2 = opacity;
-                if (opacity < 0) {
-                    opacity = 1;
-                    int childCount = grad.getNumChildren();
-                    if (childCount > 0) {
-                        SVGElement elem = grad.getChild(0);
-                        if (elem instanceof Stop) {
-                            opacity1 = getStopOpacity((Stop) elem);
-                        }
-                    }
-                    if (childCount > 1) {
-                        SVGElement elem = grad.getChild(1);
-                        if (elem instanceof Stop) {
-                            opacity2 = getStopOpacity((Stop) elem);
-                        }
-                    }
-
-                    if (opacity1 < 0) opacity1 = opacity;
-                    if (opacity2 < 0) opacity2 = opacity;
-                }
+        for (int i = 0; i < colors.length; i++) {
+            LinearGradient grad = gradients.get(i);
+            StyleAttribute colorFallbacks = getAttribute("fallback", grad);
+            StyleAttribute opacityFallbacks = getAttribute("opacity-fallback", grad);
+            // The stop color only uses the rgb components of the color.
+            Pair<LinearGradient, Runnable> result =
+                    createColor(colors[i], grad.getId(), getOpacityKey(grad),
+                            new StyleAttribute[] {colorFallbacks, opacityFallbacks},
+                            startOpacities[i], endOpacities[i]);
+            LinearGradient gradient = result.getFirst();
+            Runnable finalizer = result.getSecond();
+            themedDefs.loaderAddChild(null, gradient);
+            finalizer.run();
+        }
+    }
 
-                Color c = resolveColor(id, getFallbacks(colorFallbacks), FALLBACK_COLOR, defaults, contextDefaults);
-                Pair<LinearGradient, Runnable> result =
-                        createColor(c, id, opacityKey, new StyleAttribute[] {colorFallbacks, opacityFallbacks},
-                                opacity1, opacity2);
-                LinearGradient gradient = result.getFirst();
-                Runnable finalizer = result.getSecond();
-                themedDefs.loaderAddChild(null, gradient);
-                finalizer.run();
+    /*
+     * Resolves the colors of a compiled svg document in the same way the gradients of the document
+     * would have been patched.
+     */
+    static Color[] resolveColors(final CompiledSVG svg, final Map<Object, Object> defaults,
+            final Map<Object, Object> contextDefaults) {
+        Color[] colors = new Color[svg.getColorCount()];
+        for (int i = 0; i < colors.length; i++) {
+            CompiledSVG.ColorDefinition definition = svg.getColorDefinition(i);
+            if (!definition.isThemed()) {
+                colors[i] = getDefaultColor(definition);
+                continue;
             }
+            float opacity = getOpacity(definition.getOpacityKey(), definition.getOpacityFallbacks(),
+                    defaults, contextDefaults);
+            if (opacity < 0) opacity = definition.getStopOpacity() < 0 ? 1 : definition.getStopOpacity();
+            Color c = resolveColor(definition.getKey(), definition.getFallbacks(), FALLBACK_COLOR,
+                    defaults, contextDefaults);
+            colors[i] = new Color(c.getRed(), c.getGreen(), c.getBlue(), Math.round(255 * opacity));
         }
+        return colors;
+    }
+
+    /*
+     * The colors of a compiled svg document as defined in the document itself.
+     */
+    static Color[] getDefaultColors(final CompiledSVG svg) {
+        Color[] colors = new Color[svg.getColorCount()];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = getDefaultColor(svg.getColorDefinition(i));
+        }
+        return colors;
+    }
+
+    private static Color getDefaultColor(final CompiledSVG.ColorDefinition definition) {
+        Color c = definition.getDefaultColor();
+        float opacity = definition.getStopOpacity();
+        if (opacity < 0) return c;
+        return new Color(c.getRed(), c.getGreen(), c.getBlue(), Math.round(255 * opacity));
     }
 
     public static float getOpacity(final LinearGradient gradient, final Map<Object, Object> propertyMap,
@@ -255,7 +383,12 @@ public final class IconColorMapper {
 
     public static Map<Object, Object> getProperties(final SVGIcon svgIcon) {
         SVGUniverse universe = svgIcon.getSvgUniverse();
-        SVGDiagram diagram = universe.getDiagram(svgIcon.getSvgURI());
+        synchronized (universe) {
+            return getProperties(universe.getDiagram(svgIcon.getSvgURI()));
+        }
+    }
+
+    private static Map<Object, Object> getProperties(final SVGDiagram diagram) {
         SVGElement defs = diagram.getElement("colors");
         Map<Object, Object> values = new HashMap<>();
         if (defs != null) {
@@ -284,6 +417,21 @@ public final class IconColorMapper {
         return values;
     }
 
+    public static Map<Object, Object> getProperties(final CompiledSVG svg) {
+        Map<Object, Object> values = new HashMap<>();
+        for (int i = 0; i < svg.getColorCount(); i++) {
+            CompiledSVG.ColorDefinition definition = svg.getColorDefinition(i);
+            if (!definition.isThemed()) continue;
+            values.put(definition.getKey(), definition.getDefaultColor());
+            String opacityKey = definition.getOpacityKey();
+            if (opacityKey != null && !opacityKey.isEmpty()) {
+                float opacity = definition.getStopOpacity();
+                values.put(opacityKey, opacity >= 0 ? (int) (100 * opacity) : 100);
+            }
+        }
+        return values;
+    }
+
     public static <T> Pair<Object, T> getEntry(final Map<Object, Object> map, final Map<Object, Object> contextDefaults,
             final Object key, final Object[] fallbacks, final Class<T> type) {
         Object obj = null;
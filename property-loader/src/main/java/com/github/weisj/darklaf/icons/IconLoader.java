@@ -25,36 +25,50 @@ import java.awt.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.swing.*;
 
-import com.github.weisj.darklaf.util.LazyValue;
 import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.PropertyUtil;
 
 /** @author Jannis Weis */
 public final class IconLoader {
     private static final Logger LOGGER = LogUtil.getLogger(IconLoader.class);
-    private static final Map<Class<?>, IconLoader> iconLoaderMap = new HashMap<>();
-    private static final LazyValue<IconLoader> instance = new LazyValue<>(() -> get(null));
+    private static final Map<Class<?>, IconLoader> iconLoaderMap = new ConcurrentHashMap<>();
+    private static final IconLoader instance = new IconLoader(null);
+
+    public static final String CACHE_SIZE_PROPERTY = "darklaf.iconCacheSize";
+    public static final String ASYNC_LOADING_PROPERTY = "darklaf.asyncIconLoading";
+    public static final String COMPILED_ICONS_PROPERTY = "darklaf.compiledIcons";
+    private static final int DEFAULT_CACHE_SIZE = 1024;
 
     private static final AtomicReference<Object> currentThemeKey = new AtomicReference<>(null);
     private static final AtomicReference<AwareIconStyle> currentAwareStyle = new AtomicReference<>(null);
+    private static volatile boolean asyncLoadingEnabled =
+            PropertyUtil.getSystemFlag(ASYNC_LOADING_PROPERTY, false);
 
     // Infer size by default.
     private static final int DEFAULT_WIDTH_SVG = -1;
     private static final int DEFAULT_HEIGHT_SVG = -1;
     private final Class<?> parentClass;
 
-    private boolean cacheEnabled = true;
-    private final Map<IconKey, DarkUIAwareIcon> awareIconMap = new HashMap<>();
-    private final Map<IconKey, Icon> iconMap = new HashMap<>();
+    private volatile boolean cacheEnabled = true;
+    private final IconCache<DarkUIAwareIcon> awareIconMap = new IconCache<>(getDefaultCacheSize());
+    private final IconCache<Icon> iconMap = new IconCache<>(getDefaultCacheSize());
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
 
     static {
         UIManager.addPropertyChangeListener(e -> {
@@ -68,7 +82,6 @@ public final class IconLoader {
 
     private IconLoader(final Class<?> parentClass) {
         this.parentClass = parentClass;
-        iconLoaderMap.put(parentClass, this);
     }
 
     /**
@@ -77,7 +90,7 @@ public final class IconLoader {
      * @return the default icon loader.
      */
     public static IconLoader get() {
-        return instance.get();
+        return instance;
     }
 
     /**
@@ -86,13 +99,8 @@ public final class IconLoader {
      * @return the default icon loader.
      */
     public static IconLoader get(final Class<?> parentClass) {
-        if (iconLoaderMap.containsKey(parentClass)) {
-            return iconLoaderMap.get(parentClass);
-        } else {
-            IconLoader loader = new IconLoader(parentClass);
-            iconLoaderMap.put(parentClass, loader);
-            return loader;
-        }
+        if (parentClass == null) return instance;
+        return iconLoaderMap.computeIfAbsent(parentClass, IconLoader::new);
     }
 
     /**
@@ -113,6 +121,41 @@ public final class IconLoader {
         return cacheEnabled;
     }
 
+    /**
+     * Sets the maximum number of icons which are cached. If the cache exceeds the size the least
+     * recently used icons are evicted. The size applies separately to aware icons and all other
+     * icons. The default size can be set using the system property {@value #CACHE_SIZE_PROPERTY}.
+     *
+     * @param maxSize the maximum number of cached icons.
+     */
+    public void setCacheSize(final int maxSize) {
+        if (maxSize < 0) throw new IllegalArgumentException("Negative cache size " + maxSize);
+        iconMap.setMaxSize(maxSize);
+        awareIconMap.setMaxSize(maxSize);
+    }
+
+    /** Removes all cached icons. Icons which are still referenced elsewhere continue to work. */
+    public void clearCache() {
+        iconMap.clear();
+        awareIconMap.clear();
+    }
+
+    /**
+     * Get the statistics of the icon cache of this loader.
+     *
+     * @return the cache statistics.
+     */
+    public IconCacheStatistics getCacheStatistics() {
+        return new IconCacheStatistics(cacheHits.sum(), cacheMisses.sum(),
+                iconMap.getEvictions() + awareIconMap.getEvictions(),
+                iconMap.size() + awareIconMap.size(),
+                iconMap.getRetainedRasterBytes() + awareIconMap.getRetainedRasterBytes());
+    }
+
+    private static int getDefaultCacheSize() {
+        return Math.max(0, Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+    }
+
     /**
      * Updates the style of aware icons. Changing it will force aware icons to change their appearance
      * accordingly.
@@ -133,6 +176,121 @@ public final class IconLoader {
         currentThemeKey.set(theme);
     }
 
+    /**
+     * Sets the memory budget of the shared cache of rasterized svg icons. If the retained images exceed
+     * the budget the least recently used images are evicted. The default budget can be set using the
+     * system property {@code darklaf.iconRasterCacheBudget}.
+     *
+     * @param bytes the budget in bytes.
+     */
+    public static void setRasterCacheBudget(final long bytes) {
+        if (bytes < 0) throw new IllegalArgumentException("Negative budget " + bytes);
+        RasterCache.setBudget(bytes);
+    }
+
+    /**
+     * Get the statistics of the shared cache of rasterized svg icons.
+     *
+     * @return the cache statistics.
+     */
+    public static IconCacheStatistics getRasterCacheStatistics() {
+        return RasterCache.getStatistics();
+    }
+
+    /** Removes all images from the shared cache of rasterized svg icons. */
+    public static void clearRasterCache() {
+        RasterCache.clear();
+    }
+
+    /**
+     * Sets whether svg icons are loaded and rasterized on a background thread. Until an icon is ready
+     * its previous image or nothing is painted and the component is repainted once the icon has been
+     * loaded. The size of the icons is available immediately. Icons painted without a component are
+     * always loaded synchronously. Async loading is disabled by default and can be enabled using the
+     * system property {@value #ASYNC_LOADING_PROPERTY}.
+     *
+     * @param enabled true if icons should be loaded asynchronously.
+     */
+    public static void setAsyncLoadingEnabled(final boolean enabled) {
+        asyncLoadingEnabled = enabled;
+    }
+
+    /**
+     * Returns whether svg icons are loaded and rasterized on a background thread.
+     *
+     * @return true if icons are loaded asynchronously.
+     * @see #setAsyncLoadingEnabled(boolean)
+     */
+    public static boolean isAsyncLoadingEnabled() {
+        return asyncLoadingEnabled;
+    }
+
+    /**
+     * Sets whether svg icons which have been compiled at build time are painted using their compiled
+     * version instead of parsing the svg document. This only affects icons which haven't been loaded
+     * yet. Compiled icons are disabled by default and can be enabled using the system property
+     * {@value #COMPILED_ICONS_PROPERTY}.
+     *
+     * @param enabled true if compiled icons should be used.
+     * @see CompiledSVGProvider
+     */
+    public static void setCompiledIconsEnabled(final boolean enabled) {
+        CompiledSVGs.setEnabled(enabled);
+    }
+
+    /**
+     * Returns whether compiled svg icons are used.
+     *
+     * @return true if compiled icons are used.
+     * @see #setCompiledIconsEnabled(boolean)
+     */
+    public static boolean isCompiledIconsEnabled() {
+        return CompiledSVGs.isEnabled();
+    }
+
+    /**
+     * Packs the rasterized images of the given icons into a single image, which the icons paint from
+     * instead of their own images. Frequently painted icons profit from the better locality and the
+     * reduced number of images Java2D has to manage. Only svg icons which are loaded through an
+     * {@link IconLoader} can be part of an atlas. The atlas is only used as long as the theme doesn't
+     * change and replaces any previously created atlas.
+     *
+     * @param icons the icons to include in the atlas.
+     * @return the number of icons in the atlas.
+     */
+    public static int createIconAtlas(final Collection<? extends Icon> icons) {
+        return IconAtlas.install(icons);
+    }
+
+    /** Removes the icon atlas created by {@link #createIconAtlas(Collection)}. */
+    public static void clearIconAtlas() {
+        IconAtlas.uninstall();
+    }
+
+    /**
+     * Loads the svg icons referenced by the current {@link UIDefaults} and rasterizes them for the
+     * scales of the available screen devices. The work is done on the common fork join pool.
+     *
+     * @return a future which completes when all icons are preloaded.
+     * @see #preloadIcons(Collection)
+     */
+    public static CompletableFuture<Void> preloadDefaultIcons() {
+        return preloadIcons(new ArrayList<>(UIManager.getDefaults().values()));
+    }
+
+    /**
+     * Loads the given svg icons and rasterizes them for the scales of the available screen devices.
+     * The work is done on the common fork join pool. The rasterized images are put into the shared
+     * raster cache, hence painting the icons later on doesn't need to rasterize them again. Icons
+     * which aren't svg icons are ignored.
+     *
+     * @param icons the icons to preload.
+     * @return a future which completes when all icons are preloaded.
+     */
+    public static CompletableFuture<Void> preloadIcons(final Collection<?> icons) {
+        return IconPreloader.preload(icons);
+    }
+
     /** Reload all created frame icons if necessary. */
     public static void reloadFrameIcons() {
         IconUtil.reloadDynamicFrameIcons();
@@ -203,13 +361,15 @@ public final class IconLoader {
      */
     public DarkUIAwareIcon getUIAwareIcon(final String path, final int w, final int h) {
         IconKey key = new IconKey(path, w, h);
-        if (isCacheEnabled() && awareIconMap.containsKey(key)) {
-            return awareIconMap.get(key);
-        } else {
-            DarkUIAwareIcon icon = createUIAwareIcon(path, w, h);
-            cache(awareIconMap, key, icon);
-            return icon;
+        if (isCacheEnabled()) {
+            DarkUIAwareIcon icon = awareIconMap.get(key);
+            if (icon != null) {
+                cacheHits.increment();
+                return icon;
+            }
+            cacheMisses.increment();
         }
+        return cache(awareIconMap, key, createUIAwareIcon(path, w, h));
     }
 
     /*
@@ -277,45 +437,69 @@ public final class IconLoader {
         return getIconImpl(path, w, h, themed);
     }
 
+    /**
+     * Loads the icons at the specified locations and rasterizes them for the scales of the available
+     * screen devices. The icons are put into the cache of this loader, while parsing and rasterizing
+     * is done on the common fork join pool.
+     *
+     * @see #getIcon(String, int, int, boolean)
+     * @see #preloadIcons(Collection)
+     * @param paths the paths to the icons with respect to the IconLoader resource root.
+     * @param w the icon width.
+     * @param h the icon height.
+     * @param themed determines whether the icons are themed.
+     * @return a future which completes when all icons are preloaded.
+     */
+    public CompletableFuture<Void> preload(final Collection<String> paths, final int w, final int h,
+            final boolean themed) {
+        List<Icon> icons = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            icons.add(getIcon(path, w, h, themed));
+        }
+        return preloadIcons(icons);
+    }
+
     private Icon getIconImpl(final String path, final int w, final int h, final boolean themed) {
         IconKey key = new IconKey(path, w, h);
 
         if (isCacheEnabled()) {
-            if (iconMap.containsKey(key)) {
-                return iconMap.get(key);
-            } else if (awareIconMap.containsKey(key)) {
-                return awareIconMap.get(key);
+            Icon icon = iconMap.get(key);
+            if (icon == null) icon = awareIconMap.get(key);
+            if (icon != null) {
+                cacheHits.increment();
+                return icon;
             }
-            Icon icon = getWildcardIcon(iconMap, key, w, h);
+            cacheMisses.increment();
+            icon = getVariantIcon(key);
             if (icon != null) return icon;
         }
 
         // Icon not found or caching is disabled.
         Icon icon = isSVGIcon(path)
-                ? loadSVGIcon(path, w, h, themed, null, key)
+                ? loadSVGIcon(path, w, h, themed, null)
                 : new DerivableImageIcon(new LazyImageIconSupplier(path, key, parentClass), w, h);
-        cache(iconMap, key, icon);
-        return icon;
+        return cache(iconMap, key, icon);
     }
 
-    private Icon getWildcardIcon(final Map<IconKey, Icon> iconMap, final IconKey iconKey, final int w, final int h) {
-        iconKey.isWildcardEnabled = true;
-        Icon icon = iconMap.get(iconKey);
+    /*
+     * Derives the icon from a cached icon of a different size if possible.
+     */
+    private Icon getVariantIcon(final IconKey key) {
+        Icon icon = iconMap.getVariant(key.path);
         if (icon instanceof DerivableIcon) {
             @SuppressWarnings("unchecked")
-            Icon derived = ((DerivableIcon<Icon>) icon).derive(w, h);
-            iconKey.isWildcardEnabled = false;
-            cache(iconMap, iconKey, derived);
-            return derived;
+            Icon derived = ((DerivableIcon<Icon>) icon).derive(key.w, key.h);
+            return cache(iconMap, key, derived);
         }
-        iconKey.isWildcardEnabled = false;
         return null;
     }
 
-    private <T extends Icon> void cache(final Map<IconKey, T> iconMap, final IconKey key, final T icon) {
+    private <T extends Icon> T cache(final IconCache<T> iconMap, final IconKey key, final T icon) {
         if (cacheEnabled) {
-            iconMap.put(key, icon);
+            // Another thread may have cached an icon in the meantime. Use it to keep icons unique.
+            return iconMap.putIfAbsent(key, icon);
         }
+        return icon;
     }
 
     /**
@@ -362,11 +546,6 @@ public final class IconLoader {
      */
     public Icon loadSVGIcon(final String path, final int w, final int h, final boolean themed,
             final Map<Object, Object> propertyMap) {
-        return loadSVGIcon(path, w, h, themed, propertyMap, null);
-    }
-
-    private Icon loadSVGIcon(final String path, final int w, final int h, final boolean themed,
-            final Map<Object, Object> propertyMap, final IconKey iconKey) {
         Supplier<URI> uriSupplier = createURISupplier(path);
         DarkSVGIcon svgIcon;
         if (themed) {
@@ -378,7 +557,6 @@ public final class IconLoader {
         } else {
             svgIcon = new DarkSVGIcon(createURISupplier(path), w, h);
         }
-        svgIcon.setIconKey(iconKey);
         return svgIcon;
     }
 
@@ -463,9 +641,8 @@ public final class IconLoader {
 
     protected static final class IconKey {
         final String path;
-        int w;
-        int h;
-        boolean isWildcardEnabled;
+        final int w;
+        final int h;
 
         private IconKey(final String path, final int w, final int h) {
             this.path = path;
@@ -475,7 +652,10 @@ public final class IconLoader {
 
         @Override
         public int hashCode() {
-            return Objects.hashCode(path);
+            int result = Objects.hashCode(path);
+            result = 31 * result + w;
+            result = 31 * result + h;
+            return result;
         }
 
         @Override
@@ -485,10 +665,6 @@ public final class IconLoader {
 
             IconKey iconKey = (IconKey) o;
 
-            if (iconKey.isWildcardEnabled || this.isWildcardEnabled) {
-                // Math any size.
-                return Objects.equals(path, iconKey.path);
-            }
             if (w != iconKey.w) return false;
             if (h != iconKey.h) return false;
             return Objects.equals(path, iconKey.path);
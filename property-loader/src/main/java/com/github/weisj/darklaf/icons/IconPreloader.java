@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.Scale;
+
+/**
+ * Loads and rasterizes svg icons ahead of their first use. Every icon is processed for each scale of
+ * the available screen devices, which fills the raster cache with the images the icons will paint.
+ *
+ * <p>
+ * Icons with a compiled document are rasterized in parallel on the common fork join pool. Icons which
+ * need to parse their document are processed one after another on a single task, as parsing and
+ * rendering is serialized on the svg universe shared by all icons.
+ *
+ * @author Jannis Weis
+ */
+final class IconPreloader {
+
+    private static final Logger LOGGER = LogUtil.getLogger(IconPreloader.class);
+
+    private IconPreloader() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static CompletableFuture<Void> preload(final Collection<?> icons) {
+        Set<DarkSVGIcon> svgIcons = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object icon : icons) {
+            collect(icon, svgIcons);
+        }
+        if (svgIcons.isEmpty()) return CompletableFuture.completedFuture(null);
+        Collection<Point2D> scales = getDeviceScales();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<DarkSVGIcon> parsedIcons = new ArrayList<>();
+        for (DarkSVGIcon icon : svgIcons) {
+            if (hasCompiledSVG(icon)) {
+                futures.add(CompletableFuture.runAsync(() -> preload(icon, scales), ForkJoinPool.commonPool()));
+            } else {
+                parsedIcons.add(icon);
+            }
+        }
+        if (!parsedIcons.isEmpty()) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (DarkSVGIcon icon : parsedIcons) {
+                    preload(icon, scales);
+                }
+            }, ForkJoinPool.commonPool()));
+        }
+        LOGGER.fine(() -> "Preloading " + svgIcons.size() + " icons for scales " + scales);
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private static void preload(final DarkSVGIcon icon, final Collection<Point2D> scales) {
+        try {
+            icon.preload(scales);
+        } catch (final RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not preload icon " + icon, e);
+        }
+    }
+
+    private static boolean hasCompiledSVG(final DarkSVGIcon icon) {
+        try {
+            return icon.getCompiledSVG() != null;
+        } catch (final RuntimeException e) {
+            // Reported when the icon is preloaded.
+            return false;
+        }
+    }
+
+    private static void collect(final Object icon, final Set<DarkSVGIcon> svgIcons) {
+        if (icon instanceof StateIcon) {
+            for (Icon stateIcon : ((StateIcon) icon).getStateIcons()) {
+                collect(stateIcon, svgIcons);
+            }
+        } else if (icon instanceof DarkUIAwareIcon) {
+            collect(((DarkUIAwareIcon) icon).getCurrentStyleIcon(), svgIcons);
+        } else if (icon instanceof DarkSVGIcon) {
+            svgIcons.add((DarkSVGIcon) icon);
+        }
+    }
+
+    static Collection<Point2D> getDeviceScales() {
+        Set<Point2D> scales = new LinkedHashSet<>();
+        if (!GraphicsEnvironment.isHeadless()) {
+            for (GraphicsDevice device : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+                GraphicsConfiguration gc = device.getDefaultConfiguration();
+                scales.add(new Point2D.Double(Scale.getScaleX(gc), Scale.getScaleY(gc)));
+            }
+        }
+        if (scales.isEmpty()) {
+            GraphicsConfiguration gc = null;
+            scales.add(new Point2D.Double(Scale.getScaleX(gc), Scale.getScaleY(gc)));
+        }
+        return scales;
+    }
+}
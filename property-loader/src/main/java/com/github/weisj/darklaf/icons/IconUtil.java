@@ -22,27 +22,41 @@
 package com.github.weisj.darklaf.icons;
 
 import java.awt.*;
+import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeListener;
+import java.util.Collections;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.swing.*;
 
 import com.github.weisj.darklaf.util.ImageUtil;
+import com.github.weisj.darklaf.util.LogUtil;
 import com.github.weisj.darklaf.util.PropertyKey;
 import com.github.weisj.darklaf.util.Scale;
 
 public final class IconUtil {
 
+    private static final Logger LOGGER = LogUtil.getLogger(IconUtil.class);
+
     private static final int FRAME_ICON_SIZE = 32;
+    private static final double[] FRAME_ICON_SCALES = {1, 1.25, 1.5, 2};
     private static final Map<Window, Icon> windowIconSet = new WeakHashMap<>();
+    private static final Map<Icon, FrameImages> frameImages = new WeakHashMap<>();
 
     /** Reload all created frame icons if necessary. */
     public static void reloadDynamicFrameIcons() {
-        SwingUtilities.invokeLater(() -> {
-            windowIconSet.forEach((window, icon) -> window.setIconImage(iconToImage(icon, window)));
-        });
+        SwingUtilities.invokeLater(() -> windowIconSet.forEach((window, icon) -> updateFrameIcon(window, icon)));
     }
 
     static int getDynamicFrameIconCount() {
@@ -51,35 +65,69 @@ public final class IconUtil {
 
     public static Image createFrameIcon(final Icon icon, final Window c) {
         if (icon == null) return null;
+        FrameImages images = getFrameImages(icon);
         if (c != null) {
             if (isDynamic(icon)) {
                 windowIconSet.put(c, icon);
             }
-            PropertyChangeListener propertyChangeListener = e -> c.setIconImage(iconToImage(icon, c));
+            PropertyChangeListener propertyChangeListener = e -> updateFrameIcon(c, icon);
             c.addPropertyChangeListener(PropertyKey.GRAPHICS_CONFIGURATION, propertyChangeListener);
         }
-        return createScaledFrameIcon(icon, c);
+        Image image = images.getImage(getFrameScale(c));
+        if (image == null) {
+            // Only the first frame icon is rasterized on the calling thread.
+            image = iconToImage(icon, c);
+            if (c != null) images.whenDone(() -> updateFrameIcon(c, icon));
+        }
+        return image;
     }
 
     private static boolean isDynamic(final Icon icon) {
         return icon instanceof DynamicIcon;
     }
 
-    private static Image createScaledFrameIcon(final Icon icon, final Window c) {
-        if (c != null && !c.isVisible()) {
-            Component parent = c.getParent();
-            if (parent != null) {
-                return iconToImage(icon, c);
+    /*
+     * Sets the pre-rendered image matching the scale of the window. If the images aren't rendered yet
+     * the icon is updated as soon as they are available.
+     */
+    private static void updateFrameIcon(final Window window, final Icon icon) {
+        FrameImages images = getFrameImages(icon);
+        Image image = images.getImage(getFrameScale(window));
+        if (image != null) {
+            window.setIconImage(image);
+        } else if (images.isDone()) {
+            window.setIconImage(iconToImage(icon, window));
+        } else {
+            images.whenDone(() -> updateFrameIcon(window, icon));
+        }
+    }
+
+    private static double getFrameScale(final Component c) {
+        GraphicsConfiguration gc = c != null ? c.getGraphicsConfiguration() : null;
+        return Math.max(Scale.getScaleX(gc), Scale.getScaleY(gc));
+    }
+
+    /*
+     * Dynamic icons change their appearance with the theme, hence their images are rendered again
+     * for every theme.
+     */
+    private static FrameImages getFrameImages(final Icon icon) {
+        Object themeKey = isDynamic(icon) ? IconLoader.getThemeStatus() : null;
+        synchronized (frameImages) {
+            FrameImages images = frameImages.get(icon);
+            if (images == null || images.themeKey != themeKey) {
+                images = new FrameImages(icon, themeKey);
+                frameImages.put(icon, images);
             }
+            return images;
         }
-        return iconToImage(icon, c);
     }
 
     public static Image iconToImage(final Icon icon, final Component c) {
         if (icon == null) return null;
         int w = icon.getIconWidth();
         int h = icon.getIconHeight();
-        GraphicsConfiguration gc = c.getGraphicsConfiguration();
+        GraphicsConfiguration gc = c != null ? c.getGraphicsConfiguration() : null;
         double sx = Scale.getScaleX(gc);
         double sy = Scale.getScaleY(gc);
         double scaleX = sx * (((double) FRAME_ICON_SIZE) / w);
@@ -114,4 +162,62 @@ public final class IconUtil {
                     IconUtil.createScaledImage(icon, iconWidth / (double) w, iconHeight / (double) h));
         }
     }
+
+    /*
+     * The frame icon images of an icon for the common scales and the scales of the available screen
+     * devices. Java 8 has no public multi resolution image, so windows pick the image matching their
+     * scale. Images of image sources are created on the common fork join pool. Other icons are painted
+     * on the event dispatch thread, as painting may change the state of icons shared with components.
+     */
+    private static final class FrameImages {
+        private final Object themeKey;
+        private final CompletableFuture<NavigableMap<Double, Image>> images;
+
+        private FrameImages(final Icon icon, final Object themeKey) {
+            this.themeKey = themeKey;
+            Icon source = icon instanceof DarkUIAwareIcon ? ((DarkUIAwareIcon) icon).getCurrentStyleIcon() : icon;
+            Executor executor = source instanceof ImageSource ? ForkJoinPool.commonPool() : SwingUtilities::invokeLater;
+            this.images = CompletableFuture.supplyAsync(() -> render(source), executor).exceptionally(e -> {
+                LOGGER.log(Level.WARNING, "Could not render frame icon " + icon, e);
+                return Collections.emptyNavigableMap();
+            });
+        }
+
+        private static NavigableMap<Double, Image> render(final Icon icon) {
+            Set<Double> scales = new TreeSet<>();
+            for (double scale : FRAME_ICON_SCALES) {
+                scales.add(scale);
+            }
+            for (Point2D scale : IconPreloader.getDeviceScales()) {
+                scales.add(Math.max(scale.getX(), scale.getY()));
+            }
+            double sx = ((double) FRAME_ICON_SIZE) / icon.getIconWidth();
+            double sy = ((double) FRAME_ICON_SIZE) / icon.getIconHeight();
+            NavigableMap<Double, Image> images = new TreeMap<>();
+            for (double scale : scales) {
+                images.put(scale, createScaledImage(icon, scale * sx, scale * sy));
+            }
+            return images;
+        }
+
+        private boolean isDone() {
+            return images.isDone();
+        }
+
+        private void whenDone(final Runnable action) {
+            images.thenRun(() -> SwingUtilities.invokeLater(action));
+        }
+
+        /*
+         * The image with the smallest scale not less than the given one, or the largest image if there
+         * is none. Returns null if the images aren't rendered yet.
+         */
+        private Image getImage(final double scale) {
+            NavigableMap<Double, Image> map = images.getNow(null);
+            if (map == null || map.isEmpty()) return null;
+            Map.Entry<Double, Image> entry = map.ceilingEntry(scale - 1E-6);
+            if (entry == null) entry = map.lastEntry();
+            return entry.getValue();
+        }
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chain of progressively halved versions of an image. Scaled images are created from the smallest
+ * level which is still at least as large as the requested size, which keeps large downscales both
+ * fast and free of aliasing. The levels are created on demand and shared by all icons derived from
+ * the same source image, hence they live as long as one of these icons is referenced. The most
+ * recently requested scaled images are kept, such that icons of the same size share one image.
+ *
+ * @author Jannis Weis
+ */
+final class MipMap {
+
+    private static final int MAX_SCALED_IMAGES = 16;
+
+    private final List<BufferedImage> levels = new ArrayList<>();
+    private final Map<Dimension, Image> scaledImages = new LinkedHashMap<>(16, 0.75f, true);
+
+    private MipMap(final BufferedImage source) {
+        levels.add(source);
+    }
+
+    /**
+     * Creates the mip map for the given image. The image is loaded if necessary. Images with multiple
+     * frames e.g. animated gifs aren't supported, as the mip map would only contain the current frame.
+     *
+     * @param source the source image.
+     * @return the mip map or null if the image couldn't be loaded or has multiple frames.
+     */
+    static MipMap create(final Image source) {
+        if (source == null) return null;
+        if (source instanceof BufferedImage) return new MipMap((BufferedImage) source);
+        if (!DerivableImageIcon.ensureImageLoaded(source) || !isStatic(source)) return null;
+        int width = source.getWidth(null);
+        int height = source.getHeight(null);
+        if (width <= 0 || height <= 0) return null;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return new MipMap(image);
+    }
+
+    /*
+     * Multi frame images are loaded as soon as their first frame is complete. Only static images are
+     * ever completely loaded.
+     */
+    private static boolean isStatic(final Image image) {
+        int flags = Toolkit.getDefaultToolkit().checkImage(image, -1, -1, null);
+        return (flags & ImageObserver.ALLBITS) != 0;
+    }
+
+    /**
+     * Returns the image scaled to the given size.
+     *
+     * @param width the width of the image.
+     * @param height the height of the image.
+     * @return the scaled image.
+     */
+    synchronized Image getScaledImage(final int width, final int height) {
+        Dimension size = new Dimension(width, height);
+        Image image = scaledImages.get(size);
+        if (image == null) {
+            image = scale(getLevel(width, height), width, height);
+            scaledImages.put(size, image);
+            trim();
+        }
+        return image;
+    }
+
+    private BufferedImage getLevel(final int width, final int height) {
+        int index = 0;
+        BufferedImage level = levels.get(0);
+        while (level.getWidth() / 2 >= width && level.getHeight() / 2 >= height) {
+            index++;
+            if (index == levels.size()) {
+                levels.add(scale(level, level.getWidth() / 2, level.getHeight() / 2));
+            }
+            level = levels.get(index);
+        }
+        return level;
+    }
+
+    private static BufferedImage scale(final BufferedImage image, final int width, final int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    private void trim() {
+        Iterator<Dimension> iterator = scaledImages.keySet().iterator();
+        while (scaledImages.size() > MAX_SCALED_IMAGES && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Process wide cache of rasterized svg icons. Icons which render the same content at the same size
+ * share one image, regardless of how many icon instances exist. The cache evicts the least recently
+ * used images once the retained images exceed the memory budget.
+ *
+ * @author Jannis Weis
+ */
+final class RasterCache {
+
+    static final String BUDGET_PROPERTY = "darklaf.iconRasterCacheBudget";
+    private static final long DEFAULT_BUDGET = 32L * 1024 * 1024;
+
+    private static final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private static long budget = Math.max(0, Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET));
+    private static long retainedBytes;
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+
+    private RasterCache() {}
+
+    /**
+     * Returns the cached image for the key or rasterizes a new one using the given supplier.
+     *
+     * @param key the key describing the content of the image.
+     * @param rasterizer creates the image if it isn't cached.
+     * @return the image.
+     */
+    static Image get(final Key key, final Supplier<Image> rasterizer) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.image;
+            }
+            misses++;
+        }
+        // Rasterize outside the lock. If two threads race the second image simply replaces the first.
+        Image image = rasterizer.get();
+        long bytes = IconCache.getRasterBytes(image);
+        synchronized (entries) {
+            if (bytes > budget) return image;
+            Entry previous = entries.put(key, new Entry(image, bytes));
+            if (previous != null) retainedBytes -= previous.bytes;
+            retainedBytes += bytes;
+            trim();
+        }
+        return image;
+    }
+
+    static void setBudget(final long budget) {
+        synchronized (entries) {
+            RasterCache.budget = budget;
+            trim();
+        }
+    }
+
+    static long getBudget() {
+        synchronized (entries) {
+            return budget;
+        }
+    }
+
+    static void clear() {
+        synchronized (entries) {
+            entries.clear();
+            retainedBytes = 0;
+        }
+    }
+
+    static IconCacheStatistics getStatistics() {
+        synchronized (entries) {
+            return new IconCacheStatistics(hits, misses, evictions, entries.size(), retainedBytes);
+        }
+    }
+
+    private static void trim() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (retainedBytes > budget && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            retainedBytes -= entry.bytes;
+            evictions++;
+        }
+    }
+
+    private static final class Entry {
+        private final Image image;
+        private final long bytes;
+
+        private Entry(final Image image, final long bytes) {
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+
+    /*
+     * Identifies the content of a rasterized icon. The content key determines the svg document and its
+     * colors. The theme key changes whenever the colors of themed icons are patched.
+     */
+    static final class Key {
+        private final Object contentKey;
+        private final Object themeKey;
+        private final int width;
+        private final int height;
+        private final double scaleX;
+        private final double scaleY;
+        private final boolean extraScale;
+
+        Key(final Object contentKey, final Object themeKey, final Dimension displaySize, final double scaleX,
+                final double scaleY, final boolean extraScale) {
+            this.contentKey = contentKey;
+            this.themeKey = themeKey;
+            this.width = displaySize.width;
+            this.height = displaySize.height;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.extraScale = extraScale;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return width == key.width
+                    && height == key.height
+                    && Double.compare(key.scaleX, scaleX) == 0
+                    && Double.compare(key.scaleY, scaleY) == 0
+                    && extraScale == key.extraScale
+                    && themeKey == key.themeKey
+                    && Objects.equals(contentKey, key.contentKey);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hashCode(contentKey);
+            result = 31 * result + System.identityHashCode(themeKey);
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + Double.hashCode(scaleX);
+            result = 31 * result + Double.hashCode(scaleY);
+            result = 31 * result + Boolean.hashCode(extraScale);
+            return result;
+        }
+    }
+}
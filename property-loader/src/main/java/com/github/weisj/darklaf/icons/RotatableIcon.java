@@ -33,6 +33,7 @@ public class RotatableIcon implements Icon {
     private Icon icon;
     private Alignment alignment;
     private double angle;
+    private int frameCount;
 
     public RotatableIcon() {
         this(null);
@@ -50,9 +51,28 @@ public class RotatableIcon implements Icon {
         return icon;
     }
 
+    /**
+     * Sets the number of frames a full rotation of the icon is divided into. If the count is positive
+     * the icon is rendered once for each of the frame angles and rotations matching a frame paint the
+     * pre-rendered frame. This should only be used if the appearance of the icon doesn't depend on the
+     * component it is painted on.
+     *
+     * @param frameCount the number of frames or 0 if no frames should be rendered.
+     */
+    public void setFrameCount(final int frameCount) {
+        this.frameCount = Math.max(0, frameCount);
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
     @Override
     public void paintIcon(final Component c, final Graphics g, final int x, final int y) {
-        if (icon instanceof RotateIcon) {
+        int frame = RotationFrames.getFrameIndex(getAngle(), frameCount);
+        if (frame >= 0 && icon != null) {
+            RotationFrames.paintFrame(icon, c, g, x, y, frame, frameCount);
+        } else if (icon instanceof RotateIcon) {
             ((RotateIcon) icon).paintIcon(c, g, x, y, getAngle());
         } else if (icon != null) {
             Graphics2D g2 = (Graphics2D) g.create();
@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.util.Scale;
+
+/**
+ * Pre-rendered frames of rotated icons. A full rotation is divided into a fixed number of frames,
+ * each of which is rendered once per icon, size and scale. The frames are kept in the shared
+ * {@link RasterCache} and are invalidated whenever the theme changes.
+ *
+ * @author Jannis Weis
+ */
+final class RotationFrames {
+
+    private RotationFrames() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns the frame index for the given angle or -1 if the angle doesn't correspond to a frame.
+     *
+     * @param angle the rotation angle in radians.
+     * @param frameCount the number of frames of a full rotation.
+     * @return the frame index.
+     */
+    static int getFrameIndex(final double angle, final int frameCount) {
+        if (frameCount <= 0) return -1;
+        double frame = angle / (2 * Math.PI) * frameCount;
+        long rounded = Math.round(frame);
+        if (Math.abs(frame - rounded) > 1E-6) return -1;
+        return Math.floorMod((int) (rounded % frameCount), frameCount);
+    }
+
+    static void paintFrame(final Icon icon, final Component c, final Graphics g, final int x, final int y,
+            final int frame, final int frameCount) {
+        int width = icon.getIconWidth();
+        int height = icon.getIconHeight();
+        if (width <= 0 || height <= 0) return;
+        GraphicsConfiguration gc = c != null ? c.getGraphicsConfiguration() : null;
+        double sx = Scale.getScaleX(gc);
+        double sy = Scale.getScaleY(gc);
+        Object contentKey = new FrameKey(getContentKey(icon), frame, frameCount);
+        RasterCache.Key key = new RasterCache.Key(contentKey, IconLoader.getThemeStatus(),
+                new Dimension(width, height), sx, sy, false);
+        Image image = RasterCache.get(key,
+                () -> renderFrame(icon, width, height, 2 * Math.PI * frame / frameCount, sx, sy));
+        g.drawImage(image, x, y, width, height, null);
+    }
+
+    private static Object getContentKey(final Icon icon) {
+        return icon instanceof DarkSVGIcon ? ((DarkSVGIcon) icon).getRasterContentKey() : icon;
+    }
+
+    /*
+     * Frames are rendered without a component. This way they don't depend on the component they are
+     * first painted on. Image sources are rasterized separately, so painting the frame doesn't replace
+     * the image the icon caches for painting it without rotation.
+     */
+    private static Image renderFrame(final Icon icon, final int width, final int height, final double angle,
+            final double sx, final double sy) {
+        Icon source = icon instanceof DarkUIAwareIcon ? ((DarkUIAwareIcon) icon).getCurrentStyleIcon() : icon;
+        BufferedImage image = new BufferedImage((int) Math.ceil(width * sx), (int) Math.ceil(height * sy),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.scale(image.getWidth() / (double) width, image.getHeight() / (double) height);
+            if (source instanceof ImageSource) {
+                Image img = ((ImageSource) source).createImage(image.getWidth(), image.getHeight());
+                if (img instanceof BufferedImage || DerivableImageIcon.ensureImageLoaded(img)) {
+                    g.rotate(angle, width / 2.0, height / 2.0);
+                    g.drawImage(img, 0, 0, width, height, null);
+                }
+            } else if (source instanceof RotateIcon) {
+                ((RotateIcon) source).paintIcon(null, g, 0, 0, angle);
+            } else {
+                g.rotate(angle, width / 2.0, height / 2.0);
+                source.paintIcon(null, g, 0, 0);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static final class FrameKey {
+        private final Object contentKey;
+        private final int frame;
+        private final int frameCount;
+
+        private FrameKey(final Object contentKey, final int frame, final int frameCount) {
+            this.contentKey = contentKey;
+            this.frame = frame;
+            this.frameCount = frameCount;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FrameKey frameKey = (FrameKey) o;
+            return frame == frameKey.frame
+                    && frameCount == frameKey.frameCount
+                    && contentKey.equals(frameKey.contentKey);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = contentKey.hashCode();
+            result = 31 * result + frame;
+            result = 31 * result + frameCount;
+            return result;
+        }
+    }
+}
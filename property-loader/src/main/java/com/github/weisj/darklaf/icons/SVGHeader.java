@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the size of an svg document from the attributes of its root element without parsing the
+ * whole document.
+ *
+ * @author Jannis Weis
+ */
+final class SVGHeader {
+
+    private static final int MAX_HEADER_LENGTH = 16 * 1024;
+    private static final Pattern WIDTH = createAttributePattern("width");
+    private static final Pattern HEIGHT = createAttributePattern("height");
+
+    private SVGHeader() {}
+
+    /**
+     * Reads the size of the document. Only sizes which are given in pixels with an integral value are
+     * returned, as everything else requires the full document to be resolved consistently.
+     *
+     * @param uri the uri of the svg document.
+     * @return the size or null if it can't be determined from the header.
+     */
+    static Dimension readSize(final URI uri) {
+        String header = readRootElement(uri);
+        if (header == null) return null;
+        int width = parsePixels(WIDTH.matcher(header));
+        int height = parsePixels(HEIGHT.matcher(header));
+        if (width < 0 || height < 0) return null;
+        return new Dimension(width, height);
+    }
+
+    private static String readRootElement(final URI uri) {
+        try (InputStream stream = uri.toURL().openStream();
+                Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            StringBuilder builder = new StringBuilder();
+            int start = -1;
+            int c;
+            while (builder.length() < MAX_HEADER_LENGTH && (c = reader.read()) != -1) {
+                builder.append((char) c);
+                if (start < 0) {
+                    int length = builder.length();
+                    if (length >= 5 && builder.charAt(length - 5) == '<'
+                            && builder.indexOf("svg", length - 4) == length - 4
+                            && Character.isWhitespace(builder.charAt(length - 1))) {
+                        start = length - 5;
+                    }
+                } else if (c == '>') {
+                    return builder.substring(start);
+                }
+            }
+        } catch (final IOException | IllegalArgumentException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static int parsePixels(final Matcher matcher) {
+        if (!matcher.find()) return -1;
+        String value = matcher.group(2).trim();
+        if (value.endsWith("px")) value = value.substring(0, value.length() - 2).trim();
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Pattern createAttributePattern(final String name) {
+        return Pattern.compile("\\s" + name + "\\s*=\\s*(['\"])([^'\"]*)\\1");
+    }
+}
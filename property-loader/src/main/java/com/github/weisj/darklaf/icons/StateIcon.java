@@ -79,6 +79,13 @@ public class StateIcon implements Icon {
         return icn != null ? icn : EmptyIcon.create(0);
     }
 
+    /*
+     * The icons of all states.
+     */
+    Icon[] getStateIcons() {
+        return new Icon[] {icon, disabledIcon, focusedIcon, selectedIcon, selectedDisabledIcon, selectedFocusedIcon};
+    }
+
     @Override
     public int getIconWidth() {
         return icon.getIconWidth();
@@ -21,6 +21,7 @@
  */
 package com.github.weisj.darklaf.icons;
 
+import java.awt.*;
 import java.net.URI;
 import java.util.function.Supplier;
 
@@ -30,8 +31,8 @@ import javax.swing.*;
 /** @author Jannis Weis */
 public class ThemedSVGIcon extends DarkSVGIcon implements ThemedIcon {
 
-    private Object currentTheme;
-    private boolean updatedNotDuringPaint;
+    private volatile Object currentTheme;
+    private volatile boolean updatedNotDuringPaint;
 
     public ThemedSVGIcon(final Supplier<URI> uriSupplier, final int displayWidth, final int displayHeight) {
         super(uriSupplier, displayWidth, displayHeight);
@@ -68,10 +69,28 @@ public class ThemedSVGIcon extends DarkSVGIcon implements ThemedIcon {
         return super.ensureLoaded(painting) | ensureTheme(painting);
     }
 
+    @Override
+    boolean needsReload() {
+        return super.needsReload() || updatedNotDuringPaint || currentTheme != IconLoader.getThemeStatus();
+    }
+
+    @Override
+    Object getRasterThemeKey() {
+        return currentTheme;
+    }
+
     protected boolean ensureTheme(final boolean painting) {
         Object theme = IconLoader.getThemeStatus();
         if (currentTheme != theme) {
-            patchColors();
+            if (getCompiledSVG() != null) {
+                // Compiled icons resolve their colors the next time they are painted.
+                invalidateCompiledColors();
+            } else {
+                // The svg document may be rendered by other icons on other threads.
+                synchronized (getSVGLock()) {
+                    patchColors();
+                }
+            }
             currentTheme = theme;
             updatedNotDuringPaint = !painting;
             return true;
@@ -98,6 +117,16 @@ public class ThemedSVGIcon extends DarkSVGIcon implements ThemedIcon {
         currentTheme = new Object();
     }
 
+    @Override
+    boolean isRecolorable() {
+        return true;
+    }
+
+    @Override
+    Color[] resolveCompiledColors(final CompiledSVG svg) {
+        return IconColorMapper.resolveColors(svg, getContextDefaults(), null);
+    }
+
     protected UIDefaults getContextDefaults() {
         return UIManager.getDefaults();
     }
@@ -21,8 +21,6 @@
  */
 package com.github.weisj.darklaf.parser;
 
-import javax.swing.UIDefaults;
-
 public class ActiveObjectParser extends KeyFilteredParser {
 
     public ActiveObjectParser() {
@@ -31,8 +29,7 @@ public class ActiveObjectParser extends KeyFilteredParser {
 
     @Override
     public ParseResult doParse(final ParseResult parseResult, final ParserContext context) {
-        return ParserUtil.setNonNull(parseResult,
-                (UIDefaults.ActiveValue) (def) -> ParserUtil.createObject(parseResult.value));
+        return ParserUtil.setNonNull(parseResult, new ObjectValue.Active(parseResult.value));
     }
 
 }
@@ -21,8 +21,6 @@
  */
 package com.github.weisj.darklaf.parser;
 
-import javax.swing.UIDefaults;
-
 public class LazyObjectParser extends KeyFilteredParser {
 
     public LazyObjectParser() {
@@ -31,7 +29,6 @@ public class LazyObjectParser extends KeyFilteredParser {
 
     @Override
     public ParseResult doParse(final ParseResult parseResult, final ParserContext context) {
-        return ParserUtil.setNonNull(parseResult,
-                (UIDefaults.LazyValue) def -> ParserUtil.createObject(parseResult.value));
+        return ParserUtil.setNonNull(parseResult, new ObjectValue.Lazy(parseResult.value));
     }
 }
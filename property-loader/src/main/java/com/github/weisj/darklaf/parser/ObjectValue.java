@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.parser;
+
+import javax.swing.UIDefaults;
+
+/*
+ * Creates an instance of a class given by its name. Values are equal if they create instances of the
+ * same class which allows comparing the defaults of different themes.
+ */
+abstract class ObjectValue {
+
+    private final String className;
+
+    ObjectValue(final String className) {
+        this.className = className;
+    }
+
+    protected Object create() {
+        return ParserUtil.createObject(className);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return className.equals(((ObjectValue) o).className);
+    }
+
+    @Override
+    public int hashCode() {
+        return className.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + className + "}";
+    }
+
+    static final class Lazy extends ObjectValue implements UIDefaults.LazyValue {
+
+        Lazy(final String className) {
+            super(className);
+        }
+
+        @Override
+        public Object createValue(final UIDefaults table) {
+            return create();
+        }
+    }
+
+    static final class Active extends ObjectValue implements UIDefaults.ActiveValue {
+
+        Active(final String className) {
+            super(className);
+        }
+
+        @Override
+        public Object createValue(final UIDefaults table) {
+            return create();
+        }
+    }
+}
@@ -29,6 +29,7 @@ public final class Parser {
 
     public static final Object EMPTY_VALUE = new Object();
 
+    private static final IconParser iconParser = new IconParser();
     private static final List<PropertyParser> steps = Arrays.asList(
             new NullParser(),
             new FallbackParser(),
@@ -38,7 +39,7 @@ public final class Parser {
             new LazyObjectParser(),
             new ActiveObjectParser(),
             new FontParser(),
-            new IconParser(),
+            iconParser,
             new DimensionParser(),
             new ListParser(),
             new MapParser());
@@ -53,7 +54,51 @@ public final class Parser {
         return debugMode;
     }
 
+    /**
+     * Returns the number of warnings emitted on the current thread while parsing values. The
+     * difference of two calls gives the number of warnings emitted in between by the current thread.
+     * Warnings of other threads aren't counted, hence concurrent parsing doesn't affect the result.
+     *
+     * @return the number of warnings.
+     * @see #addWarningCount(int)
+     */
+    public static int getWarningCount() {
+        return ParserUtil.getWarningCount();
+    }
+
+    /**
+     * Adds warnings emitted on a different thread to the count of the current thread. This should be
+     * used if values are parsed on other threads on behalf of the current thread.
+     *
+     * @param count the number of warnings.
+     * @see #getWarningCount()
+     */
+    public static void addWarningCount(final int count) {
+        ParserUtil.addWarningCount(count);
+    }
+
+    /**
+     * Parses the value of the given parse result. The value is classified by its leading token and
+     * directly decoded if possible. All other values are parsed using
+     * {@link #parseStepwise(ParseResult, ParserContext)}.
+     *
+     * @param parseResult the parse result containing the key and value.
+     * @param context the parser context.
+     * @return the parse result.
+     */
     public static ParseResult parse(final ParseResult parseResult, final ParserContext context) {
+        return TokenParser.parse(parseResult, context);
+    }
+
+    /**
+     * Parses the value of the given parse result by trying all parsers one after another until one
+     * of them succeeds.
+     *
+     * @param parseResult the parse result containing the key and value.
+     * @param context the parser context.
+     * @return the parse result.
+     */
+    public static ParseResult parseStepwise(final ParseResult parseResult, final ParserContext context) {
         ParseResult p = parseResult;
         String savedValue = parseResult.value;
         for (PropertyParser step : steps) {
@@ -69,6 +114,20 @@ public final class Parser {
         return p;
     }
 
+    /**
+     * Returns whether the value can be parsed without accessing other properties, the defaults or
+     * icons. Such values can be parsed in advance and on any thread.
+     *
+     * @param key the key of the property.
+     * @param value the value of the property.
+     * @return true if the value doesn't depend on the parser context.
+     */
+    public static boolean isContextIndependent(final String key, final String value) {
+        return !value.contains(ReferenceParser.REFERENCE_PREFIX)
+                && !value.contains(FallbackParser.FALLBACK_PREFIX)
+                && !iconParser.acceptsKey(key);
+    }
+
     public static ParseResult createParseResult(final String key, final String value) {
         if (isDebugMode()) {
             return new DebugParseResult(key, value);
@@ -37,6 +37,7 @@ final class ParserUtil implements Delimiters {
 
     private static final char EMPTY_CHAR = Character.MIN_VALUE;
     private static final Logger LOGGER = LogUtil.getLogger(PropertyParser.class);
+    private static final ThreadLocal<int[]> warningCount = ThreadLocal.withInitial(() -> new int[1]);
 
     static ParseResult error(final ParseResult parseResult, final String message) {
         LOGGER.severe("Error while parsing " + parseResult + ". " + message);
@@ -46,9 +47,18 @@ final class ParserUtil implements Delimiters {
     }
 
     static void warning(final String message) {
+        warningCount.get()[0]++;
         LOGGER.warning(message);
     }
 
+    static int getWarningCount() {
+        return warningCount.get()[0];
+    }
+
+    static void addWarningCount(final int count) {
+        warningCount.get()[0] += count;
+    }
+
     static ParseResult apply(final PropertyParser parser, final ParseResult p, final ParserContext c) {
         return parser != null ? parser.parse(p, c) : p;
     }
@@ -141,7 +151,7 @@ final class ParserUtil implements Delimiters {
                 if (parseResult.value.charAt(0) == start) {
                     parseResult.value = parseResult.value.substring(1);
                 } else {
-                    LOGGER.warning("Expected '" + start + "' while parsing " + parseResult.value);
+                    warning("Expected '" + start + "' while parsing " + parseResult.value);
                 }
             }
         } else {
@@ -149,7 +159,7 @@ final class ParserUtil implements Delimiters {
                 if (parseResult.value.charAt(parseResult.value.length() - 1) == end) {
                     parseResult.value = parseResult.value.substring(0, parseResult.value.length() - 1);
                 } else {
-                    LOGGER.warning("Expected '" + start + "' while parsing " + parseResult.value);
+                    warning("Expected '" + start + "' while parsing " + parseResult.value);
                 }
             }
         }
@@ -160,7 +170,7 @@ final class ParserUtil implements Delimiters {
                 .map(p -> parser.parse(p, context))
                 .map(p -> {
                     T casted = Types.safeCast(p.result, type);
-                    if (casted == null) LOGGER.warning("Value " + p.result + " is not of type " + type
+                    if (casted == null) warning("Value " + p.result + " is not of type " + type
                             + ". Encountered while parsing '" + p + "' for '" + parseResult + "'");
                     return casted;
                 })
@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.parser;
+
+import java.util.*;
+
+/**
+ * The graph of references between the declarations of a set of properties. A property depends on
+ * all properties it references using the {@code %} prefix.
+ *
+ * <p>
+ * The graph provides an order in which the declarations can be resolved in a single pass such that
+ * every referenced property is resolved before the properties referencing it. References to
+ * properties which aren't part of the graph are resolved from the already loaded values.
+ *
+ * @author Jannis Weis
+ */
+public final class ReferenceGraph {
+
+    private static final char REFERENCE_PREFIX = '%';
+
+    /*
+     * Maps the resolved keys to the keys as they are declared i.e. possibly with a reference prefix.
+     */
+    private final Map<String, String> declaredKeys;
+    private final Map<String, List<String>> references;
+    private final List<String> resolutionOrder;
+    private final List<List<String>> cycles;
+
+    private Map<String, List<String>> dependents;
+
+    private ReferenceGraph(final Map<String, String> declaredKeys, final Map<String, List<String>> references) {
+        this.declaredKeys = declaredKeys;
+        this.references = references;
+        this.cycles = new ArrayList<>();
+        this.resolutionOrder = computeResolutionOrder();
+    }
+
+    /**
+     * Create the reference graph of the given properties.
+     *
+     * @param properties the property declarations.
+     * @param keys the keys of the properties to include in the graph.
+     * @return the reference graph.
+     */
+    public static ReferenceGraph create(final Map<Object, Object> properties, final Collection<String> keys) {
+        Map<String, String> declaredKeys = new LinkedHashMap<>(keys.size());
+        Map<String, List<String>> references = new HashMap<>(keys.size());
+        for (String key : keys) {
+            String resolvedKey = getResolvedKey(key);
+            declaredKeys.put(resolvedKey, key);
+            Object value = properties.get(key);
+            references.put(resolvedKey, value != null
+                    ? findReferences(value.toString(), resolvedKey)
+                    : Collections.emptyList());
+        }
+        return new ReferenceGraph(declaredKeys, references);
+    }
+
+    /**
+     * The declared keys of all properties in an order such that referenced properties come before
+     * the properties referencing them. Properties which are part of a cycle are ordered as declared.
+     *
+     * @return the resolution order.
+     */
+    public List<String> getResolutionOrder() {
+        return resolutionOrder;
+    }
+
+    /**
+     * The reference cycles contained in the graph. Each cycle is given by the resolved keys of its
+     * properties.
+     *
+     * @return the list of cycles.
+     */
+    public List<List<String>> getCycles() {
+        return Collections.unmodifiableList(cycles);
+    }
+
+    /**
+     * Returns whether the graph contains the property with the given resolved key.
+     *
+     * @param key the resolved key.
+     * @return true if the property is part of the graph.
+     */
+    public boolean containsKey(final String key) {
+        return declaredKeys.containsKey(key);
+    }
+
+    /**
+     * The declared keys of all properties which directly or indirectly reference one of the given
+     * roots, in resolution order. Roots which are part of the graph are included in the result.
+     * Roots don't need to be part of the graph e.g. if they have already been loaded.
+     *
+     * @param roots the resolved keys of the changed properties.
+     * @return the declared keys of all properties which need to be resolved again.
+     */
+    public List<String> getAffectedKeys(final Collection<String> roots) {
+        Map<String, List<String>> dependentMap = getDependents();
+        Set<String> affected = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>(roots);
+        while (!stack.isEmpty()) {
+            String key = stack.pop();
+            if (!affected.add(key)) continue;
+            stack.addAll(dependentMap.getOrDefault(key, Collections.emptyList()));
+        }
+        List<String> result = new ArrayList<>();
+        for (String declaredKey : resolutionOrder) {
+            if (affected.contains(getResolvedKey(declaredKey))) {
+                result.add(declaredKey);
+            }
+        }
+        return result;
+    }
+
+    private Map<String, List<String>> getDependents() {
+        if (dependents == null) {
+            Map<String, List<String>> map = new HashMap<>();
+            for (Map.Entry<String, List<String>> entry : references.entrySet()) {
+                for (String reference : entry.getValue()) {
+                    map.computeIfAbsent(reference, k -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+            dependents = map;
+        }
+        return dependents;
+    }
+
+    private List<String> computeResolutionOrder() {
+        List<String> order = new ArrayList<>(declaredKeys.size());
+        Map<String, State> states = new HashMap<>(declaredKeys.size());
+        Deque<String> path = new ArrayDeque<>();
+        for (String key : declaredKeys.keySet()) {
+            visit(key, states, path, order);
+        }
+        for (List<String> cycle : cycles) {
+            ParserUtil.warning("Cyclic reference between properties " + String.join(" -> ", cycle) + ".");
+        }
+        return Collections.unmodifiableList(order);
+    }
+
+    private void visit(final String key, final Map<String, State> states, final Deque<String> path,
+            final List<String> order) {
+        State state = states.get(key);
+        if (state == State.DONE) return;
+        if (state == State.VISITING) {
+            List<String> cycle = new ArrayList<>();
+            Iterator<String> it = path.descendingIterator();
+            boolean inCycle = false;
+            while (it.hasNext()) {
+                String k = it.next();
+                inCycle = inCycle || k.equals(key);
+                if (inCycle) cycle.add(k);
+            }
+            cycle.add(key);
+            cycles.add(cycle);
+            return;
+        }
+        states.put(key, State.VISITING);
+        path.push(key);
+        for (String reference : references.get(key)) {
+            if (declaredKeys.containsKey(reference)) {
+                visit(reference, states, path, order);
+            }
+        }
+        path.pop();
+        states.put(key, State.DONE);
+        order.add(declaredKeys.get(key));
+    }
+
+    private static String getResolvedKey(final String key) {
+        return key.length() > 0 && key.charAt(0) == REFERENCE_PREFIX ? key.substring(1) : key;
+    }
+
+    /*
+     * References may occur anywhere in the value e.g. inside of lists, maps or font declarations.
+     * A reference to the property itself refers to the previous value and isn't a dependency.
+     */
+    private static List<String> findReferences(final String value, final String key) {
+        List<String> result = null;
+        int length = value.length();
+        int i = value.indexOf(REFERENCE_PREFIX);
+        while (i >= 0) {
+            int start = i + 1;
+            int end = start;
+            while (end < length && isReferenceChar(value.charAt(end))) {
+                end++;
+            }
+            if (end > start) {
+                String reference = value.substring(start, end);
+                if (!reference.equals(key)) {
+                    if (result == null) result = new ArrayList<>(2);
+                    result.add(reference);
+                }
+            }
+            i = value.indexOf(REFERENCE_PREFIX, end);
+        }
+        return result != null ? result : Collections.emptyList();
+    }
+
+    private static boolean isReferenceChar(final char c) {
+        return Character.isLetterOrDigit(c) || c == '.' || c == '_';
+    }
+
+    private enum State {
+        VISITING,
+        DONE
+    }
+}
@@ -23,7 +23,7 @@ package com.github.weisj.darklaf.parser;
 
 public class ReferenceParser implements PropertyParser {
 
-    private static final String REFERENCE_PREFIX = "%";
+    static final String REFERENCE_PREFIX = "%";
 
     @Override
     public ParseResult doParse(final ParseResult parseResult, final ParserContext context) {
@@ -35,7 +35,7 @@ public class ReferenceParser implements PropertyParser {
             if (!parseResult.finished) {
                 parseResult.warnings.add("Could not reference value '"
                         + parseResult.value + "' while loading '" + parseResult.key + "'. "
-                        + "Maybe it's a forward reference.");
+                        + "It is neither declared before nor in the same properties.");
                 parseResult.restore();
             } else if (parseResult instanceof Parser.DebugParseResult) {
                 ((Parser.DebugParseResult) parseResult).referenceKey = REFERENCE_PREFIX + parseResult.value;
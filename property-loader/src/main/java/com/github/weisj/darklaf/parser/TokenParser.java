@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.parser;
+
+import javax.swing.plaf.DimensionUIResource;
+import javax.swing.plaf.InsetsUIResource;
+
+import com.github.weisj.darklaf.uiresource.DarkColorUIResource;
+import com.github.weisj.darklaf.util.PropertyValue;
+
+/*
+ * Classifies a value once by its leading token and the key and decodes it directly. The value is
+ * scanned in place without creating intermediate strings. Values which can't be classified with
+ * certainty (e.g. fallbacks, lists, maps, fonts or icons) are handed to Parser#parseStepwise,
+ * which is the reference for the results of this parser.
+ */
+final class TokenParser implements Delimiters {
+
+    private static final char REFERENCE_PREFIX = '%';
+    private static final char COLOR_PREFIX = '#';
+    private static final char FALLBACK_START = '?';
+    private static final int HEX_COLOR_LENGTH = 6;
+    private static final int MAX_INT_DIGITS = 9;
+
+    private static final KeyFilteredParser insetParser = new InsetParser();
+    private static final KeyFilteredParser lazyObjectParser = new LazyObjectParser();
+    private static final KeyFilteredParser activeObjectParser = new ActiveObjectParser();
+    private static final KeyFilteredParser fontParser = new FontParser();
+    private static final KeyFilteredParser iconParser = new IconParser();
+    private static final KeyFilteredParser dimensionParser = new DimensionParser();
+
+    private TokenParser() {}
+
+    static ParseResult parse(final ParseResult parseResult, final ParserContext context) {
+        if (parseResult.finished) return parseResult;
+        // Debug results record the steps taken while parsing.
+        if (parseResult instanceof Parser.DebugParseResult) return Parser.parseStepwise(parseResult, context);
+        String value = parseResult.value;
+        if (value == null || value.isEmpty()) return Parser.parseStepwise(parseResult, context);
+        switch (value.charAt(0)) {
+            case REFERENCE_PREFIX:
+                return parseReference(parseResult, context);
+            case COLOR_PREFIX:
+                if (isHexColor(value, 1)) return finish(parseResult, new DarkColorUIResource(parseHex(value, 1)));
+                return Parser.parseStepwise(parseResult, context);
+            case FALLBACK_START:
+            case PrimitiveParser.STRING_DELIMITER:
+            case LIST_START:
+            case MAP_START:
+                return Parser.parseStepwise(parseResult, context);
+            default:
+                break;
+        }
+        if (PropertyValue.NULL.equals(value)) {
+            parseResult.result = null;
+            parseResult.finished = true;
+            return parseResult;
+        }
+        // Colors without prefix are deprecated and produce a warning.
+        if (isHexColor(value, 0)) return Parser.parseStepwise(parseResult, context);
+        if (isInteger(value, 0, value.length())) {
+            return finish(parseResult, parseInteger(value, 0, value.length()));
+        }
+        if (PropertyValue.TRUE.equalsIgnoreCase(value)) return finish(parseResult, Boolean.TRUE);
+        if (PropertyValue.FALSE.equalsIgnoreCase(value)) return finish(parseResult, Boolean.FALSE);
+        return parseForKey(parseResult, context);
+    }
+
+    private static ParseResult parseReference(final ParseResult parseResult, final ParserContext context) {
+        String referenceKey = parseResult.value.substring(1);
+        Object reference = lookup(referenceKey, context);
+        // Unresolved references produce a warning and are parsed as regular values.
+        if (reference == null) return Parser.parseStepwise(parseResult, context);
+        return finish(parseResult, reference);
+    }
+
+    private static Object lookup(final String key, final ParserContext context) {
+        Object value = unwrap(context.accumulator.get(key));
+        if (value == null) value = unwrap(context.defaults.get(key));
+        return value;
+    }
+
+    private static Object unwrap(final Object value) {
+        Object obj = value;
+        while (obj instanceof ParseResult) {
+            obj = ((ParseResult) obj).result;
+        }
+        return obj;
+    }
+
+    private static ParseResult parseForKey(final ParseResult parseResult, final ParserContext context) {
+        String key = stripReferencePrefix(parseResult.key);
+        String value = parseResult.value;
+        if (insetParser.acceptsKey(key)) {
+            int[] values = parseIntegers(value, 4);
+            if (values == null) return Parser.parseStepwise(parseResult, context);
+            return finish(parseResult, new InsetsUIResource(values[0], values[1], values[2], values[3]));
+        }
+        if (lazyObjectParser.acceptsKey(key)) return finish(parseResult, new ObjectValue.Lazy(value));
+        if (activeObjectParser.acceptsKey(key)) return finish(parseResult, new ObjectValue.Active(value));
+        if (fontParser.acceptsKey(key) || iconParser.acceptsKey(key)) {
+            return Parser.parseStepwise(parseResult, context);
+        }
+        if (dimensionParser.acceptsKey(key)) {
+            int[] values = parseIntegers(value, 2);
+            if (values == null) return Parser.parseStepwise(parseResult, context);
+            return finish(parseResult, new DimensionUIResource(values[0], values[1]));
+        }
+        // Plain strings.
+        return finish(parseResult, value);
+    }
+
+    private static ParseResult finish(final ParseResult parseResult, final Object result) {
+        parseResult.key = stripReferencePrefix(parseResult.key);
+        parseResult.result = result;
+        parseResult.finished = true;
+        return parseResult;
+    }
+
+    private static String stripReferencePrefix(final String key) {
+        return !key.isEmpty() && key.charAt(0) == REFERENCE_PREFIX ? key.substring(1) : key;
+    }
+
+    /*
+     * Parses a comma separated list of exactly count integers. Returns null if the value has any
+     * other structure.
+     */
+    private static int[] parseIntegers(final String value, final int count) {
+        int[] values = new int[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = value.indexOf(ARG_SEPARATOR, start);
+            if (i == count - 1) {
+                if (end >= 0) return null;
+                end = value.length();
+            } else if (end < 0) {
+                return null;
+            }
+            // A six digit number would be parsed as a color.
+            if (!isInteger(value, start, end) || isHexColor(value, start, end)) return null;
+            values[i] = parseInteger(value, start, end);
+            start = end + 1;
+        }
+        return values;
+    }
+
+    private static boolean isInteger(final String value, final int start, final int end) {
+        int i = start;
+        if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) i++;
+        int digits = end - i;
+        // Longer values may overflow and are left to Integer#parseInt.
+        if (digits <= 0 || digits > MAX_INT_DIGITS) return false;
+        for (; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static int parseInteger(final String value, final int start, final int end) {
+        int i = start;
+        boolean negative = false;
+        char first = value.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        int result = 0;
+        for (; i < end; i++) {
+            result = 10 * result + (value.charAt(i) - '0');
+        }
+        return negative ? -result : result;
+    }
+
+    private static boolean isHexColor(final String value, final int start) {
+        return isHexColor(value, start, value.length());
+    }
+
+    private static boolean isHexColor(final String value, final int start, final int end) {
+        if (end - start != HEX_COLOR_LENGTH) return false;
+        for (int i = start; i < end; i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+
+    private static int parseHex(final String value, final int start) {
+        int rgb = 0;
+        for (int i = start; i < start + HEX_COLOR_LENGTH; i++) {
+            rgb = (rgb << 4) | Character.digit(value.charAt(i), 16);
+        }
+        return rgb;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.parser;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.github.weisj.darklaf.uiresource.DarkColorUIResource;
+import com.github.weisj.darklaf.uiresource.DarkFontUIResource;
+
+/**
+ * Canonicalizes resolved property values such that equal values share a single instance across all
+ * keys and all loaded themes. Only values of immutable types are interned, i.e. colors, fonts and
+ * integers. Mutable values such as insets and dimensions are never shared, as modifying one would
+ * affect every key using it. Values are only compared to values of the exact same class, as e.g. a
+ * {@link java.awt.Color} is equal to any {@link DarkColorUIResource} with the same rgb value.
+ *
+ * <p>
+ * The table only holds weak references, hence values are released as soon as no theme uses them
+ * anymore.
+ */
+public final class ValueInterner {
+
+    private static final Map<Class<?>, Map<Object, WeakReference<Object>>> tables = new HashMap<>();
+
+    static {
+        registerType(DarkColorUIResource.class);
+        registerType(DarkFontUIResource.class);
+        registerType(Integer.class);
+    }
+
+    private ValueInterner() {}
+
+    private static void registerType(final Class<?> type) {
+        tables.put(type, new WeakHashMap<>());
+    }
+
+    /**
+     * Returns the canonical instance for the given value. If the value isn't of a type which can be
+     * interned the value itself is returned.
+     *
+     * @param value the value.
+     * @param <T> the type of the value.
+     * @return a value equal to the given value, which is shared by all equal values.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T intern(final T value) {
+        if (value == null) return null;
+        Map<Object, WeakReference<Object>> table = tables.get(value.getClass());
+        if (table == null) return value;
+        synchronized (table) {
+            WeakReference<Object> ref = table.get(value);
+            Object canonical = ref != null ? ref.get() : null;
+            if (canonical == null) {
+                table.put(value, new WeakReference<>(value));
+                return value;
+            }
+            return (T) canonical;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import javax.swing.UIManager;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ColorMaskTest {
+
+    private static final int TOLERANCE = 2;
+    private static final String FILL_KEY = "ColorMaskTest.fill";
+
+    @Test
+    void testRecoloredImageMatchesRasterization() {
+        TestSVG svg = new TestSVG();
+        Dimension size = new Dimension(37, 23);
+        Color[] colors = {new Color(255, 0, 0), new Color(0, 128, 255, 128)};
+        ColorMask mask = ColorMask.create(colors, c -> rasterize(svg, c, size));
+
+        Color[][] recolorings = {
+                colors,
+                {new Color(20, 200, 60), new Color(250, 240, 10, 128)},
+                {Color.WHITE, new Color(0, 0, 0, 128)},
+                {Color.BLACK, new Color(255, 255, 255, 128)}};
+        for (Color[] c : recolorings) {
+            Assertions.assertTrue(mask.isApplicable(size, c));
+            assertSimilar(rasterize(svg, c, size), mask.createImage(c));
+        }
+    }
+
+    @Test
+    void testRecoloredDocumentMatchesRasterization() throws URISyntaxException {
+        URI uri = ColorMaskTest.class.getResource("themed_svg_icon.svg").toURI();
+        Dimension size = new Dimension(37, 23);
+        Color overlay = new Color(0, 0, 255, 128);
+        Object themeStatus = IconLoader.getThemeStatus();
+        try {
+            UIManager.put(FILL_KEY, Color.RED);
+            IconLoader.updateThemeStatus(new Object());
+            ThemedSVGIcon icon = new ThemedSVGIcon(uri, 16, 16);
+            icon.createImage(size);
+
+            Color[] recolorings = {new Color(20, 200, 60), Color.WHITE, Color.BLACK};
+            for (Color c : recolorings) {
+                UIManager.put(FILL_KEY, c);
+                IconLoader.updateThemeStatus(new Object());
+                Image image = icon.createImage(size);
+                // The colors have changed at the same size, hence the image is created from the mask.
+                Assertions.assertEquals(BufferedImage.TYPE_INT_ARGB_PRE, ((BufferedImage) image).getType());
+                // The colors of the mask don't remain in the document.
+                Assertions.assertArrayEquals(new Color[] {c, overlay}, IconColorMapper.getColors(icon.getSVGIcon()));
+                assertSimilar(toPremultiplied(new ThemedSVGIcon(uri, 16, 16).createImage(size)),
+                        (BufferedImage) image);
+            }
+        } finally {
+            UIManager.put(FILL_KEY, null);
+            IconLoader.updateThemeStatus(themeStatus);
+        }
+    }
+
+    @Test
+    void testApplicability() {
+        Dimension size = new Dimension(16, 16);
+        Color[] colors = {Color.RED, new Color(0, 0, 255, 100)};
+        ColorMask mask = ColorMask.create(colors, c -> rasterize(new TestSVG(), c, size));
+        Assertions.assertTrue(mask.isApplicable(size, new Color[] {Color.GREEN, new Color(0, 255, 0, 100)}));
+        Assertions.assertFalse(mask.isApplicable(size, new Color[] {Color.GREEN, Color.GREEN}));
+        Assertions.assertFalse(mask.isApplicable(size, new Color[] {Color.GREEN}));
+        Assertions.assertFalse(mask.isApplicable(new Dimension(32, 32), colors));
+    }
+
+    private static BufferedImage rasterize(final CompiledSVG svg, final Color[] colors, final Dimension size) {
+        BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
+        g.scale(size.width / (double) svg.getWidth(), size.height / (double) svg.getHeight());
+        svg.paint(g, colors);
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage toPremultiplied(final Image image) {
+        BufferedImage result = new BufferedImage(image.getWidth(null), image.getHeight(null),
+                BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = result.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return result;
+    }
+
+    private static void assertSimilar(final BufferedImage expected, final BufferedImage actual) {
+        Assertions.assertEquals(expected.getWidth(), actual.getWidth());
+        Assertions.assertEquals(expected.getHeight(), actual.getHeight());
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                int e = expected.getRaster().getDataBuffer().getElem(y * expected.getWidth() + x);
+                int a = actual.getRaster().getDataBuffer().getElem(y * actual.getWidth() + x);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int diff = Math.abs(((e >>> shift) & 0xFF) - ((a >>> shift) & 0xFF));
+                    if (diff > TOLERANCE) {
+                        Assertions.fail("Pixel (" + x + "," + y + ") differs: expected "
+                                + Integer.toHexString(e) + " but was " + Integer.toHexString(a));
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Overlapping filled, stroked and translucent shapes using both the resolved colors and a color
+     * defined by the document itself.
+     */
+    private static final class TestSVG extends CompiledSVG {
+
+        private TestSVG() {
+            super("test.svg", 0, 16, 16, new ColorDefinition[] {
+                    new ColorDefinition("a", new String[0], null, new String[0], 0xFF0000, -1, true),
+                    new ColorDefinition("b", new String[0], null, new String[0], 0x0080FF, -1, true)},
+                    null);
+        }
+
+        @Override
+        protected void paintShapes(final Graphics2D g, final Color[] colors) {
+            fill(g, new RoundRectangle2D.Double(1.3, 1.7, 10.5, 9.2, 3, 3), colors[0], 1f);
+            fill(g, new Ellipse2D.Double(5.1, 4.4, 9.6, 10.3), colors[1], 1f);
+            fill(g, new Ellipse2D.Double(0.5, 8.2, 6.3, 6.3), new Color(0x40A040), 0.6f);
+            draw(g, new Ellipse2D.Double(3.2, 2.9, 9.5, 8.1), new BasicStroke(1.3f), new AffineTransform(),
+                    colors[0], 0.7f);
+        }
+    }
+}
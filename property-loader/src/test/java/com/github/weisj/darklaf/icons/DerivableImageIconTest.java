@@ -23,9 +23,19 @@ package com.github.weisj.darklaf.icons;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -60,6 +70,26 @@ class DerivableImageIconTest {
         Assertions.assertEquals(1, imageSet.size());
     }
 
+    @Test
+    void testSharedScaledImages() {
+        BufferedImage source = new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = source.getGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 200, 300);
+        g.setColor(Color.BLUE);
+        g.fillRect(200, 0, 200, 300);
+        g.dispose();
+        DerivableImageIcon icon = new DerivableImageIcon(source);
+        Image img = icon.derive(40, 30).getImage();
+        Assertions.assertSame(img, icon.derive(100, 75).derive(40, 30).getImage());
+
+        BufferedImage scaled = (BufferedImage) img;
+        Assertions.assertEquals(40, scaled.getWidth());
+        Assertions.assertEquals(30, scaled.getHeight());
+        Assertions.assertEquals(Color.RED.getRGB(), scaled.getRGB(5, 15));
+        Assertions.assertEquals(Color.BLUE.getRGB(), scaled.getRGB(35, 15));
+    }
+
     @Test
     void testLoading() {
         IconLoader loader = IconLoader.get(DerivableImageIconTest.class);
@@ -75,4 +105,62 @@ class DerivableImageIconTest {
         }
     }
 
+    @Test
+    void testMultiFrameImagesAreNotMipMapped() throws IOException {
+        Image animated = Toolkit.getDefaultToolkit().createImage(createGif(Color.RED, Color.BLUE));
+        Assertions.assertTrue(DerivableImageIcon.ensureImageLoaded(animated));
+        Assertions.assertNull(MipMap.create(animated));
+        Image scaled = new DerivableImageIcon(animated).derive(20, 20).getImage();
+        Assertions.assertFalse(scaled instanceof BufferedImage, "Animated image was frozen to a single frame");
+
+        Image still = Toolkit.getDefaultToolkit().createImage(createGif(Color.RED));
+        Assertions.assertNotNull(MipMap.create(still));
+        Assertions.assertTrue(new DerivableImageIcon(still).derive(20, 20).getImage() instanceof BufferedImage);
+    }
+
+    private static byte[] createGif(final Color... frameColors) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.prepareWriteSequence(null);
+            for (Color color : frameColors) {
+                BufferedImage frame = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+                Graphics g = frame.getGraphics();
+                g.setColor(color);
+                g.fillRect(0, 0, 40, 40);
+                g.dispose();
+                IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(frame), null);
+                if (frameColors.length > 1) addAnimationMetadata(metadata);
+                writer.writeToSequence(new IIOImage(frame, null, metadata), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static void addAnimationMetadata(final IIOMetadata metadata) throws IOException {
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", "10");
+        control.setAttribute("transparentColorIndex", "0");
+        root.appendChild(control);
+
+        IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+        IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+        loop.setAttribute("applicationID", "NETSCAPE");
+        loop.setAttribute("authenticationCode", "2.0");
+        loop.setUserObject(new byte[] {1, 0, 0});
+        extensions.appendChild(loop);
+        root.appendChild(extensions);
+
+        metadata.setFromTree(format, root);
+    }
 }
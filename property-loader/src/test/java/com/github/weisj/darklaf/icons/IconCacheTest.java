@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import javax.swing.*;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IconCacheTest {
+
+    private final IconLoader loader = IconLoader.get(IconCacheTest.class);
+
+    @BeforeEach
+    void setup() {
+        loader.setCacheSize(2);
+        loader.clearCache();
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        IconCacheStatistics before = loader.getCacheStatistics();
+        Icon small = loader.getIcon("svg_icon.svg", 16, 16);
+        Icon medium = loader.getIcon("svg_icon.svg", 20, 20);
+        Assertions.assertSame(small, loader.getIcon("svg_icon.svg", 16, 16));
+
+        loader.getIcon("svg_icon.svg", 24, 24);
+        Assertions.assertSame(small, loader.getIcon("svg_icon.svg", 16, 16));
+        Assertions.assertNotSame(medium, loader.getIcon("svg_icon.svg", 20, 20));
+
+        IconCacheStatistics statistics = loader.getCacheStatistics();
+        Assertions.assertEquals(2, statistics.getHitCount() - before.getHitCount());
+        Assertions.assertEquals(4, statistics.getMissCount() - before.getMissCount());
+        Assertions.assertEquals(2, statistics.getEvictionCount() - before.getEvictionCount());
+        Assertions.assertEquals(2, statistics.getSize());
+    }
+
+    @Test
+    void testEvictedIconsAreDerivedFromVariants() {
+        DarkSVGIcon small = (DarkSVGIcon) loader.getIcon("svg_icon.svg", 16, 16);
+        loader.getIcon("svg_icon.svg", 20, 20);
+        loader.getIcon("svg_icon.svg", 24, 24);
+        // The icon of size 16 has been evicted, but it can still be derived from a cached size.
+        DarkSVGIcon derived = (DarkSVGIcon) loader.getIcon("svg_icon.svg", 16, 16);
+        Assertions.assertNotSame(small, derived);
+        Assertions.assertSame(small.getSVGIcon(), derived.getSVGIcon());
+    }
+
+    @Test
+    void testSetCacheSizeTrims() {
+        loader.getIcon("svg_icon.svg", 16, 16);
+        loader.getIcon("svg_icon.svg", 20, 20);
+        Assertions.assertEquals(2, loader.getCacheStatistics().getSize());
+
+        long evictions = loader.getCacheStatistics().getEvictionCount();
+        loader.setCacheSize(1);
+        Assertions.assertEquals(1, loader.getCacheStatistics().getSize());
+        Assertions.assertEquals(evictions + 1, loader.getCacheStatistics().getEvictionCount());
+
+        loader.setCacheSize(0);
+        Assertions.assertEquals(0, loader.getCacheStatistics().getSize());
+    }
+
+    @Test
+    void testRetainedRasterBytes() {
+        DerivableImageIcon icon = (DerivableImageIcon) loader.getIcon("image_icon.png", 10, 20);
+        Assertions.assertEquals(0, loader.getCacheStatistics().getRetainedRasterBytes());
+        icon.getImage();
+        long bytes = IconCache.getRasterBytes(icon.getCachedImage());
+        Assertions.assertTrue(bytes >= 10 * 20);
+        Assertions.assertEquals(bytes, loader.getCacheStatistics().getRetainedRasterBytes());
+
+        loader.clearCache();
+        Assertions.assertEquals(0, loader.getCacheStatistics().getRetainedRasterBytes());
+    }
+}
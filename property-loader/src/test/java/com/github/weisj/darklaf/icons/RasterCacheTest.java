@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RasterCacheTest {
+
+    private long budget;
+    private Object themeStatus;
+
+    @BeforeEach
+    void setup() {
+        budget = RasterCache.getBudget();
+        themeStatus = IconLoader.getThemeStatus();
+        IconLoader.updateThemeStatus(new Object());
+        RasterCache.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        RasterCache.setBudget(budget);
+        IconLoader.updateThemeStatus(themeStatus);
+        RasterCache.clear();
+    }
+
+    private static URI getIconUri() throws URISyntaxException {
+        return RasterCacheTest.class.getResource("svg_icon.svg").toURI();
+    }
+
+    private static RasterCache.Key getKey(final DarkSVGIcon icon) {
+        return getKey(icon, 1);
+    }
+
+    private static RasterCache.Key getKey(final DarkSVGIcon icon, final double scale) {
+        return new RasterCache.Key(icon.getRasterContentKey(), icon.getRasterThemeKey(), icon.getSize(),
+                scale, scale, false);
+    }
+
+    @Test
+    void testSameDocumentSharesImage() throws URISyntaxException {
+        URI uri = getIconUri();
+        DarkSVGIcon icon = new DarkSVGIcon(uri, 16, 16);
+        DarkSVGIcon other = new DarkSVGIcon(uri, 16, 16);
+        Assertions.assertEquals(getKey(icon), getKey(other));
+        Assertions.assertEquals(getKey(icon), getKey(new DarkSVGIcon(uri, 32, 32).derive(16, 16)));
+        Assertions.assertNotEquals(getKey(icon), getKey(icon.derive(32, 32)));
+
+        paint(icon);
+        paint(other);
+        Assertions.assertNotNull(icon.getCachedImage());
+        Assertions.assertSame(icon.getCachedImage(), other.getCachedImage());
+    }
+
+    @Test
+    void testPreloadOnlyFillsCache() throws URISyntaxException {
+        DarkSVGIcon icon = new DarkSVGIcon(getIconUri(), 16, 16);
+        icon.preload(Collections.singleton(new Point2D.Double(2, 2)));
+        Assertions.assertNull(icon.getCachedImage());
+
+        paint(icon);
+        Image image = icon.getCachedImage();
+        Assertions.assertNotNull(image);
+        icon.preload(Collections.singleton(new Point2D.Double(2, 2)));
+        Assertions.assertSame(image, icon.getCachedImage());
+
+        AtomicInteger rasterized = new AtomicInteger();
+        Image preloaded = RasterCache.get(getKey(icon, 2), () -> {
+            rasterized.incrementAndGet();
+            return null;
+        });
+        Assertions.assertEquals(0, rasterized.get());
+        Assertions.assertEquals(32, preloaded.getWidth(null));
+    }
+
+    @Test
+    void testThemedIconKeys() throws URISyntaxException {
+        URI uri = getIconUri();
+        ThemedSVGIcon icon = new ThemedSVGIcon(uri, 16, 16);
+        ThemedSVGIcon other = new ThemedSVGIcon(uri, 16, 16);
+        icon.ensureLoaded(false);
+        other.ensureLoaded(false);
+        Assertions.assertEquals(getKey(icon), getKey(other));
+        Assertions.assertEquals(getKey(icon), getKey(icon.derive(32, 32).derive(16, 16)));
+        // Themed icons are patched with the colors of the theme, hence they paint differently.
+        Assertions.assertNotEquals(getKey(icon), getKey(new DarkSVGIcon(uri, 16, 16)));
+
+        IconLoader.updateThemeStatus(new Object());
+        icon.ensureLoaded(false);
+        Assertions.assertNotEquals(getKey(icon), getKey(other));
+        other.ensureLoaded(false);
+        Assertions.assertEquals(getKey(icon), getKey(other));
+    }
+
+    @Test
+    void testCustomThemedIconKeys() throws URISyntaxException {
+        URI uri = getIconUri();
+        CustomThemedIcon icon = new CustomThemedIcon(uri, 16, 16, new HashMap<>());
+        CustomThemedIcon derived = icon.derive(16, 16);
+        icon.ensureLoaded(false);
+        derived.ensureLoaded(false);
+        Assertions.assertEquals(getKey(icon), getKey(derived));
+        // Icons with custom properties only share with the icons derived from them.
+        CustomThemedIcon other = new CustomThemedIcon(uri, 16, 16, new HashMap<>());
+        other.ensureLoaded(false);
+        Assertions.assertNotEquals(getKey(icon), getKey(other));
+
+        // Changing the properties invalidates the images shared with previously derived icons.
+        icon.setProperties(new HashMap<>());
+        icon.ensureLoaded(false);
+        Assertions.assertNotEquals(getKey(icon), getKey(derived));
+        CustomThemedIcon newlyDerived = icon.derive(16, 16);
+        newlyDerived.ensureLoaded(false);
+        Assertions.assertEquals(getKey(icon), getKey(newlyDerived));
+    }
+
+    @Test
+    void testBudgetEviction() {
+        // Each image retains 10 * 10 * 4 = 400 bytes.
+        RasterCache.setBudget(1000);
+        AtomicInteger rasterized = new AtomicInteger();
+        IconCacheStatistics before = RasterCache.getStatistics();
+
+        Image first = get("first", rasterized);
+        Image second = get("second", rasterized);
+        Assertions.assertSame(first, get("first", rasterized));
+        Assertions.assertEquals(2, rasterized.get());
+
+        // The least recently used image is evicted.
+        get("third", rasterized);
+        Assertions.assertSame(first, get("first", rasterized));
+        Assertions.assertNotSame(second, get("second", rasterized));
+        Assertions.assertEquals(4, rasterized.get());
+
+        IconCacheStatistics statistics = RasterCache.getStatistics();
+        Assertions.assertEquals(2, statistics.getHitCount() - before.getHitCount());
+        Assertions.assertEquals(4, statistics.getMissCount() - before.getMissCount());
+        Assertions.assertEquals(2, statistics.getEvictionCount() - before.getEvictionCount());
+        Assertions.assertEquals(2, statistics.getSize());
+        Assertions.assertEquals(800, statistics.getRetainedRasterBytes());
+
+        // Lowering the budget trims the cache immediately.
+        RasterCache.setBudget(400);
+        statistics = RasterCache.getStatistics();
+        Assertions.assertEquals(1, statistics.getSize());
+        Assertions.assertEquals(400, statistics.getRetainedRasterBytes());
+    }
+
+    @Test
+    void testImageExceedingBudgetIsNotCached() {
+        RasterCache.setBudget(100);
+        AtomicInteger rasterized = new AtomicInteger();
+        Image image = get("large", rasterized);
+        Assertions.assertNotSame(image, get("large", rasterized));
+        Assertions.assertEquals(2, rasterized.get());
+        IconCacheStatistics statistics = RasterCache.getStatistics();
+        Assertions.assertEquals(0, statistics.getSize());
+        Assertions.assertEquals(0, statistics.getRetainedRasterBytes());
+    }
+
+    @Test
+    void testClear() {
+        AtomicInteger rasterized = new AtomicInteger();
+        Image image = get("image", rasterized);
+        RasterCache.clear();
+        Assertions.assertEquals(0, RasterCache.getStatistics().getSize());
+        Assertions.assertEquals(0, RasterCache.getStatistics().getRetainedRasterBytes());
+        Assertions.assertNotSame(image, get("image", rasterized));
+    }
+
+    private static Image get(final Object content, final AtomicInteger rasterized) {
+        RasterCache.Key key = new RasterCache.Key(content, null, new Dimension(10, 10), 1, 1, false);
+        return RasterCache.get(key, () -> {
+            rasterized.incrementAndGet();
+            return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        });
+    }
+
+    private static void paint(final DarkSVGIcon icon) {
+        BufferedImage image = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        icon.paintIcon(null, g, 0, 0);
+        g.dispose();
+    }
+}
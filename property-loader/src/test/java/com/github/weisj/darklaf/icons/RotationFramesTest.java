@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.icons;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RotationFramesTest {
+
+    private Object themeStatus;
+
+    @BeforeEach
+    void setup() {
+        themeStatus = IconLoader.getThemeStatus();
+        IconLoader.updateThemeStatus(new Object());
+        RasterCache.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        IconLoader.updateThemeStatus(themeStatus);
+        RasterCache.clear();
+    }
+
+    private static void paint(final Icon icon) {
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        icon.paintIcon(null, g, 0, 0);
+        g.dispose();
+    }
+
+    @Test
+    void testFrameIndex() {
+        Assertions.assertEquals(0, RotationFrames.getFrameIndex(0, 8));
+        Assertions.assertEquals(2, RotationFrames.getFrameIndex(Math.PI / 2, 8));
+        Assertions.assertEquals(4, RotationFrames.getFrameIndex(Math.PI, 8));
+        Assertions.assertEquals(6, RotationFrames.getFrameIndex(-Math.PI / 2, 8));
+        Assertions.assertEquals(1, RotationFrames.getFrameIndex(2 * Math.PI + Math.PI / 4, 8));
+        Assertions.assertEquals(0, RotationFrames.getFrameIndex(-4 * Math.PI, 8));
+        Assertions.assertEquals(-1, RotationFrames.getFrameIndex(0.1, 8));
+        Assertions.assertEquals(-1, RotationFrames.getFrameIndex(Math.PI / 3, 8));
+        Assertions.assertEquals(-1, RotationFrames.getFrameIndex(Math.PI, 0));
+    }
+
+    @Test
+    void testFramesAreReused() {
+        CountingIcon icon = new CountingIcon();
+        RotatableIcon rotatable = new RotatableIcon(icon);
+        rotatable.setFrameCount(8);
+
+        rotatable.setRotation(Math.PI / 2);
+        paint(rotatable);
+        paint(rotatable);
+        Assertions.assertEquals(1, icon.painted.get());
+
+        // Equivalent angles and other rotatable icons of the same icon share the frame.
+        rotatable.setRotation(Math.PI / 2 + 2 * Math.PI);
+        paint(rotatable);
+        RotatableIcon other = new RotatableIcon(icon);
+        other.setFrameCount(8);
+        other.setRotation(Math.PI / 2);
+        paint(other);
+        Assertions.assertEquals(1, icon.painted.get());
+
+        rotatable.setRotation(Math.PI);
+        paint(rotatable);
+        Assertions.assertEquals(2, icon.painted.get());
+
+        // Angles between frames are painted directly.
+        rotatable.setRotation(0.1);
+        paint(rotatable);
+        paint(rotatable);
+        Assertions.assertEquals(4, icon.painted.get());
+
+        // Frames are invalidated when the theme changes.
+        IconLoader.updateThemeStatus(new Object());
+        rotatable.setRotation(Math.PI);
+        paint(rotatable);
+        Assertions.assertEquals(5, icon.painted.get());
+    }
+
+    @Test
+    void testImageSourcesAreRasterizedSeparately() {
+        ImageSourceIcon icon = new ImageSourceIcon();
+        RotatableIcon rotatable = new RotatableIcon(icon);
+        rotatable.setFrameCount(4);
+        rotatable.setRotation(Math.PI / 2);
+        paint(rotatable);
+        paint(rotatable);
+        Assertions.assertEquals(1, icon.created.get());
+    }
+
+    private static class CountingIcon implements Icon {
+        private final AtomicInteger painted = new AtomicInteger();
+
+        @Override
+        public void paintIcon(final Component c, final Graphics g, final int x, final int y) {
+            painted.incrementAndGet();
+            g.fillRect(x, y, getIconWidth(), getIconHeight() / 2);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return 16;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return 16;
+        }
+    }
+
+    private static class ImageSourceIcon extends CountingIcon implements ImageSource {
+        private final AtomicInteger created = new AtomicInteger();
+
+        @Override
+        public void paintIcon(final Component c, final Graphics g, final int x, final int y) {
+            Assertions.fail("Image sources should not be painted into frames");
+        }
+
+        @Override
+        public Image createImage(final Dimension size) {
+            created.incrementAndGet();
+            return new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+        }
+    }
+}
@@ -21,8 +21,19 @@
  */
 package com.github.weisj.darklaf.icons;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.*;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -93,4 +104,51 @@ class SVGImageTest {
         }
         Assertions.assertEquals(1, svgSet.size());
     }
+
+    @Test
+    void testConcurrentLoading() throws IOException, InterruptedException, ExecutionException {
+        int documentCount = 64;
+        int iconsPerDocument = 4;
+        Path directory = Files.createTempDirectory("darklaf-svg-test");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Color> colors = new ArrayList<>();
+            List<DarkSVGIcon> icons = new ArrayList<>();
+            for (int i = 0; i < documentCount; i++) {
+                Color color = new Color(4 * i, 255 - 4 * i, (16 * i) % 256);
+                Path file = directory.resolve("icon_" + i + ".svg");
+                String document = String.format("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"16\" height=\"16\">"
+                        + "<rect width=\"16\" height=\"16\" fill=\"#%06x\"/></svg>", color.getRGB() & 0xFFFFFF);
+                Files.write(file, document.getBytes(StandardCharsets.UTF_8));
+                URI uri = file.toUri();
+                for (int j = 0; j < iconsPerDocument; j++) {
+                    // Separate instances of the same document don't share their svg icon.
+                    icons.add(j % 2 == 0 ? new DarkSVGIcon(uri, 16, 16) : new ThemedSVGIcon(uri, 16, 16));
+                    colors.add(color);
+                }
+            }
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Image>> images = new ArrayList<>();
+            for (DarkSVGIcon icon : icons) {
+                images.add(executor.submit(() -> {
+                    start.await();
+                    return icon.createImage(new Dimension(16, 16));
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < icons.size(); i++) {
+                BufferedImage image = (BufferedImage) images.get(i).get();
+                Assertions.assertEquals(colors.get(i).getRGB(), image.getRGB(8, 8),
+                        "Icon " + i + " wasn't painted correctly");
+            }
+        } finally {
+            executor.shutdownNow();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
 }
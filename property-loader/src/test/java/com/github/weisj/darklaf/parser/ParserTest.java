@@ -27,9 +27,12 @@ import java.awt.Insets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.UIDefaults;
 
@@ -37,8 +40,12 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.github.weisj.darklaf.PropertyLoader;
 import com.github.weisj.darklaf.color.ColorUtil;
 import com.github.weisj.darklaf.icons.IconLoader;
+import com.github.weisj.darklaf.uiresource.DarkColorUIResource;
+import com.github.weisj.darklaf.util.timing.Timing;
+import com.github.weisj.darklaf.util.timing.TimingRecorder;
 
 class ParserTest {
 
@@ -234,4 +241,134 @@ class ParserTest {
         List<String> values2 = ParserUtil.delimitedSplit(',', '(', new ParseResult("key", value2), false);
         Assertions.assertEquals(expected, values2);
     }
+
+    @Test
+    void testReferenceGraphOrder() {
+        Map<Object, Object> properties = new HashMap<>();
+        properties.put("a", "%b");
+        properties.put("b", "[%c,%d]");
+        properties.put("%c", "%d");
+        properties.put("d", "1");
+        properties.put("e", "%a");
+        ReferenceGraph graph = ReferenceGraph.create(properties, Arrays.asList("e", "a", "b", "%c", "d"));
+        Assertions.assertEquals(Arrays.asList("d", "%c", "b", "a", "e"), graph.getResolutionOrder());
+        Assertions.assertTrue(graph.getCycles().isEmpty());
+        Assertions.assertEquals(Arrays.asList("%c", "b", "a", "e"),
+                graph.getAffectedKeys(Collections.singletonList("c")));
+        Assertions.assertEquals(Collections.singletonList("e"),
+                graph.getAffectedKeys(Collections.singletonList("e")));
+        Assertions.assertTrue(graph.getAffectedKeys(Collections.singletonList("unrelated")).isEmpty());
+    }
+
+    @Test
+    void testReferenceGraphCycle() {
+        Map<Object, Object> properties = new HashMap<>();
+        properties.put("a", "%b");
+        properties.put("b", "%a");
+        properties.put("c", "%c");
+        ReferenceGraph graph = ReferenceGraph.create(properties, Arrays.asList("a", "b", "c"));
+        Assertions.assertEquals(Arrays.asList("b", "a", "c"), graph.getResolutionOrder());
+        Assertions.assertEquals(Collections.singletonList(Arrays.asList("a", "b", "a")), graph.getCycles());
+    }
+
+    @Test
+    void testTokenParserMatchesStepwiseParser() {
+        context.accumulator.put("color", new Color(1, 2, 3));
+        context.defaults.put("number", 7);
+        String[][] entries = {
+                {"key", "Hello World"}, {"key", "null"}, {"%key", "42"}, {"key", "-17"}, {"key", "2147483648"},
+                {"key", "TrUe"}, {"key", "false"}, {"key", "#a0B1c2"}, {"key", "#a0B1c"}, {"key", "a0b1c2"},
+                {"key", "'quoted'"}, {"key", "%color"}, {"key", "%number"}, {"key", "%unknown"},
+                {"key", "?:%unknown,12"}, {"key", "[1,2,3]"}, {"key", "{a:1,b:2}"}, {"key", ""},
+                {"key.insets", "1,2,3,4"}, {"keyInsets", "1,2,%number,4"}, {"key.margins", "1,2,3"},
+                {"keySize", "10,20"}, {"key.size", "-1,+2"}, {"keyBorder", "com.example.Border"},
+                {"keyComponent", "com.example.Component"}, {"keyRenderer", "#000000"}};
+        for (String[] entry : entries) {
+            ParseResult expected = Parser.parseStepwise(new ParseResult(entry[0], entry[1]), context);
+            ParseResult actual = Parser.parse(new ParseResult(entry[0], entry[1]), context);
+            String message = entry[0] + "=" + entry[1];
+            Assertions.assertEquals(expected.key, actual.key, message);
+            Assertions.assertEquals(expected.finished, actual.finished, message);
+            Assertions.assertEquals(expected.result, actual.result, message);
+        }
+    }
+
+    @Test
+    void testInterning() {
+        Map<Object, Object> properties = new HashMap<>();
+        properties.put("a.insets", "1,2,3,4");
+        properties.put("b.insets", "1,2,3,4");
+        properties.put("a.color", "#010203");
+        properties.put("b.color", "#010203");
+        PropertyLoader.putProperties(properties, new HashSet<>(Arrays.asList("a.insets", "b.insets", "a.color",
+                "b.color")), context.accumulator, (UIDefaults) context.defaults, context.iconLoader);
+        Assertions.assertEquals(context.accumulator.get("a.insets"), context.accumulator.get("b.insets"));
+        Assertions.assertNotSame(context.accumulator.get("a.insets"), context.accumulator.get("b.insets"));
+        Assertions.assertSame(context.accumulator.get("a.color"), context.accumulator.get("b.color"));
+
+        Color color = new Color(1, 2, 3);
+        Assertions.assertSame(color, ValueInterner.intern(color));
+        Assertions.assertNotSame(color, ValueInterner.intern(new DarkColorUIResource(color)));
+    }
+
+    @Test
+    void testRecordDeclarations() {
+        Map<Object, Object> properties = new HashMap<>();
+        properties.put("a", "%b");
+        properties.put("b", "#010203");
+        Set<String> keys = new HashSet<>(Arrays.asList("a", "b"));
+        UIDefaults defaults = (UIDefaults) context.defaults;
+        PropertyLoader.putProperties(properties, keys, context.accumulator, defaults, context.iconLoader);
+
+        Map<Object, Object> previous = PropertyLoader.startRecording();
+        PropertyLoader.putProperties(properties, keys, context.accumulator, defaults, context.iconLoader);
+        Map<Object, Object> declarations = PropertyLoader.stopRecording(previous);
+        Assertions.assertEquals(properties, declarations);
+
+        context.accumulator.put("b", new Color(4, 5, 6));
+        PropertyLoader.putAffectedProperties(declarations, Collections.singleton("a"), Collections.singleton("b"),
+                context.accumulator, defaults, context.iconLoader);
+        Assertions.assertEquals(new Color(4, 5, 6), context.accumulator.get("a"));
+    }
+
+    @Test
+    void testParseTimings() {
+        Map<Object, Object> properties = new HashMap<>();
+        properties.put("a", "%b");
+        properties.put("b", "#010203");
+        properties.put("c", "%missing");
+        Set<String> keys = new HashSet<>(Arrays.asList("a", "b", "c"));
+        UIDefaults defaults = (UIDefaults) context.defaults;
+
+        List<Timing> previous = TimingRecorder.startRecording();
+        PropertyLoader.putProperties(properties, keys, context.accumulator, defaults, context.iconLoader);
+        List<Timing> timings = TimingRecorder.stopRecording(previous);
+        Assertions.assertEquals(1, timings.size());
+        Timing timing = timings.get(0);
+        Assertions.assertEquals(Timing.Kind.PROPERTY_PARSING, timing.getKind());
+        Assertions.assertEquals(3, timing.getKeyCount());
+        Assertions.assertEquals(1, timing.getWarningCount());
+    }
+
+    @Test
+    void testWarningCountPerThread() throws InterruptedException {
+        Map<Object, Object> properties = new HashMap<>();
+        properties.put("a", "%missing");
+        Set<String> keys = Collections.singleton("a");
+        AtomicInteger threadWarnings = new AtomicInteger(-1);
+
+        int warningCount = Parser.getWarningCount();
+        Thread thread = new Thread(() -> {
+            int count = Parser.getWarningCount();
+            PropertyLoader.putProperties(properties, keys, new HashMap<>(), new UIDefaults(), context.iconLoader);
+            threadWarnings.set(Parser.getWarningCount() - count);
+        });
+        thread.start();
+        thread.join();
+        Assertions.assertEquals(1, threadWarnings.get());
+        Assertions.assertEquals(warningCount, Parser.getWarningCount());
+
+        Parser.addWarningCount(threadWarnings.get());
+        Assertions.assertEquals(warningCount + 1, Parser.getWarningCount());
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util.graphics;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+
+import com.github.weisj.darklaf.util.Disposable;
+
+/**
+ * Per-thread pool of geometry objects for painting code, which would otherwise allocate new shapes on
+ * every paint. The shapes are only valid until the scratch is released and must not be retained:
+ *
+ * <pre>
+ * {@code
+ * try (GeometryScratch scratch = GeometryScratch.acquire()) {
+ *     RoundRectangle2D.Float rect = scratch.roundRectangle(0);
+ *     rect.setRoundRect(x, y, width, height, arc, arc);
+ *     g.fill(rect);
+ * }
+ * }
+ * </pre>
+ *
+ * Nested acquisitions on the same thread receive distinct instances, hence painting code may call other
+ * methods using the pool while holding a scratch.
+ *
+ * @author Jannis Weis
+ */
+public final class GeometryScratch implements Disposable {
+
+    /** The number of shapes of each kind provided by a scratch. */
+    public static final int SLOTS = 2;
+
+    private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+
+    private final Pool pool;
+    private final Rectangle2D.Float[] rectangles = new Rectangle2D.Float[SLOTS];
+    private final RoundRectangle2D.Float[] roundRectangles = new RoundRectangle2D.Float[SLOTS];
+    private final Ellipse2D.Float[] ellipses = new Ellipse2D.Float[SLOTS];
+    private final Path2D.Float path = new Path2D.Float();
+
+    private GeometryScratch(final Pool pool) {
+        this.pool = pool;
+        for (int i = 0; i < SLOTS; i++) {
+            rectangles[i] = new Rectangle2D.Float();
+            roundRectangles[i] = new RoundRectangle2D.Float();
+            ellipses[i] = new Ellipse2D.Float();
+        }
+    }
+
+    /**
+     * Acquires a scratch of the current thread. The scratch has to be released using
+     * {@link #dispose()} by the same thread.
+     *
+     * @return the scratch.
+     */
+    public static GeometryScratch acquire() {
+        return POOL.get().acquire();
+    }
+
+    public Rectangle2D.Float rectangle(final int slot) {
+        return rectangles[slot];
+    }
+
+    public RoundRectangle2D.Float roundRectangle(final int slot) {
+        return roundRectangles[slot];
+    }
+
+    public Ellipse2D.Float ellipse(final int slot) {
+        return ellipses[slot];
+    }
+
+    /**
+     * Returns the empty path of this scratch.
+     *
+     * @param windingRule the winding rule of the path.
+     * @return the path.
+     */
+    public Path2D.Float path(final int windingRule) {
+        path.reset();
+        path.setWindingRule(windingRule);
+        return path;
+    }
+
+    @Override
+    public void dispose() {
+        pool.release(this);
+    }
+
+    private static final class Pool {
+        private GeometryScratch[] instances = new GeometryScratch[4];
+        private int depth;
+
+        private GeometryScratch acquire() {
+            if (depth == instances.length) {
+                GeometryScratch[] grown = new GeometryScratch[2 * depth];
+                System.arraycopy(instances, 0, grown, 0, depth);
+                instances = grown;
+            }
+            GeometryScratch scratch = instances[depth];
+            if (scratch == null) {
+                scratch = new GeometryScratch(this);
+                instances[depth] = scratch;
+            }
+            depth++;
+            return scratch;
+        }
+
+        private void release(final GeometryScratch scratch) {
+            if (depth == 0 || instances[depth - 1] != scratch) {
+                throw new IllegalStateException("Scratch released out of order");
+            }
+            depth--;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util.timing;
+
+import com.github.weisj.darklaf.util.PropertyUtil;
+
+/*
+ * Flight recorder isn't available on every runtime supported by darklaf. All references to the
+ * jdk.jfr classes are confined to the Events class which is only loaded if the api is present.
+ */
+final class FlightRecorderSupport {
+
+    static final String FLIGHT_RECORDER_FLAG = "darklaf.flightRecorderEvents";
+    private static final boolean AVAILABLE = isAvailable();
+
+    private FlightRecorderSupport() {}
+
+    static Object begin(final Timing.Kind kind, final String name) {
+        if (!AVAILABLE) return null;
+        return Events.begin(kind, name);
+    }
+
+    static void commit(final Object event, final int keyCount, final int warningCount) {
+        if (event == null) return;
+        Events.commit(event, keyCount, warningCount);
+    }
+
+    private static boolean isAvailable() {
+        if (!PropertyUtil.getSystemFlag(FLIGHT_RECORDER_FLAG)) return false;
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderSupport.class.getClassLoader());
+            return true;
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static final class Events {
+
+        private static Object begin(final Timing.Kind kind, final String name) {
+            ThemeInstallEvent event = new ThemeInstallEvent();
+            if (!event.isEnabled()) return null;
+            event.kind = kind.name();
+            event.name = name;
+            event.begin();
+            return event;
+        }
+
+        private static void commit(final Object eventObject, final int keyCount, final int warningCount) {
+            ThemeInstallEvent event = (ThemeInstallEvent) eventObject;
+            event.end();
+            if (event.shouldCommit()) {
+                event.keyCount = keyCount;
+                event.warningCount = warningCount;
+                event.commit();
+            }
+        }
+    }
+}
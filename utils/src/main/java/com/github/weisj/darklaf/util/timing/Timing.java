@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util.timing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The measured duration of a single step of installing a theme.
+ *
+ * @author Jannis Weis
+ */
+public final class Timing {
+
+    public enum Kind {
+        /**
+         * Installing a theme as a whole.
+         */
+        INSTALL,
+        /**
+         * Running a {@code DefaultsInitTask}.
+         */
+        INIT_TASK,
+        /**
+         * Running a {@code DefaultsAdjustmentTask}.
+         */
+        ADJUSTMENT_TASK,
+        /**
+         * Reading a properties file.
+         */
+        PROPERTY_FILE,
+        /**
+         * Parsing and resolving property values.
+         */
+        PROPERTY_PARSING,
+        /**
+         * Updating the ui of the open windows.
+         */
+        UPDATE_LAF,
+        /**
+         * Applying a different accent color to the installed defaults.
+         */
+        ACCENT_COLOR_UPDATE
+    }
+
+    public static final int UNKNOWN_COUNT = -1;
+
+    private final Kind kind;
+    private final String name;
+    private final long durationNanos;
+    private final int keyCount;
+    private final int warningCount;
+
+    Timing(final Kind kind, final String name, final long durationNanos, final int keyCount,
+            final int warningCount) {
+        this.kind = kind;
+        this.name = name;
+        this.durationNanos = durationNanos;
+        this.keyCount = keyCount;
+        this.warningCount = warningCount;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public double getDurationMillis() {
+        return durationNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * The number of keys the step has produced or processed.
+     *
+     * @return the number of keys or {@link #UNKNOWN_COUNT} if the step doesn't operate on keys.
+     */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * The number of warnings emitted while parsing property values during this step.
+     *
+     * @return the number of warnings.
+     */
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: %.3fms (keys=%d, warnings=%d)", kind, name, getDurationMillis(), keyCount,
+                warningCount);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util.timing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures the steps of installing a theme. Every measurement is emitted as a flight recorder
+ * event (if available) and added to the timings recorded on the current thread.
+ *
+ * @author Jannis Weis
+ */
+public final class TimingRecorder {
+
+    private static final ThreadLocal<List<Timing>> recordedTimings = new ThreadLocal<>();
+
+    private TimingRecorder() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Starts measuring a step. The measurement has to be finished using {@link Measurement#end()}.
+     *
+     * @param kind the kind of the step.
+     * @param name the name of the step.
+     * @return the measurement.
+     */
+    public static Measurement start(final Timing.Kind kind, final String name) {
+        return new Measurement(kind, name);
+    }
+
+    /**
+     * Records the timings of all measurements finished on the current thread until
+     * {@link #stopRecording(List)} is called.
+     *
+     * @return the previously recorded timings which have to be passed to {@link #stopRecording(List)}.
+     */
+    public static List<Timing> startRecording() {
+        return setRecording(Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    /**
+     * Stops recording timings. The recorded timings are added to the previous recording.
+     *
+     * @param previous the value returned by {@link #startRecording()}.
+     * @return the timings recorded since the corresponding call to {@link #startRecording()}.
+     */
+    public static List<Timing> stopRecording(final List<Timing> previous) {
+        List<Timing> timings = getRecording();
+        setRecording(previous);
+        if (timings == null) return Collections.emptyList();
+        if (previous != null) previous.addAll(timings);
+        return timings;
+    }
+
+    /**
+     * Returns the current recording of this thread. It can be used to record the timings of work
+     * which is done on other threads using {@link #setRecording(List)}.
+     *
+     * @return the current recording or null if timings aren't recorded.
+     */
+    public static List<Timing> getRecording() {
+        return recordedTimings.get();
+    }
+
+    /**
+     * Sets the recording of the current thread.
+     *
+     * @param recording the recording. May be null.
+     * @return the previous recording which should be restored afterwards.
+     */
+    public static List<Timing> setRecording(final List<Timing> recording) {
+        List<Timing> previous = recordedTimings.get();
+        if (recording == null) {
+            recordedTimings.remove();
+        } else {
+            recordedTimings.set(recording);
+        }
+        return previous;
+    }
+
+    public static final class Measurement {
+
+        private final Timing.Kind kind;
+        private final String name;
+        private final Object event;
+        private final long start;
+        private int keyCount = Timing.UNKNOWN_COUNT;
+        private int warningCount;
+
+        private Measurement(final Timing.Kind kind, final String name) {
+            this.kind = kind;
+            this.name = name;
+            this.event = FlightRecorderSupport.begin(kind, name);
+            this.start = System.nanoTime();
+        }
+
+        public Measurement setKeyCount(final int keyCount) {
+            this.keyCount = keyCount;
+            return this;
+        }
+
+        public Measurement setWarningCount(final int warningCount) {
+            this.warningCount = warningCount;
+            return this;
+        }
+
+        /**
+         * Finishes the measurement.
+         *
+         * @return the measured timing.
+         */
+        public Timing end() {
+            long duration = System.nanoTime() - start;
+            FlightRecorderSupport.commit(event, keyCount, warningCount);
+            Timing timing = new Timing(kind, name, duration, keyCount, warningCount);
+            List<Timing> timings = recordedTimings.get();
+            if (timings != null) timings.add(timing);
+            return timing;
+        }
+    }
+}